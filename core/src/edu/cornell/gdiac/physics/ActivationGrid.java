@@ -0,0 +1,219 @@
+/*
+ * ActivationGrid.java
+ *
+ * Keeps the far corners of a large level asleep.  Custom boards can be up to
+ * 127x127 tiles, and every tile is an object the world controller steps.  Most
+ * of them are nowhere near the camera, the spirit or a golem, and only need to
+ * be drawn when the camera comes back.
+ */
+package edu.cornell.gdiac.physics;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.physics.obstacle.Obstacle;
+import edu.cornell.gdiac.physics.obstacle.ObstacleType;
+import edu.cornell.gdiac.physics.obstacle.TileMapObstacle;
+
+/**
+ * A grid of chunks of board tiles, each of which is awake or dormant as a whole.
+ *
+ * A chunk is CHUNK_TILES by CHUNK_TILES tiles of the Board.  Only tiles that
+ * nothing far away can interact with are put in chunks: water, decorative roots,
+ * the tiles merged into a shared body, and those bodies themselves, which are
+ * merged one chunk at a time for this.  Hosts, the spirit, energy pillars and
+ * gates are always awake.
+ *
+ * Each frame, begin() starts a new pass, wake() marks the chunks near each point
+ * of interest, and end() puts the other chunks to sleep.  Objects only change
+ * state when their chunk does.
+ */
+public class ActivationGrid {
+
+    /** The number of tiles along each side of a chunk */
+    public static final int CHUNK_TILES = 8;
+
+    /** The width of a chunk in Box2D coordinates */
+    public static final float CHUNK_WIDTH = CHUNK_TILES * Constants.TILE_WIDTH;
+
+    /** The height of a chunk in Box2D coordinates */
+    public static final float CHUNK_HEIGHT = CHUNK_TILES * Constants.TILE_HEIGHT;
+
+    /** The x-coordinate of the left edge of the grid */
+    private float originX;
+    /** The y-coordinate of the bottom edge of the grid */
+    private float originY;
+    /** The number of columns of chunks */
+    private int cols;
+    /** The number of rows of chunks */
+    private int rows;
+
+    /** The objects in each chunk, at column * rows + row */
+    private Array<Array<Obstacle>> chunks;
+    /** Whether each chunk is awake */
+    private boolean[][] awake;
+    /** The last pass in which each chunk was woken */
+    private int[][] wokenPass;
+    /** The current pass */
+    private int pass;
+
+    /**
+     * Returns true if an object can be put to sleep with its chunk
+     *
+     * @param obj The object to check
+     */
+    private static boolean canSleep(Obstacle obj) {
+        return obj.isMerged() || obj instanceof TileMapObstacle
+                || obj.getType() == ObstacleType.WATER || obj.getType() == ObstacleType.DECORATIVE;
+    }
+
+    /**
+     * Returns the x-coordinate of the center of the chunk holding a point
+     *
+     * Chunks line up with multiples of their size, so this does not depend on
+     * the extent of the level.
+     *
+     * @param x The x-coordinate of the point
+     *
+     * @return the x-coordinate of the center of its chunk
+     */
+    public static float getChunkCenterX(float x) {
+        return (MathUtils.floor(x / CHUNK_WIDTH) + 0.5f) * CHUNK_WIDTH;
+    }
+
+    /**
+     * Returns the y-coordinate of the center of the chunk holding a point
+     *
+     * @param y The y-coordinate of the point
+     *
+     * @return the y-coordinate of the center of its chunk
+     */
+    public static float getChunkCenterY(float y) {
+        return (MathUtils.floor(y / CHUNK_HEIGHT) + 0.5f) * CHUNK_HEIGHT;
+    }
+
+    /**
+     * Sorts the objects of a level into chunks, all of them awake
+     *
+     * @param objects The objects of the level
+     */
+    public ActivationGrid(Iterable<Obstacle> objects) {
+        // Find the extent of the objects that can sleep
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        for (Obstacle obj : objects) {
+            if (canSleep(obj)) {
+                minX = Math.min(minX, obj.getX());
+                minY = Math.min(minY, obj.getY());
+                maxX = Math.max(maxX, obj.getX());
+                maxY = Math.max(maxY, obj.getY());
+            }
+        }
+        if (minX > maxX) {
+            chunks = new Array<Array<Obstacle>>(0);
+            awake = new boolean[0][0];
+            wokenPass = new int[0][0];
+            return;
+        }
+
+        originX = MathUtils.floor(minX / CHUNK_WIDTH) * CHUNK_WIDTH;
+        originY = MathUtils.floor(minY / CHUNK_HEIGHT) * CHUNK_HEIGHT;
+        cols = MathUtils.floor((maxX - originX) / CHUNK_WIDTH) + 1;
+        rows = MathUtils.floor((maxY - originY) / CHUNK_HEIGHT) + 1;
+
+        chunks = new Array<Array<Obstacle>>(cols * rows);
+        awake = new boolean[cols][rows];
+        wokenPass = new int[cols][rows];
+        for (int x = 0; x < cols; x++) {
+            for (int y = 0; y < rows; y++) {
+                chunks.add(new Array<Obstacle>());
+                awake[x][y] = true;
+            }
+        }
+        for (Obstacle obj : objects) {
+            if (canSleep(obj)) {
+                chunks.get(getColumn(obj.getX()) * rows + getRow(obj.getY())).add(obj);
+            }
+        }
+    }
+
+    /**
+     * Returns the column of the chunk holding an x-coordinate, clamped to the grid
+     */
+    private int getColumn(float x) {
+        return MathUtils.clamp(MathUtils.floor((x - originX) / CHUNK_WIDTH), 0, cols - 1);
+    }
+
+    /**
+     * Returns the row of the chunk holding a y-coordinate, clamped to the grid
+     */
+    private int getRow(float y) {
+        return MathUtils.clamp(MathUtils.floor((y - originY) / CHUNK_HEIGHT), 0, rows - 1);
+    }
+
+    /**
+     * Wakes every chunk, as after the level is restarted
+     */
+    public void reset() {
+        for (int x = 0; x < cols; x++) {
+            for (int y = 0; y < rows; y++) {
+                setAwake(x, y, true);
+            }
+        }
+    }
+
+    /**
+     * Starts a new pass, in which no chunk has been woken yet
+     */
+    public void begin() {
+        pass++;
+    }
+
+    /**
+     * Wakes every chunk overlapping a rectangle around a point
+     *
+     * @param x The x-coordinate of the point
+     * @param y The y-coordinate of the point
+     * @param halfWidth Half the width of the rectangle
+     * @param halfHeight Half the height of the rectangle
+     */
+    public void wake(float x, float y, float halfWidth, float halfHeight) {
+        if (cols == 0 || x + halfWidth < originX || y + halfHeight < originY
+                || x - halfWidth >= originX + cols * CHUNK_WIDTH || y - halfHeight >= originY + rows * CHUNK_HEIGHT) {
+            return;
+        }
+        int right = getColumn(x + halfWidth);
+        int top = getRow(y + halfHeight);
+        for (int i = getColumn(x - halfWidth); i <= right; i++) {
+            for (int j = getRow(y - halfHeight); j <= top; j++) {
+                wokenPass[i][j] = pass;
+            }
+        }
+    }
+
+    /**
+     * Ends the pass, waking the chunks woken in it and putting the rest to sleep
+     */
+    public void end() {
+        for (int x = 0; x < cols; x++) {
+            for (int y = 0; y < rows; y++) {
+                setAwake(x, y, wokenPass[x][y] == pass);
+            }
+        }
+    }
+
+    /**
+     * Wakes a chunk or puts it to sleep, if it is not that way already
+     */
+    private void setAwake(int x, int y, boolean value) {
+        if (awake[x][y] == value) {
+            return;
+        }
+        awake[x][y] = value;
+        Array<Obstacle> chunk = chunks.get(x * rows + y);
+        for (int i = 0; i < chunk.size; i++) {
+            chunk.get(i).setDormant(!value);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package edu.cornell.gdiac.physics;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
 import edu.cornell.gdiac.physics.obstacle.Obstacle;
+import edu.cornell.gdiac.physics.obstacle.ObstacleType;
 import edu.cornell.gdiac.physics.host.HostModel;
 import edu.cornell.gdiac.physics.obstacle.OscWall;
 import edu.cornell.gdiac.physics.spirit.SpiritModel;
@@ -11,15 +12,53 @@ import java.util.ArrayList;
 
 public class CollisionController implements ContactListener {
 
+    // Contact handlers, looked up by the pair of obstacle types in contact
+
+    /** Nothing special happens */
+    private static final int NONE = 0;
+    /** The contact is always disabled */
+    private static final int PASS_THROUGH = 1;
+    /** The spirit bounces off a wall or pillar */
+    private static final int SPIRIT_WALL = 2;
+    /** The spirit bounces off the level bounds */
+    private static final int SPIRIT_BOUNDS = 3;
+    /** The spirit touches a gate, which may be open */
+    private static final int SPIRIT_OSC_WALL = 4;
+    /** A host touches a gate, which may be open */
+    private static final int HOST_OSC_WALL = 5;
+    /** The spirit touches a host, and may possess it */
+    private static final int SPIRIT_HOST = 6;
+
+    /** The contact handler for each pair of obstacle types, indexed by their ordinals */
+    private static final int[][] PAIR_HANDLERS = new int[ObstacleType.COUNT][ObstacleType.COUNT];
+
+    // Pairs that never collide at all are filtered out in the broadphase instead
+    // (see ObstacleType.getMask), and never reach these handlers.  Sand only
+    // touches hosts, which walk through it but turn around when they walk in.
+    static {
+        setHandler(ObstacleType.HOST, ObstacleType.PEDESTAL, PASS_THROUGH);
+        setHandler(ObstacleType.HOST, ObstacleType.SAND, PASS_THROUGH);
+        setHandler(ObstacleType.SPIRIT, ObstacleType.WALL, SPIRIT_WALL);
+        setHandler(ObstacleType.SPIRIT, ObstacleType.ENERGY_PILLAR, SPIRIT_WALL);
+        setHandler(ObstacleType.SPIRIT, ObstacleType.EDGE, SPIRIT_BOUNDS);
+        setHandler(ObstacleType.SPIRIT, ObstacleType.CORNER, SPIRIT_BOUNDS);
+        setHandler(ObstacleType.SPIRIT, ObstacleType.OSC_WALL, SPIRIT_OSC_WALL);
+        setHandler(ObstacleType.HOST, ObstacleType.OSC_WALL, HOST_OSC_WALL);
+        setHandler(ObstacleType.SPIRIT, ObstacleType.HOST, SPIRIT_HOST);
+    }
+
     /**
-     * Whether the host was bounced against a wall this frame
+     * Sets the handler for a pair of obstacle types, in either order
      */
-    private boolean bounced;
+    private static void setHandler(ObstacleType a, ObstacleType b, int handler) {
+        PAIR_HANDLERS[a.ordinal()][b.ordinal()] = handler;
+        PAIR_HANDLERS[b.ordinal()][a.ordinal()] = handler;
+    }
 
     /**
-     * Whether the host is walking through sand this frame
+     * Whether the host was bounced against a wall this frame
      */
-    private boolean inSand;
+    private boolean bounced;
     /**
      * Whether the host bounced on the bounds this frame
      */
@@ -34,6 +73,11 @@ public class CollisionController implements ContactListener {
      */
     private HostModel prevHostPossessed;
 
+    /**
+     * Whether a host was possessed for the first time since this was last checked
+     */
+    private boolean newPossession;
+
     // Physics objects for the game
     /**
      * Reference to the hosts
@@ -54,7 +98,11 @@ public class CollisionController implements ContactListener {
         bounced = false;
         hostPossessed = null;
         prevHostPossessed = null;
-        inSand = false;
+
+        events = new ContactEvent[INITIAL_CAPACITY];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new ContactEvent();
+        }
     }
 
     /**
@@ -64,7 +112,11 @@ public class CollisionController implements ContactListener {
         spirit = null;
         hostList = null;
         bounced = false;
+        bounceOnBounds = false;
         hostPossessed = null;
+        prevHostPossessed = null;
+        newPossession = false;
+        discardContacts();
     }
 
     /**
@@ -81,76 +133,146 @@ public class CollisionController implements ContactListener {
         this.spirit = spirit;
     }
 
+    // The contact event queue
+
+    /** A contact between two obstacles began */
+    private static final int BEGIN = 0;
+    /** A contact between two obstacles ended */
+    private static final int END = 1;
+    /** The spirit bounced off something solid */
+    private static final int BOUNCE = 2;
+
+    /** The number of events the queue holds before it must grow */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * A contact event, recorded during a world step and resolved after it.
+     *
+     * Records are allocated once and reused, so recording an event allocates nothing.
+     * Anything read from the Contact is copied out, as Box2D reuses it.
+     */
+    private static class ContactEvent {
+        /** The kind of event: BEGIN, END or BOUNCE */
+        int kind;
+        /** The pair handler of the two obstacles */
+        int handler;
+        /** The first obstacle in contact */
+        Obstacle first;
+        /** The second obstacle in contact */
+        Obstacle second;
+        /** Whether the first obstacle is a host that walked into the contact */
+        boolean firstWalkedIn;
+        /** Whether the second obstacle is a host that walked into the contact */
+        boolean secondWalkedIn;
+        /** Whether a bounce was off the level bounds */
+        boolean onBounds;
+        /** The x-coordinate of the spirit at a bounce */
+        float x;
+        /** The y-coordinate of the spirit at a bounce */
+        float y;
+    }
+
+    /** The ring buffer of events waiting to be resolved */
+    private ContactEvent[] events;
+    /** The index of the oldest event in the queue */
+    private int head;
+    /** The number of events in the queue */
+    private int size;
+
+    /**
+     * Returns a fresh event at the back of the queue, growing the queue if it is full
+     *
+     * @param kind The kind of event
+     */
+    private ContactEvent push(int kind) {
+        if (size == events.length) {
+            ContactEvent[] grown = new ContactEvent[events.length * 2];
+            for (int i = 0; i < size; i++) {
+                grown[i] = events[(head + i) % events.length];
+            }
+            for (int i = size; i < grown.length; i++) {
+                grown[i] = new ContactEvent();
+            }
+            events = grown;
+            head = 0;
+        }
+        ContactEvent event = events[(head + size) % events.length];
+        size++;
+        event.kind = kind;
+        event.handler = NONE;
+        event.first = null;
+        event.second = null;
+        event.firstWalkedIn = false;
+        event.secondWalkedIn = false;
+        event.onBounds = false;
+        return event;
+    }
+
+    /**
+     * Empties the queue without resolving anything
+     */
+    private void discardContacts() {
+        for (int i = 0; i < size; i++) {
+            ContactEvent event = events[(head + i) % events.length];
+            event.first = null;
+            event.second = null;
+        }
+        head = 0;
+        size = 0;
+    }
+
     // ContactListener methods
 
+    /**
+     * Returns the type of the obstacle owning a fixture
+     *
+     * @param fixture The fixture to look up
+     */
+    private static ObstacleType typeOf(Fixture fixture) {
+        return ((Obstacle) fixture.getBody().getUserData()).getType();
+    }
+
     /**
      * Callback method for the start of a collision
      * <p>
-     * This method is called when we first get a collision between two objects.  We use
-     * this method to test if it is the "right" kind of collision.  In particular, we
-     * use it to test if the spirit bounced against a wall or if the spirit bounced into a host.
+     * This method is called when we first get a collision between two objects, in the
+     * middle of a world step.  It only records the contact; resolveContacts reacts to
+     * it once the step is over.
      *
      * @param contact The two bodies that collided
      */
     public void beginContact(Contact contact) {
-
-        // Reset all the fields to reflect this current frame if needed
-        clear();
-        prevHostPossessed = hostPossessed;
-
         Fixture fix1 = contact.getFixtureA();
         Fixture fix2 = contact.getFixtureB();
+        Obstacle obj1 = (Obstacle) fix1.getBody().getUserData();
+        Obstacle obj2 = (Obstacle) fix2.getBody().getUserData();
+
+        ContactEvent event = push(BEGIN);
+        event.handler = PAIR_HANDLERS[obj1.getType().ordinal()][obj2.getType().ordinal()];
+        event.first = obj1;
+        event.second = obj2;
+
+        // Whether a host walked into the contact depends on where it is now
+        if (obj1.getType() == ObstacleType.HOST || obj2.getType() == ObstacleType.HOST) {
+            Vector2 point = contact.getWorldManifold().getPoints()[0];
+            event.firstWalkedIn = obj1.getType() == ObstacleType.HOST && walkedInto((HostModel) obj1, point);
+            event.secondWalkedIn = obj2.getType() == ObstacleType.HOST && walkedInto((HostModel) obj2, point);
+        }
+    }
 
-        Body body1 = fix1.getBody();
-        Body body2 = fix2.getBody();
-
-        // Collision handling to determine if the spirit collides with any hosts
-        for (HostModel r : hostList) {
-            if (((body1.getUserData() == spirit && body2.getUserData() == r) ||
-                    (body1.getUserData() == r && body2.getUserData() == spirit)) & !spirit.getIsPossessing()) {
-
-                hostPossessed = r;
-
-                // Increment HUD if host has never been possessed before
-                if (!hostPossessed.beenPossessed()) {
-                    HUD.incrementCurrHosts();
-                }
-
-                // host is now possessed
-                hostPossessed.setPossessed(true);
-
-                // set impact for screen shake
-                hostPossessed.setImpact(true);
-
-                // Spirit's life is replenished upon possessing new host
-                spirit.setCurrentLife(spirit.getDefaultLife());
-
-                // spirit is no longer in stage of being launched
-                spirit.setHasLaunched(false);
-
-                // Spirit is alive whenever it is inside of a host
-                spirit.setAlive(true);
-
-                // Spirit is Going to Center Now
-                spirit.setGoToCenter(true);
-
-                // Spirit moves towards the possessed's center if wasn't already colliding with it last frame
-                if (hostPossessed != prevHostPossessed) {
-                    spirit.setGoToCenter(true);
-                }
-            }
-
-            if (((body2.getUserData() == r) || (body1.getUserData() == r)) && !r.isPossessed()) {
-                Vector2 c = contact.getWorldManifold().getPoints()[0].sub(r.getPosition());
-                Vector2 v = r.getLinearVelocity();
+    /**
+     * Returns true if a host is moving towards a contact point, or barely moving
+     *
+     * @param r The host in contact
+     * @param point The contact point, which is not changed
+     */
+    private static boolean walkedInto(HostModel r, Vector2 point) {
+        float cx = point.x - r.getX();
+        float cy = point.y - r.getY();
+        Vector2 v = r.getLinearVelocity();
 
-                if ((Math.signum(c.x) == Math.signum(v.x) || Math.abs(v.x) < 0.1)
-                        && (Math.signum(c.y) == Math.signum(v.y) || Math.abs(v.y) < 0.1)) {
-                    r.invertForwardI();
-                    r.nextInstruction();
-                }
-            }
-        }
+        return (Math.signum(cx) == Math.signum(v.x) || Math.abs(v.x) < 0.1)
+                && (Math.signum(cy) == Math.signum(v.y) || Math.abs(v.y) < 0.1);
     }
 
     /**
@@ -158,19 +280,13 @@ public class CollisionController implements ContactListener {
      * This method is called when two objects cease to touch.
      */
     public void endContact(Contact contact) {
-        Fixture fix1 = contact.getFixtureA();
-        Fixture fix2 = contact.getFixtureB();
-
-        Body body1 = fix1.getBody();
-        Body body2 = fix2.getBody();
-
-        if (hostList != null) {
-            for (HostModel r : hostList) {
-                if (((body2.getUserData() == r) || (body1.getUserData() == r)) && !r.isPossessed()) {
-                    r.setLinearVelocity(new Vector2(0, 0));
-                }
-            }
+        if (hostList == null) {
+            return;
         }
+
+        ContactEvent event = push(END);
+        event.first = (Obstacle) contact.getFixtureA().getBody().getUserData();
+        event.second = (Obstacle) contact.getFixtureB().getBody().getUserData();
     }
 
     /**
@@ -191,81 +307,198 @@ public class CollisionController implements ContactListener {
      * get a collision over multiple frames (instead of detecting the first frame), and
      * so play a sound repeatedly.  Fortunately, the cooldown hack in SoundController
      * prevents this from happening.
+     * <p>
+     * The pair of obstacle types is looked up in PAIR_HANDLERS, so each contact
+     * costs the same no matter how many hosts are in the level.  Contacts are enabled
+     * or disabled here, as Box2D needs to know now; bounces are only recorded.
      *
      * @param contact     The two bodies that collided
      * @param oldManifold The collision manifold before contact
      */
-    // Will need to modify this when we include sound effects upon wall and possession collisions
     public void preSolve(Contact contact, Manifold oldManifold) {
         Fixture fix1 = contact.getFixtureA();
         Fixture fix2 = contact.getFixtureB();
+        ObstacleType type1 = typeOf(fix1);
+        ObstacleType type2 = typeOf(fix2);
+
+        switch (PAIR_HANDLERS[type1.ordinal()][type2.ordinal()]) {
+            case PASS_THROUGH:
+                contact.setEnabled(false);
+                break;
+
+            case SPIRIT_WALL:
+                recordBounce(false);
+                break;
+
+            case SPIRIT_BOUNDS:
+                recordBounce(true);
+                break;
+
+            case SPIRIT_OSC_WALL:
+                // Closed gates bounce the spirit; open ones are filtered out, but
+                // a contact made while closed lasts until the next step
+                if (((OscWall) (type1 == ObstacleType.OSC_WALL ? fix1 : fix2).getBody().getUserData()).isPhysical()) {
+                    recordBounce(false);
+                } else {
+                    contact.setEnabled(false);
+                }
+                break;
 
-        Body body1 = fix1.getBody();
-        Body body2 = fix2.getBody();
+            case HOST_OSC_WALL:
+                if (!((OscWall) (type1 == ObstacleType.OSC_WALL ? fix1 : fix2).getBody().getUserData()).isPhysical()) {
+                    contact.setEnabled(false);
+                }
+                break;
 
-        Obstacle bd1 = (Obstacle) body1.getUserData();
-        Obstacle bd2 = (Obstacle) body2.getUserData();
+            case SPIRIT_HOST:
+                // Possession is handled with the contact events, the spirit passes into the host
+                contact.setEnabled(false);
+                break;
 
-        // Check for Collision with Pedestal
-        if ((body1.getUserData() == spirit && bd2.getName() == "pedestal") ||
-                (bd1.getName() == "pedestal" && body2.getUserData() == spirit) ||
-                (bd1.getName() == "host" && bd2.getName() == "pedestal") ||
-                (bd1.getName() == "pedestal" && bd2.getName() == "host")) {
-            contact.setEnabled(false);
+            default:
+                break;
         }
+    }
 
-        // Check for Spirit and Host Collision with OscWall
-        if ((bd1.getName() == "oscWall" && !((OscWall) bd1).isPhysical() && body2.getUserData() == spirit) ||
-                (body2.getUserData() == spirit && bd1.getName() == "oscWall" && !((OscWall) bd1).isPhysical()) ||
-            (bd1.getName() == "oscWall" && !((OscWall) bd1).isPhysical() && bd2.getName() == "host") ||
-                    (bd1.getName() == "host" && bd2.getName() == "oscWall" && !((OscWall) bd2).isPhysical())) {
-            contact.setEnabled(false);
+    /**
+     * Records that the spirit bounced off something solid, where it is now
+     *
+     * @param onBounds Whether it bounced off the level bounds
+     */
+    private void recordBounce(boolean onBounds) {
+        ContactEvent event = push(BOUNCE);
+        event.onBounds = onBounds;
+        event.x = spirit.getX();
+        event.y = spirit.getY();
+    }
+
+    // Resolving contact events
+
+    /**
+     * Resolves every contact event recorded since the last call, in the order they happened.
+     * <p>
+     * This is called after each world step, outside of any Box2D callback, so the
+     * gameplay rules can change any object freely.  Events recorded outside of a
+     * step, such as when a body is destroyed, wait for the end of the next one.
+     */
+    public void resolveContacts() {
+        while (size > 0) {
+            ContactEvent event = events[head];
+            head = (head + 1) % events.length;
+            size--;
+
+            switch (event.kind) {
+                case BEGIN:
+                    resolveBegin(event);
+                    break;
+                case END:
+                    if (event.first.getType() == ObstacleType.HOST) {
+                        stopHost((HostModel) event.first);
+                    }
+                    if (event.second.getType() == ObstacleType.HOST) {
+                        stopHost((HostModel) event.second);
+                    }
+                    break;
+                case BOUNCE:
+                    bounce(event.onBounds, event.x, event.y);
+                    break;
+                default:
+                    break;
+            }
+            event.first = null;
+            event.second = null;
         }
+        head = 0;
+    }
+
+    /**
+     * Reacts to the start of a contact, possessing a host or turning one around
+     *
+     * @param event The recorded start of the contact
+     */
+    private void resolveBegin(ContactEvent event) {
+        prevHostPossessed = hostPossessed;
 
-        // Check for Collision with Water
-        if ((body1.getUserData() == spirit && bd2.getName() == "water") ||
-                bd1.getName() == "water" && body2.getUserData() == spirit) {
-            contact.setEnabled(false);
+        // Collision handling to determine if the spirit collides with any hosts
+        if (event.handler == SPIRIT_HOST && !spirit.getIsPossessing()) {
+            HostModel r = (HostModel) (event.first.getType() == ObstacleType.HOST ? event.first : event.second);
+
+            hostPossessed = r;
+
+            // Record for the HUD if host has never been possessed before
+            if (!hostPossessed.beenPossessed()) {
+                newPossession = true;
+            }
+
+            // host is now possessed
+            hostPossessed.setPossessed(true);
+
+            // set impact for screen shake
+            hostPossessed.setImpact(true);
+
+            // Spirit's life is replenished upon possessing new host
+            spirit.setCurrentLife(spirit.getDefaultLife());
+
+            // spirit is no longer in stage of being launched
+            spirit.setHasLaunched(false);
+
+            // Spirit is alive whenever it is inside of a host
+            spirit.setAlive(true);
+
+            // Spirit is Going to Center Now
+            spirit.setGoToCenter(true);
+
+            // Spirit moves towards the possessed's center if wasn't already colliding with it last frame
+            if (hostPossessed != prevHostPossessed) {
+                spirit.setGoToCenter(true);
+            }
         }
 
-        // All collisions with Sand
-        if ((bd1.getName() == "sand") || bd2.getName() == "sand") {
-            contact.setEnabled(false);
+        // Hosts on a path turn around when they walk into something
+        if (event.firstWalkedIn) {
+            turnAround((HostModel) event.first);
+        }
+        if (event.secondWalkedIn) {
+            turnAround((HostModel) event.second);
         }
+    }
 
-        // Check for Collision with Sand
-        if ((body1.getUserData() == prevHostPossessed && bd2.getName() == "sand") ||
-                bd1.getName() == "sand" && body2.getUserData() == prevHostPossessed) {
-                inSand = true;
+    /**
+     * Sends an unpossessed host back along its path
+     *
+     * @param r The host that walked into a contact
+     */
+    private void turnAround(HostModel r) {
+        if (!r.isPossessed()) {
+            r.invertForwardI();
+            r.nextInstruction();
         }
+    }
 
-        for (HostModel r : hostList) {
-            if (((body1.getUserData() == spirit && body2.getUserData() == r) ||
-                    (body1.getUserData() == r && body2.getUserData() == spirit))) {
-                contact.setEnabled(false);
-            }
+    /**
+     * Stops an unpossessed host that has left a contact
+     *
+     * @param r The host that left the contact
+     */
+    private void stopHost(HostModel r) {
+        if (!r.isPossessed()) {
+            r.setLinearVelocity(Vector2.Zero);
         }
+    }
 
-        // Recognize spirit against a wall to play sound
-        if (body1.getUserData() == spirit && bd2.getName() == "wall" ||
-                bd1.getName() == "wall" && body2.getUserData() == spirit ||
-                body1.getUserData() == spirit && bd2.getName() == "edge" ||
-                bd1.getName() == "edge" && body2.getUserData() == spirit ||
-                body1.getUserData() == spirit && bd2.getName() == "corner" ||
-                bd1.getName() == "corner" && body2.getUserData() == spirit ||
-                bd1.getName() == "energyPillar" && body2.getUserData() == spirit ||
-                body1.getUserData() == spirit && bd2.getName() == "energyPillar" ||
-                bd1.getName() == "oscWall" && ((OscWall) bd1).isPhysical() && body2.getUserData() == spirit ||
-                body1.getUserData() == spirit && bd2.getName() == "oscWall" && ((OscWall) bd2).isPhysical()) {
-                spirit.setDidBounce(true);
-                spirit.setPosAtBounce(new Vector2(spirit.getPosition()));
-                bounced = true;
-            if (body1.getUserData() == spirit && bd2.getName() == "edge" ||
-                    bd1.getName() == "edge" && body2.getUserData() == spirit ||
-                    body1.getUserData() == spirit && bd2.getName() == "corner" ||
-                    bd1.getName() == "corner" && body2.getUserData() == spirit) {
-                bounceOnBounds = true;
-            }
+    /**
+     * Records that the spirit bounced off something solid, to play sound
+     *
+     * @param onBounds Whether it bounced off the level bounds
+     * @param x The x-coordinate of the spirit at the bounce
+     * @param y The y-coordinate of the spirit at the bounce
+     */
+    private void bounce(boolean onBounds, float x, float y) {
+        spirit.setDidBounce(true);
+        spirit.setPosAtBounce(x, y);
+        bounced = true;
+        if (onBounds) {
+            bounceOnBounds = true;
         }
     }
 
@@ -274,7 +507,6 @@ public class CollisionController implements ContactListener {
      */
     public void clear() {
         bounced = false;
-        inSand = false;
         bounceOnBounds = false;
     }
 
@@ -301,8 +533,17 @@ public class CollisionController implements ContactListener {
         return bounced;
     }
 
-    public boolean getInSand() {
-        return inSand;
+    /**
+     * Getter method to return whether a host was possessed for the first time.
+     * The flag is reset once read.
+     */
+    public boolean getNewPossession() {
+        if (newPossession) {
+            newPossession = false;
+            return true;
+        } else {
+            return false;
+        }
     }
 
     public boolean getBounceOnBounds() { return bounceOnBounds; }
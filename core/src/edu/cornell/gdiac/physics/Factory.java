@@ -1,7 +1,7 @@
 package edu.cornell.gdiac.physics;
 
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.BodyDef;
@@ -16,70 +16,85 @@ public class Factory {
     private static int SPIRIT_BOUNCES = 8;
     private static int DEFAULT_LIFE = 250;
 
-    private Texture hostChargeTexture;
-    private Texture hostShadow;
-    private Texture hostTextureE;
-    private Texture hostTextureN;
-    private Texture hostTextureNE;
-    private Texture hostTextureNW;
-    private Texture hostTextureS;
-    private Texture hostTextureSE;
-    private Texture hostTextureSW;
-    private Texture hostTextureW;
-    private Texture glyphTextureE;
-    private Texture glyphTextureN;
-    private Texture glyphTextureNE;
-    private Texture glyphTextureNW;
-    private Texture glyphTextureS;
-    private Texture glyphTextureSE;
-    private Texture glyphTextureSW;
-    private Texture glyphTextureW;
-    private Texture hostDeathTextureE;
-    private Texture hostDeathTextureN;
-    private Texture hostDeathTextureNE;
-    private Texture hostDeathTextureNW;
-    private Texture hostDeathTextureS;
-    private Texture hostDeathTextureSE;
-    private Texture hostDeathTextureSW;
-    private Texture hostDeathTextureW;
-    private Texture hostWakingUp;
-    private Texture hostNewPossession;
-    private Texture hostGenPossession;
-    private Texture hostArmTexture;
-    private Texture wallDayTexture;
-    private Texture wallNightTexture;
-    private Texture waterTexture;
-    private Texture waterNightTexture;
-    private Texture cornerTexture;
-    private Texture cornerNightTexture;
-    private Texture sandTexture;
-    private Texture sandNightTexture;
-    private Texture cornerSandTexture;
-    private Texture cornerSandNightTexture;
-    private Texture pedestalTexture;
-    private Texture pedestalNightTexture;
-    private Texture spiritBodyTexture;
-    private Texture spiritHeadTexture;
-    private Texture spiritTailTexture;
-    private Texture borderEdgeTexture;
-    private Texture borderEdgeNightTexture;
-    private Texture borderCornerTexture;
-    private Texture borderCornerNightTexture;
-    private Texture energyPillarBodyTexture;
-    private Texture energyPillarBodyChargeTexture;
-    private Texture energyPillarRadiusTexture;
-    private Texture oscWallVertTexture;
-    private Texture oscWallVertNightTexture;
-    private Texture oscWallVertGaugeTexture;
-    private Texture oscWallHorzTexture;
-    private Texture oscWallHorzNightTexture;
-    private Texture oscWallHorzGaugeTexture;
-    private Texture rootsTexture;
-    private Texture rootsNightTexture;
+    private TextureRegion hostChargeTexture;
+    private TextureRegion hostShadow;
+    private TextureRegion hostTextureE;
+    private TextureRegion hostTextureN;
+    private TextureRegion hostTextureNE;
+    private TextureRegion hostTextureNW;
+    private TextureRegion hostTextureS;
+    private TextureRegion hostTextureSE;
+    private TextureRegion hostTextureSW;
+    private TextureRegion hostTextureW;
+    private TextureRegion glyphTextureE;
+    private TextureRegion glyphTextureN;
+    private TextureRegion glyphTextureNE;
+    private TextureRegion glyphTextureNW;
+    private TextureRegion glyphTextureS;
+    private TextureRegion glyphTextureSE;
+    private TextureRegion glyphTextureSW;
+    private TextureRegion glyphTextureW;
+    private TextureRegion hostDeathTextureE;
+    private TextureRegion hostDeathTextureN;
+    private TextureRegion hostDeathTextureNE;
+    private TextureRegion hostDeathTextureNW;
+    private TextureRegion hostDeathTextureS;
+    private TextureRegion hostDeathTextureSE;
+    private TextureRegion hostDeathTextureSW;
+    private TextureRegion hostDeathTextureW;
+    private TextureRegion hostWakingUp;
+    private TextureRegion hostNewPossession;
+    private TextureRegion hostGenPossession;
+    private TextureRegion hostArmTexture;
+    private TextureRegion wallDayTexture;
+    private TextureRegion wallNightTexture;
+    private TextureRegion waterTexture;
+    private TextureRegion waterNightTexture;
+    private TextureRegion cornerTexture;
+    private TextureRegion cornerNightTexture;
+    private TextureRegion sandTexture;
+    private TextureRegion sandNightTexture;
+    private TextureRegion cornerSandTexture;
+    private TextureRegion cornerSandNightTexture;
+    private TextureRegion pedestalTexture;
+    private TextureRegion pedestalNightTexture;
+    private TextureRegion spiritBodyTexture;
+    private TextureRegion spiritHeadTexture;
+    private TextureRegion spiritTailTexture;
+    private TextureRegion borderEdgeTexture;
+    private TextureRegion borderEdgeNightTexture;
+    private TextureRegion borderCornerTexture;
+    private TextureRegion borderCornerNightTexture;
+    private TextureRegion energyPillarBodyTexture;
+    private TextureRegion energyPillarBodyChargeTexture;
+    private TextureRegion energyPillarRadiusTexture;
+    private TextureRegion oscWallVertTexture;
+    private TextureRegion oscWallVertNightTexture;
+    private TextureRegion oscWallVertGaugeTexture;
+    private TextureRegion oscWallHorzTexture;
+    private TextureRegion oscWallHorzNightTexture;
+    private TextureRegion oscWallHorzGaugeTexture;
+    private TextureRegion rootsTexture;
+    private TextureRegion rootsNightTexture;
 
     /** The shadow texture for hosts. Not a film strip, so can be stored here */
     private TextureRegion hostShadowRegion;
 
+    /** Path to the spirit head sheet, relative to the assets directory */
+    private static final String SPIRIT_HEAD_FILE = "host/SpiritHeadSpritesheet_v01.png";
+    /** Path to the energy pillar field sheet, relative to the assets directory */
+    private static final String ENERGY_PILLAR_RADIUS_FILE = "shared/energyRing.png";
+
+    /** Pixel size of the spirit head sheet, which determines the spirit hitbox */
+    private int spiritSheetWidth;
+    private int spiritSheetHeight;
+    /** Pixel size of the energy pillar field sheet, which determines the field radius */
+    private int energyRingWidth;
+    private int energyRingHeight;
+
+    /** Whether this factory builds texture-free objects for headless simulation */
+    private boolean headless;
+
     // Static variables for sprite sheets
 
     /** Number of rows in the energy pillar filmstrip */
@@ -237,68 +252,74 @@ public class Factory {
     public boolean makeTileSized;
 
 
+    /**
+     * Creates a factory for the given sprite sheets.
+     *
+     * Each sheet is a region: either a whole texture, or a sheet packed into a
+     * page of a texture atlas, so that the objects of a level share few textures.
+     */
     public Factory(
             Vector2 scale,
-            Texture spiritBodyTexture,
-            Texture spiritHeadTexture,
-            Texture spiritTailTexture,
-            Texture hostChargeTexture,
-            Texture hostShadow,
-            Texture hostTextureE,
-            Texture hostTextureN,
-            Texture hostTextureNE,
-            Texture hostTextureNW,
-            Texture hostTextureS,
-            Texture hostTextureSE,
-            Texture hostTextureSW,
-            Texture hostTextureW,
-            Texture hostGlyphTextureE,
-            Texture hostGlyphTextureN,
-            Texture hostGlyphTextureNE,
-            Texture hostGlyphTextureNW,
-            Texture hostGlyphTextureS,
-            Texture hostGlyphTextureSE,
-            Texture hostGlyphTextureSW,
-            Texture hostGlyphTextureW,
-            Texture hostDeathTextureE,
-            Texture hostDeathTextureN,
-            Texture hostDeathTextureNE,
-            Texture hostDeathTextureNW,
-            Texture hostDeathTextureS,
-            Texture hostDeathTextureSE,
-            Texture hostDeathTextureSW,
-            Texture hostDeathTextureW,
-            Texture hostArmTexture,
-            Texture hostNewPossession,
-            Texture hostGenPossession,
-            Texture hostWakeUp,
-            Texture wallDayTexture,
-            Texture wallNightTexture,
-            Texture waterTexture,
-            Texture waterNightTexture,
-            Texture cornerTexture,
-            Texture cornerNightTexture,
-            Texture sandTexture,
-            Texture sandNightTexture,
-            Texture cornerSandTexture,
-            Texture cornerSandNightTexture,
-            Texture pedestalTexture,
-            Texture pedestalNightTexture,
-            Texture borderEdgeTexture,
-            Texture borderEdgeNightTexture,
-            Texture borderCornerTexture,
-            Texture borderCornerNightTexture,
-            Texture energyPillarBodyTexture,
-            Texture energyPillarBodyChargeTexture,
-            Texture energyPillarRadiusTexture,
-            Texture oscWallVertTexture,
-            Texture oscWallVertNightTexture,
-            Texture oscWallVertGaugeTexture,
-            Texture oscWallHorzTexture,
-            Texture oscWallHorzNightTexture,
-            Texture oscWallHorzGaugeTexture,
-            Texture rootsTexture,
-            Texture rootsNightTexture
+            TextureRegion spiritBodyTexture,
+            TextureRegion spiritHeadTexture,
+            TextureRegion spiritTailTexture,
+            TextureRegion hostChargeTexture,
+            TextureRegion hostShadow,
+            TextureRegion hostTextureE,
+            TextureRegion hostTextureN,
+            TextureRegion hostTextureNE,
+            TextureRegion hostTextureNW,
+            TextureRegion hostTextureS,
+            TextureRegion hostTextureSE,
+            TextureRegion hostTextureSW,
+            TextureRegion hostTextureW,
+            TextureRegion hostGlyphTextureE,
+            TextureRegion hostGlyphTextureN,
+            TextureRegion hostGlyphTextureNE,
+            TextureRegion hostGlyphTextureNW,
+            TextureRegion hostGlyphTextureS,
+            TextureRegion hostGlyphTextureSE,
+            TextureRegion hostGlyphTextureSW,
+            TextureRegion hostGlyphTextureW,
+            TextureRegion hostDeathTextureE,
+            TextureRegion hostDeathTextureN,
+            TextureRegion hostDeathTextureNE,
+            TextureRegion hostDeathTextureNW,
+            TextureRegion hostDeathTextureS,
+            TextureRegion hostDeathTextureSE,
+            TextureRegion hostDeathTextureSW,
+            TextureRegion hostDeathTextureW,
+            TextureRegion hostArmTexture,
+            TextureRegion hostNewPossession,
+            TextureRegion hostGenPossession,
+            TextureRegion hostWakeUp,
+            TextureRegion wallDayTexture,
+            TextureRegion wallNightTexture,
+            TextureRegion waterTexture,
+            TextureRegion waterNightTexture,
+            TextureRegion cornerTexture,
+            TextureRegion cornerNightTexture,
+            TextureRegion sandTexture,
+            TextureRegion sandNightTexture,
+            TextureRegion cornerSandTexture,
+            TextureRegion cornerSandNightTexture,
+            TextureRegion pedestalTexture,
+            TextureRegion pedestalNightTexture,
+            TextureRegion borderEdgeTexture,
+            TextureRegion borderEdgeNightTexture,
+            TextureRegion borderCornerTexture,
+            TextureRegion borderCornerNightTexture,
+            TextureRegion energyPillarBodyTexture,
+            TextureRegion energyPillarBodyChargeTexture,
+            TextureRegion energyPillarRadiusTexture,
+            TextureRegion oscWallVertTexture,
+            TextureRegion oscWallVertNightTexture,
+            TextureRegion oscWallVertGaugeTexture,
+            TextureRegion oscWallHorzTexture,
+            TextureRegion oscWallHorzNightTexture,
+            TextureRegion oscWallHorzGaugeTexture,
+            TextureRegion rootsTexture,
+            TextureRegion rootsNightTexture
     ) {
         this.scale = scale;
         this.spiritBodyTexture = spiritBodyTexture;
@@ -362,11 +383,80 @@ public class Factory {
         this.rootsTexture = rootsTexture;
         this.rootsNightTexture = rootsNightTexture;
 
-        this.hostShadowRegion = new TextureRegion(hostShadow);
+        this.hostShadowRegion = hostShadow;
+
+        this.spiritSheetWidth = spiritHeadTexture.getRegionWidth();
+        this.spiritSheetHeight = spiritHeadTexture.getRegionHeight();
+        this.energyRingWidth = energyPillarRadiusTexture.getRegionWidth();
+        this.energyRingHeight = energyPillarRadiusTexture.getRegionHeight();
 
         this.opacity = Color.WHITE;
     }
 
+    /**
+     * Creates a factory that builds texture-free objects, for headless simulation.
+     *
+     * Every filmstrip only tracks frames.  The two sheets whose pixel size feeds
+     * into gameplay (the spirit hitbox and the energy pillar field) are measured
+     * from their PNG headers, so no GL context is needed.
+     *
+     * @param scale The draw scale of objects
+     * @param assetDirectory The directory holding the game assets
+     */
+    public static Factory headless(Vector2 scale, FileHandle assetDirectory) {
+        Factory factory = new Factory(scale);
+        int[] size = FilmStrip.readImageSize(assetDirectory.child(SPIRIT_HEAD_FILE));
+        factory.spiritSheetWidth = size[0];
+        factory.spiritSheetHeight = size[1];
+        size = FilmStrip.readImageSize(assetDirectory.child(ENERGY_PILLAR_RADIUS_FILE));
+        factory.energyRingWidth = size[0];
+        factory.energyRingHeight = size[1];
+        return factory;
+    }
+
+    /**
+     * Creates a headless factory with no textures
+     *
+     * @param scale The draw scale of objects
+     */
+    private Factory(Vector2 scale) {
+        this.scale = scale;
+        this.headless = true;
+        this.opacity = Color.WHITE;
+    }
+
+    /**
+     * @return Whether this factory builds texture-free objects
+     */
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    /**
+     * Creates a filmstrip for the sheet, or a frame-only one when headless
+     */
+    private FilmStrip makeStrip(TextureRegion texture, int rows, int cols) {
+        return makeStrip(texture, rows, cols, rows * cols);
+    }
+
+    /**
+     * Creates a filmstrip for the sheet, or a frame-only one when headless
+     */
+    private FilmStrip makeStrip(TextureRegion texture, int rows, int cols, int size) {
+        return makeStrip(texture, 0, 0, rows, cols, size);
+    }
+
+    /**
+     * Creates a filmstrip for the sheet, or a frame-only one of the given
+     * pixel size when headless
+     */
+    private FilmStrip makeStrip(TextureRegion texture, int width, int height, int rows, int cols, int size) {
+        if (headless) {
+            return new FilmStrip(width, height, rows, cols, size);
+        }
+        return new FilmStrip(texture, rows, cols, size);
+    }
+
     public void setOpacity(Color opacity) {
         this.opacity = opacity;
     }
@@ -379,8 +469,8 @@ public class Factory {
                 Constants.TILE_HEIGHT,
                 frame
         );
-        FilmStrip tex = new FilmStrip(rootsTexture, ROOTS_ROWS, ROOTS_COLUMNS);
-        FilmStrip texNight = new FilmStrip(rootsNightTexture, ROOTS_ROWS, ROOTS_COLUMNS);
+        FilmStrip tex = makeStrip(rootsTexture, ROOTS_ROWS, ROOTS_COLUMNS);
+        FilmStrip texNight = makeStrip(rootsNightTexture, ROOTS_ROWS, ROOTS_COLUMNS);
         tex.setFrame(frame);
         texNight.setFrame(frame);
         roots.setTexture(tex);
@@ -400,9 +490,9 @@ public class Factory {
                 Constants.TILE_WIDTH,
                 Constants.TILE_HEIGHT
         );
-        engPill.setEnergyPillarStrips(new FilmStrip(energyPillarBodyTexture, ENERGY_PILLAR_ROWS, ENERGY_PILLAR_COLUMNS, ENERGY_PILLAR_SIZE),
-                new FilmStrip(energyPillarBodyChargeTexture, ENERGY_PILLAR_ROWS, ENERGY_PILLAR_COLUMNS, ENERGY_PILLAR_SIZE),
-                new FilmStrip(energyPillarRadiusTexture, ENERGY_PILLAR_ROWS, ENERGY_PILLAR_COLUMNS, ENERGY_PILLAR_SIZE));
+        engPill.setEnergyPillarStrips(makeStrip(energyPillarBodyTexture, ENERGY_PILLAR_ROWS, ENERGY_PILLAR_COLUMNS, ENERGY_PILLAR_SIZE),
+                makeStrip(energyPillarBodyChargeTexture, ENERGY_PILLAR_ROWS, ENERGY_PILLAR_COLUMNS, ENERGY_PILLAR_SIZE),
+                makeStrip(energyPillarRadiusTexture, energyRingWidth, energyRingHeight, ENERGY_PILLAR_ROWS, ENERGY_PILLAR_COLUMNS, ENERGY_PILLAR_SIZE));
         engPill.setDrawScale(scale);
         engPill.setBodyType(BodyDef.BodyType.StaticBody);
         engPill.setSensor(makeSensors);
@@ -416,8 +506,8 @@ public class Factory {
                 y,
                 Constants.TILE_WIDTH,
                 Constants.TILE_HEIGHT,
-                new FilmStrip(wallNightTexture, WALL_ROWS, WALL_COLUMNS, WALL_SIZE),
-                new FilmStrip(wallDayTexture, WALL_ROWS, WALL_COLUMNS, WALL_SIZE)
+                makeStrip(wallNightTexture, WALL_ROWS, WALL_COLUMNS, WALL_SIZE),
+                makeStrip(wallDayTexture, WALL_ROWS, WALL_COLUMNS, WALL_SIZE)
         );
         wall.setDrawScale(scale);
         wall.setBodyType(BodyDef.BodyType.StaticBody);
@@ -440,8 +530,8 @@ public class Factory {
                 y,
                 Constants.TILE_WIDTH,
                 Constants.TILE_HEIGHT,
-                new FilmStrip(wallDayTexture, WALL_ROWS, WALL_COLUMNS, WALL_SIZE),
-                new FilmStrip(wallNightTexture, WALL_ROWS, WALL_COLUMNS, WALL_SIZE),
+                makeStrip(wallDayTexture, WALL_ROWS, WALL_COLUMNS, WALL_SIZE),
+                makeStrip(wallNightTexture, WALL_ROWS, WALL_COLUMNS, WALL_SIZE),
                 primaryFrame,
                 leftFrame,
                 rightFrame,
@@ -470,8 +560,8 @@ public class Factory {
                 Constants.TILE_WIDTH,
                 Constants.TILE_HEIGHT,
                 side,
-                new FilmStrip(borderEdgeTexture, BORDER_EDGE_ROWS, BORDER_EDGE_COLUMNS),
-                new FilmStrip(borderEdgeNightTexture, BORDER_EDGE_ROWS, BORDER_EDGE_COLUMNS)
+                makeStrip(borderEdgeTexture, BORDER_EDGE_ROWS, BORDER_EDGE_COLUMNS),
+                makeStrip(borderEdgeNightTexture, BORDER_EDGE_ROWS, BORDER_EDGE_COLUMNS)
         );
         edge.selectable = false;
         edge.setDrawScale(scale);
@@ -489,8 +579,8 @@ public class Factory {
                 Constants.TILE_HEIGHT,
                 side,
                 frame,
-                new FilmStrip(borderEdgeTexture, BORDER_EDGE_ROWS, BORDER_EDGE_COLUMNS),
-                new FilmStrip(borderEdgeNightTexture, BORDER_EDGE_ROWS, BORDER_EDGE_COLUMNS),
+                makeStrip(borderEdgeTexture, BORDER_EDGE_ROWS, BORDER_EDGE_COLUMNS),
+                makeStrip(borderEdgeNightTexture, BORDER_EDGE_ROWS, BORDER_EDGE_COLUMNS),
                 opacity
                 //new FilmStrip(borderEdgeNightTexture, BORDER_EDGE_ROWS, BORDER_EDGE_COLUMNS),
                 //opacity
@@ -510,8 +600,8 @@ public class Factory {
                 Constants.TILE_WIDTH,
                 Constants.TILE_HEIGHT,
                 c,
-                new FilmStrip(borderCornerTexture, BORDER_CORNER_ROWS, BORDER_CORNER_COLUMNS),
-                new FilmStrip(borderCornerNightTexture, BORDER_CORNER_ROWS, BORDER_CORNER_COLUMNS),
+                makeStrip(borderCornerTexture, BORDER_CORNER_ROWS, BORDER_CORNER_COLUMNS),
+                makeStrip(borderCornerNightTexture, BORDER_CORNER_ROWS, BORDER_CORNER_COLUMNS),
                 opacity
         );
         corner.selectable = false;
@@ -534,10 +624,10 @@ public class Factory {
                 Constants.TILE_HEIGHT
         );
 
-        water.setTerrainStrip(new FilmStrip(waterTexture, WATER_ROWS, WATER_COLUMNS, WATER_SIZE));
-        water.setTerrainNightStrip(new FilmStrip(waterNightTexture, WATER_ROWS, WATER_COLUMNS, WATER_SIZE), opacity);
-        water.setCornerStrip(new FilmStrip(cornerTexture, WATER_CORNER_ROWS, WATER_CORNER_COLUMNS, WATER_CORNER_SIZE),
-                             new FilmStrip(cornerNightTexture, WATER_CORNER_ROWS, WATER_CORNER_COLUMNS, WATER_CORNER_SIZE));
+        water.setTerrainStrip(makeStrip(waterTexture, WATER_ROWS, WATER_COLUMNS, WATER_SIZE));
+        water.setTerrainNightStrip(makeStrip(waterNightTexture, WATER_ROWS, WATER_COLUMNS, WATER_SIZE), opacity);
+        water.setCornerStrip(makeStrip(cornerTexture, WATER_CORNER_ROWS, WATER_CORNER_COLUMNS, WATER_CORNER_SIZE),
+                             makeStrip(cornerNightTexture, WATER_CORNER_ROWS, WATER_CORNER_COLUMNS, WATER_CORNER_SIZE));
         water.setDrawScale(scale);
         water.setFrame(frame);
         water.setBodyType(BodyDef.BodyType.StaticBody);
@@ -561,10 +651,10 @@ public class Factory {
                 Constants.TILE_WIDTH,
                 Constants.TILE_HEIGHT
         );
-        sand.setTerrainStrip(new FilmStrip(sandTexture, WATER_ROWS, WATER_COLUMNS, WATER_SIZE));
-        sand.setTerrainNightStrip(new FilmStrip(sandNightTexture, WATER_ROWS, WATER_COLUMNS, WATER_SIZE), opacity);
-        sand.setCornerStrip(new FilmStrip(cornerSandTexture, WATER_CORNER_ROWS, WATER_CORNER_COLUMNS, WATER_CORNER_SIZE),
-                            new FilmStrip(cornerSandNightTexture, WATER_CORNER_ROWS, WATER_CORNER_COLUMNS, WATER_CORNER_SIZE));
+        sand.setTerrainStrip(makeStrip(sandTexture, WATER_ROWS, WATER_COLUMNS, WATER_SIZE));
+        sand.setTerrainNightStrip(makeStrip(sandNightTexture, WATER_ROWS, WATER_COLUMNS, WATER_SIZE), opacity);
+        sand.setCornerStrip(makeStrip(cornerSandTexture, WATER_CORNER_ROWS, WATER_CORNER_COLUMNS, WATER_CORNER_SIZE),
+                            makeStrip(cornerSandNightTexture, WATER_CORNER_ROWS, WATER_CORNER_COLUMNS, WATER_CORNER_SIZE));
         sand.setDrawScale(scale);
         sand.setFrame(frame);
         sand.setBodyType(BodyDef.BodyType.KinematicBody);
@@ -597,13 +687,13 @@ public class Factory {
                     Constants.TILE_WIDTH,
                     Constants.TILE_HEIGHT/4f);
         }
-        oscWall.setOscWallStrips(new FilmStrip(oscWallHorzTexture, OSC_WALL_VERT_ROWS, OSC_WALL_VERT_COLS, OSC_WALL_SIZE),
-                new FilmStrip(oscWallHorzGaugeTexture, OSC_WALL_VERT_ROWS, OSC_WALL_VERT_COLS, OSC_WALL_SIZE),
-                new FilmStrip(oscWallVertTexture, OSC_WALL_VERT_ROWS, OSC_WALL_VERT_COLS, OSC_WALL_SIZE),
-                new FilmStrip(oscWallVertGaugeTexture, OSC_WALL_VERT_ROWS, OSC_WALL_VERT_COLS, OSC_WALL_SIZE));
+        oscWall.setOscWallStrips(makeStrip(oscWallHorzTexture, OSC_WALL_VERT_ROWS, OSC_WALL_VERT_COLS, OSC_WALL_SIZE),
+                makeStrip(oscWallHorzGaugeTexture, OSC_WALL_VERT_ROWS, OSC_WALL_VERT_COLS, OSC_WALL_SIZE),
+                makeStrip(oscWallVertTexture, OSC_WALL_VERT_ROWS, OSC_WALL_VERT_COLS, OSC_WALL_SIZE),
+                makeStrip(oscWallVertGaugeTexture, OSC_WALL_VERT_ROWS, OSC_WALL_VERT_COLS, OSC_WALL_SIZE));
 
-        oscWall.setOscWallNightStrips(new FilmStrip(oscWallHorzNightTexture, OSC_WALL_VERT_ROWS, OSC_WALL_VERT_COLS, OSC_WALL_SIZE),
-                new FilmStrip(oscWallVertNightTexture, OSC_WALL_VERT_ROWS, OSC_WALL_VERT_COLS, OSC_WALL_SIZE),
+        oscWall.setOscWallNightStrips(makeStrip(oscWallHorzNightTexture, OSC_WALL_VERT_ROWS, OSC_WALL_VERT_COLS, OSC_WALL_SIZE),
+                makeStrip(oscWallVertNightTexture, OSC_WALL_VERT_ROWS, OSC_WALL_VERT_COLS, OSC_WALL_SIZE),
                 opacity);
 
         oscWall.setMainStrip(isVert, isGoingUp);
@@ -625,8 +715,8 @@ public class Factory {
         SpiritModel spirit = new SpiritModel(
                 x,
                 y,
-                (spiritHeadTexture.getWidth() / (SPIRIT_COLUMNS * 12)) / scale.x,
-                (spiritHeadTexture.getHeight() / (SPIRIT_ROWS * 4)) / scale.y,
+                (spiritSheetWidth / (SPIRIT_COLUMNS * 12)) / scale.x,
+                (spiritSheetHeight / (SPIRIT_ROWS * 4)) / scale.y,
                 SPIRIT_LIVES,
                 SPIRIT_BOUNCES,
                 DEFAULT_LIFE
@@ -636,8 +726,8 @@ public class Factory {
 //                new FilmStrip(spiritHeadTexture, SPIRIT_ROWS, SPIRIT_COLUMNS, SPIRIT_SIZE),
 //                new FilmStrip(spiritTailTexture, SPIRIT_ROWS, SPIRIT_COLUMNS, SPIRIT_SIZE));
         spirit.setFilmStrip(
-                new FilmStrip(spiritHeadTexture, SPIRIT_ROWS, SPIRIT_COLUMNS, SPIRIT_SIZE),
-                new FilmStrip(spiritTailTexture, SPIRIT_ROWS, SPIRIT_COLUMNS, SPIRIT_SIZE));
+                makeStrip(spiritHeadTexture, SPIRIT_ROWS, SPIRIT_COLUMNS, SPIRIT_SIZE),
+                makeStrip(spiritTailTexture, SPIRIT_ROWS, SPIRIT_COLUMNS, SPIRIT_SIZE));
         spirit.setSensor(makeSensors);
         return spirit;
     }
@@ -656,7 +746,7 @@ public class Factory {
 
     // TODO: add medium and large host make functions
 
-    private HostModel makePedestalInternal(float x, float y, Texture pedestalTexture, Texture pedestalNightTexture) {
+    private HostModel makePedestalInternal(float x, float y, TextureRegion pedestalTexture, TextureRegion pedestalNightTexture) {
         HostModel ped = new HostModel(
                 x,
                 y,
@@ -665,8 +755,8 @@ public class Factory {
                 true
         );
         ped.setDrawScale(scale);
-        ped.setPedestalStrip(new FilmStrip(pedestalTexture, PEDESTAL_ROWS, PEDESTAL_COLS, PEDESTAL_SIZE));
-        ped.setPedestalNightStrip(new FilmStrip(pedestalNightTexture, PEDESTAL_ROWS, PEDESTAL_COLS, PEDESTAL_SIZE), opacity);
+        ped.setPedestalStrip(makeStrip(pedestalTexture, PEDESTAL_ROWS, PEDESTAL_COLS, PEDESTAL_SIZE));
+        ped.setPedestalNightStrip(makeStrip(pedestalNightTexture, PEDESTAL_ROWS, PEDESTAL_COLS, PEDESTAL_SIZE), opacity);
         ped.setName("pedestal");
         ped.setSensor(makeSensors);
         if(makeTileSized) {
@@ -689,24 +779,24 @@ public class Factory {
                 instructions
         );
         host.setDrawScale(scale);
-        host.setChargeStrip(new FilmStrip(hostChargeTexture, CHARGE_ROWS, CHARGE_COLUMNS, CHARGE_SIZE), currentCharge);
+        host.setChargeStrip(makeStrip(hostChargeTexture, CHARGE_ROWS, CHARGE_COLUMNS, CHARGE_SIZE), currentCharge);
         host.setHostShadow(hostShadowRegion);
-        host.setHostStrip(new FilmStrip(hostTextureE, HOST_ROWS, HOST_COLUMNS, HOST_SIZE), new FilmStrip(hostTextureN, HOST_ROWS, HOST_COLUMNS, HOST_SIZE),
-                new FilmStrip(hostTextureNE, HOST_ROWS, HOST_COLUMNS, HOST_SIZE), new FilmStrip(hostTextureNW, HOST_ROWS, HOST_COLUMNS, HOST_SIZE),
-                new FilmStrip(hostTextureS, HOST_ROWS, HOST_COLUMNS, HOST_SIZE), new FilmStrip(hostTextureSE, HOST_ROWS, HOST_COLUMNS, HOST_SIZE),
-                new FilmStrip(hostTextureSW, HOST_ROWS, HOST_COLUMNS, HOST_SIZE), new FilmStrip(hostTextureW, HOST_ROWS, HOST_COLUMNS, HOST_SIZE),
-                new FilmStrip(glyphTextureE, HOST_ROWS, HOST_COLUMNS, HOST_SIZE), new FilmStrip(glyphTextureN, HOST_ROWS, HOST_COLUMNS, HOST_SIZE),
-                new FilmStrip(glyphTextureNE, HOST_ROWS, HOST_COLUMNS, HOST_SIZE), new FilmStrip(glyphTextureNW, HOST_ROWS, HOST_COLUMNS, HOST_SIZE),
-                new FilmStrip(glyphTextureS, HOST_ROWS, HOST_COLUMNS, HOST_SIZE), new FilmStrip(glyphTextureSE, HOST_ROWS, HOST_COLUMNS, HOST_SIZE),
-                new FilmStrip(glyphTextureSW, HOST_ROWS, HOST_COLUMNS, HOST_SIZE), new FilmStrip(glyphTextureW, HOST_ROWS, HOST_COLUMNS, HOST_SIZE),
-                new FilmStrip(hostDeathTextureE, HOST_COLUMNS, HOST_ROWS, HOST_SIZE), new FilmStrip(hostDeathTextureN, HOST_COLUMNS, HOST_ROWS, HOST_SIZE),
-                new FilmStrip(hostDeathTextureNE, HOST_COLUMNS, HOST_ROWS, HOST_SIZE), new FilmStrip(hostDeathTextureNW, HOST_COLUMNS, HOST_ROWS, HOST_SIZE),
-                new FilmStrip(hostDeathTextureS, HOST_COLUMNS, HOST_ROWS, HOST_SIZE), new FilmStrip(hostDeathTextureSE, HOST_COLUMNS, HOST_ROWS, HOST_SIZE),
-                new FilmStrip(hostDeathTextureSW, HOST_COLUMNS, HOST_ROWS, HOST_SIZE), new FilmStrip(hostDeathTextureW, HOST_COLUMNS, HOST_ROWS, HOST_SIZE),
-                new FilmStrip(hostArmTexture, HOST_ARMS_ROWS, HOST_ARMS_COLS, HOST_ARMS_SIZE));
-        host.setJuiceStrips(new FilmStrip(hostGenPossession, POSSESSION_ROWS, POSSESSION_COLS, POSSESSION_SIZE),
-                new FilmStrip(hostNewPossession, POSSESSION_ROWS, POSSESSION_COLS, POSSESSION_SIZE),
-                new FilmStrip(hostWakingUp, HOST_WAKE_UP_ROWS, HOST_WAKE_UP_COLS, HOST_WAKE_UP_SIZE));
+        host.setHostStrip(makeStrip(hostTextureE, HOST_ROWS, HOST_COLUMNS, HOST_SIZE), makeStrip(hostTextureN, HOST_ROWS, HOST_COLUMNS, HOST_SIZE),
+                makeStrip(hostTextureNE, HOST_ROWS, HOST_COLUMNS, HOST_SIZE), makeStrip(hostTextureNW, HOST_ROWS, HOST_COLUMNS, HOST_SIZE),
+                makeStrip(hostTextureS, HOST_ROWS, HOST_COLUMNS, HOST_SIZE), makeStrip(hostTextureSE, HOST_ROWS, HOST_COLUMNS, HOST_SIZE),
+                makeStrip(hostTextureSW, HOST_ROWS, HOST_COLUMNS, HOST_SIZE), makeStrip(hostTextureW, HOST_ROWS, HOST_COLUMNS, HOST_SIZE),
+                makeStrip(glyphTextureE, HOST_ROWS, HOST_COLUMNS, HOST_SIZE), makeStrip(glyphTextureN, HOST_ROWS, HOST_COLUMNS, HOST_SIZE),
+                makeStrip(glyphTextureNE, HOST_ROWS, HOST_COLUMNS, HOST_SIZE), makeStrip(glyphTextureNW, HOST_ROWS, HOST_COLUMNS, HOST_SIZE),
+                makeStrip(glyphTextureS, HOST_ROWS, HOST_COLUMNS, HOST_SIZE), makeStrip(glyphTextureSE, HOST_ROWS, HOST_COLUMNS, HOST_SIZE),
+                makeStrip(glyphTextureSW, HOST_ROWS, HOST_COLUMNS, HOST_SIZE), makeStrip(glyphTextureW, HOST_ROWS, HOST_COLUMNS, HOST_SIZE),
+                makeStrip(hostDeathTextureE, HOST_COLUMNS, HOST_ROWS, HOST_SIZE), makeStrip(hostDeathTextureN, HOST_COLUMNS, HOST_ROWS, HOST_SIZE),
+                makeStrip(hostDeathTextureNE, HOST_COLUMNS, HOST_ROWS, HOST_SIZE), makeStrip(hostDeathTextureNW, HOST_COLUMNS, HOST_ROWS, HOST_SIZE),
+                makeStrip(hostDeathTextureS, HOST_COLUMNS, HOST_ROWS, HOST_SIZE), makeStrip(hostDeathTextureSE, HOST_COLUMNS, HOST_ROWS, HOST_SIZE),
+                makeStrip(hostDeathTextureSW, HOST_COLUMNS, HOST_ROWS, HOST_SIZE), makeStrip(hostDeathTextureW, HOST_COLUMNS, HOST_ROWS, HOST_SIZE),
+                makeStrip(hostArmTexture, HOST_ARMS_ROWS, HOST_ARMS_COLS, HOST_ARMS_SIZE));
+        host.setJuiceStrips(makeStrip(hostGenPossession, POSSESSION_ROWS, POSSESSION_COLS, POSSESSION_SIZE),
+                makeStrip(hostNewPossession, POSSESSION_ROWS, POSSESSION_COLS, POSSESSION_SIZE),
+                makeStrip(hostWakingUp, HOST_WAKE_UP_ROWS, HOST_WAKE_UP_COLS, HOST_WAKE_UP_SIZE));
         host.setCurrentCharge(currentCharge);
         host.setName("host");
         host.setSensor(makeSensors);
@@ -49,6 +49,14 @@ public class GDXRoot extends Game implements ScreenListener {
 	private boolean goLevelDesigner = false;
 
 	private GameOver gameOver;
+	/** The number of physics steps per second, or 0 for the default rate */
+	private int physicsRate;
+	/** The number of simulation frames per displayed frame, or WorldController.SPEED_MAX */
+	private int speed = 1;
+	/** The file to record the input of each attempt to, or null to not record */
+	private String recordFile;
+	/** Whether each level is raced against the ghosts of its fastest runs */
+	private boolean timeTrial;
 	
 	/**
 	 * Creates a new game from the configuration settings.
@@ -66,6 +74,49 @@ public class GDXRoot extends Game implements ScreenListener {
 		manager.setLoader(BitmapFont.class, ".ttf", new FreetypeFontLoader(resolver));
 	}
 
+	/**
+	 * Creates a new game that steps its physics at the given rate.
+	 *
+	 * A slower rate costs less on weak hardware.  The spirit is still stepped
+	 * finely enough while it flies that it cannot pass through walls.
+	 *
+	 * A speed above 1 fast-forwards the game, for replays, demos and testing.
+	 *
+	 * @param physicsRate The number of physics steps per second, or 0 for the default rate
+	 * @param speed The number of simulation frames per displayed frame, or WorldController.SPEED_MAX
+	 */
+	public GDXRoot(int physicsRate, int speed) {
+		this();
+		this.physicsRate = physicsRate;
+		this.speed = speed;
+	}
+
+	/**
+	 * Creates a new game that records the input of each attempt at a level.
+	 *
+	 * The recording keeps its physics rate, so it plays back the same in a
+	 * headless Simulation stepped at that rate.
+	 *
+	 * @param physicsRate The number of physics steps per second, or 0 for the default rate
+	 * @param speed The number of simulation frames per displayed frame, or WorldController.SPEED_MAX
+	 * @param recordFile The file to record the last attempt to, or null to not record
+	 */
+	public GDXRoot(int physicsRate, int speed, String recordFile) {
+		this(physicsRate, speed);
+		this.recordFile = recordFile;
+	}
+
+	/**
+	 * Sets whether each level is raced against the ghosts of its fastest runs.
+	 *
+	 * This must be called before the game is created.
+	 *
+	 * @param value whether to race against ghosts
+	 */
+	public void setTimeTrial(boolean value) {
+		timeTrial = value;
+	}
+
 	/** 
 	 * Called when the Application is first created.
 	 * 
@@ -77,6 +128,14 @@ public class GDXRoot extends Game implements ScreenListener {
 		loading = new LoadingMode(canvas,manager,1);
 
 		controller = new GamePlayController();
+		if (physicsRate > 0) {
+			controller.setStepSize(1.0f/physicsRate);
+		}
+		controller.setSpeed(speed);
+		if (recordFile != null) {
+			controller.setRecordFile(Gdx.files.local(recordFile));
+		}
+		controller.setTimeTrial(timeTrial);
 		levelDesigner = new LevelDesignerMode();
 		levelSelect = new LevelSelectMode();
 		gameOver = new GameOver();
@@ -198,7 +257,7 @@ public class GDXRoot extends Game implements ScreenListener {
 		}
 		else if (exitCode == WorldController.EXIT_NEXT) {
 			goLevelDesigner = false;
-			controller.reset();
+			controller.retry();
 			//loading.dispose();
 			setScreen(controller);
 		}
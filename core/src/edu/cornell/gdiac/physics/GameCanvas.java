@@ -63,6 +63,51 @@ public class GameCanvas {
 	public static final float ZOOM_IN_MULTIPLIER = 1.25f;
 	public static final float ZOOM_OUT_MULTIPLIER = 1.75f;
 
+	/** Vertex shader of the sprite batch, unchanged from the default one */
+	private static final String NIGHT_VERTEX_SHADER =
+		"attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" +
+		"attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" +
+		"attribute vec2 " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n" +
+		"uniform mat4 u_projTrans;\n" +
+		"varying vec4 v_color;\n" +
+		"varying vec2 v_texCoords;\n" +
+		"void main() {\n" +
+		"   v_color = " + ShaderProgram.COLOR_ATTRIBUTE + ";\n" +
+		"   v_color.a = v_color.a * (255.0/254.0);\n" +
+		"   v_texCoords = " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n" +
+		"   gl_Position = u_projTrans * " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" +
+		"}\n";
+
+	/**
+	 * Fragment shader that lays the night over the day.
+	 *
+	 * The night texel is read from the same coordinates of u_nightTexture and
+	 * composited over the day texel with its alpha scaled by u_night.  This is the
+	 * color the screen had when the night sprite was drawn over the day sprite
+	 * with alpha blending, in a single sprite.  With u_night at zero, it is the
+	 * default shader.
+	 */
+	private static final String NIGHT_FRAGMENT_SHADER =
+		"#ifdef GL_ES\n" +
+		"precision mediump float;\n" +
+		"#endif\n" +
+		"varying vec4 v_color;\n" +
+		"varying vec2 v_texCoords;\n" +
+		"uniform sampler2D u_texture;\n" +
+		"uniform sampler2D u_nightTexture;\n" +
+		"uniform float u_night;\n" +
+		"void main() {\n" +
+		"   vec4 day = texture2D(u_texture, v_texCoords);\n" +
+		"   if (u_night > 0.0) {\n" +
+		"      vec4 night = texture2D(u_nightTexture, v_texCoords);\n" +
+		"      float n = night.a * u_night;\n" +
+		"      float a = 1.0 - (1.0 - n) * (1.0 - day.a);\n" +
+		"      vec3 rgb = (night.rgb * n + day.rgb * day.a * (1.0 - n)) / max(a, 0.001);\n" +
+		"      day = vec4(rgb, a);\n" +
+		"   }\n" +
+		"   gl_FragColor = v_color * day;\n" +
+		"}\n";
+
 	
 	/** Drawing context to handle textures AND POLYGONS as sprites */
 	private PolygonSpriteBatch spriteBatch;
@@ -79,6 +124,13 @@ public class GameCanvas {
 	/** Camera for the underlying SpriteBatch */
 	private OrthographicCamera camera;
 
+	/** Shader drawing the day and the night of a sprite in one pass, or null if it failed */
+	private ShaderProgram nightShader;
+	/** The night texture bound to the shader, or null if it must be bound again */
+	private Texture nightTexture;
+	/** How much of the night the shader lays over the day */
+	private float nightAmount;
+
 	/** HUD - For static items on screen */
 //	private HUD hud;
 
@@ -137,6 +189,18 @@ public class GameCanvas {
 		spriteBatch = new PolygonSpriteBatch();
 		debugRender = new ShapeRenderer();
 
+		nightShader = new ShaderProgram(NIGHT_VERTEX_SHADER, NIGHT_FRAGMENT_SHADER);
+		if (nightShader.isCompiled()) {
+			spriteBatch.setShader(nightShader);
+			nightShader.begin();
+			nightShader.setUniformi("u_nightTexture", 1);
+			nightShader.end();
+		} else {
+			Gdx.app.error("GameCanvas", "Night shader did not compile: " + nightShader.getLog(), new IllegalStateException());
+			nightShader.dispose();
+			nightShader = null;
+		}
+
 		// Set the projection matrix (for proper scaling)
 		camera = new OrthographicCamera(getWidth(),getHeight());
 		camera.setToOrtho(false);
@@ -168,6 +232,11 @@ public class GameCanvas {
 		}
 		spriteBatch.dispose();
     	spriteBatch = null;
+		if (nightShader != null) {
+			nightShader.dispose();
+			nightShader = null;
+		}
+		nightTexture = null;
     	local  = null;
     	global = null;
     	vertex = null;
@@ -498,6 +567,7 @@ public class GameCanvas {
 		
 		setBlendState(BlendState.NO_PREMULT);
 		spriteBatch.begin();
+		nightTexture = null;
     	active = DrawPass.STANDARD;
     }
 
@@ -516,6 +586,7 @@ public class GameCanvas {
 		spriteBatch.setProjectionMatrix(global);
 		
     	spriteBatch.begin();
+    	nightTexture = null;
     	active = DrawPass.STANDARD;
     }
     
@@ -527,6 +598,26 @@ public class GameCanvas {
     public void begin() {
 		spriteBatch.setProjectionMatrix(camera.combined);
     	spriteBatch.begin();
+    	nightTexture = null;
+    	active = DrawPass.STANDARD;
+    }
+
+	/**
+	 * Start a standard drawing sequence that fills the viewport with a fixed area.
+	 *
+	 * The camera is ignored.  This is for drawing into an off-screen buffer, whose
+	 * viewport is the given area of the world in pixels.
+	 *
+	 * @param x 	 The x-coordinate of the bottom left corner of the area
+	 * @param y 	 The y-coordinate of the bottom left corner of the area
+	 * @param width  The width of the area
+	 * @param height The height of the area
+	 */
+    public void begin(float x, float y, float width, float height) {
+		global.setToOrtho2D(x, y, width, height);
+		spriteBatch.setProjectionMatrix(global);
+    	spriteBatch.begin();
+    	nightTexture = null;
     	active = DrawPass.STANDARD;
     }
 
@@ -557,6 +648,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endNight();
 		
 		// Unlike Lab 1, we can shortcut without a master drawing method
     	spriteBatch.setColor(Color.WHITE);
@@ -585,6 +677,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endNight();
 		
 		// Unlike Lab 1, we can shortcut without a master drawing method
     	spriteBatch.setColor(tint);
@@ -615,6 +708,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endNight();
 		
 		// Call the master drawing method (more efficient that base method)
 		holder.setRegion(image);
@@ -651,6 +745,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endNight();
 		
 		// Call the master drawing method (more efficient that base method)
 		holder.setRegion(image);
@@ -682,6 +777,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endNight();
 		
 		// Call the master drawing method (we have to for transforms)
 		holder.setRegion(image);
@@ -710,6 +806,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endNight();
 		
 		// Unlike Lab 1, we can shortcut without a master drawing method
     	spriteBatch.setColor(Color.WHITE);
@@ -738,6 +835,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endNight();
 		
 		// Unlike Lab 1, we can shortcut without a master drawing method
     	spriteBatch.setColor(tint);
@@ -768,6 +866,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endNight();
 		
 		// Unlike Lab 1, we can shortcut without a master drawing method
     	spriteBatch.setColor(tint);
@@ -807,6 +906,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endNight();
 
 		// BUG: The draw command for texture regions does not work properly.
 		// There is a workaround, but it will break if the bug is fixed.
@@ -840,6 +940,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endNight();
 
 		local.set(affine);
 		local.translate(-ox,-oy);				
@@ -867,11 +968,98 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endNight();
 
 		spriteBatch.setColor(tint);
 		spriteBatch.draw(texture, x, y, width, height, u, v, u2, v2);
 	}
 
+	/**
+	 * Draws a sprite by day with its night laid over it, in a single pass.
+	 *
+	 * This looks as drawing the day region in white and then the night region
+	 * tinted by opacity, but draws one sprite.  The two regions must be cut from
+	 * textures of the same size at the same place, as the frames of a day sheet
+	 * and its night sheet are.  If they are not, or there is no night shader,
+	 * the two regions are drawn one after the other.
+	 *
+	 * @param day 	  The region to draw by day
+	 * @param night   The region to lay over it at night
+	 * @param opacity The tint of the night; only its alpha is used by the shader
+	 * @param ox 	The x-coordinate of texture origin (in pixels)
+	 * @param oy 	The y-coordinate of texture origin (in pixels)
+	 * @param x 	The x-coordinate of the texture origin (on screen)
+	 * @param y 	The y-coordinate of the texture origin (on screen)
+	 * @param angle The rotation angle (in degrees) about the origin.
+	 * @param sx 	The x-axis scaling factor
+	 * @param sy 	The y-axis scaling factor
+	 */
+	public void draw(TextureRegion day, TextureRegion night, Color opacity, float ox, float oy,
+					 float x, float y, float angle, float sx, float sy) {
+		if (!isAligned(day, night) || !beginNight(day.getTexture(), night.getTexture(), opacity)) {
+			draw(day, Color.WHITE, ox, oy, x, y, angle, sx, sy);
+			draw(night, opacity, ox, oy, x, y, angle, sx, sy);
+			return;
+		}
+
+		computeTransform(ox,oy,x,y,angle,sx,sy);
+		spriteBatch.setColor(Color.WHITE);
+		spriteBatch.draw(day, day.getRegionWidth(), day.getRegionHeight(), local);
+	}
+
+	/**
+	 * Draws a sprite by day with its night laid over it, in a single pass.
+	 *
+	 * See draw(TextureRegion, TextureRegion, Color, ...) for the rules.
+	 *
+	 * @param day 	  The region to draw by day
+	 * @param night   The region to lay over it at night
+	 * @param opacity The tint of the night; only its alpha is used by the shader
+	 * @param x 	The x-coordinate of the bottom left corner
+	 * @param y 	The y-coordinate of the bottom left corner
+	 * @param width	The texture width
+	 * @param height The texture height
+	 */
+	public void draw(TextureRegion day, TextureRegion night, Color opacity, float x, float y, float width, float height) {
+		if (!isAligned(day, night) || !beginNight(day.getTexture(), night.getTexture(), opacity)) {
+			draw(day, Color.WHITE, x, y, width, height);
+			draw(night, opacity, x, y, width, height);
+			return;
+		}
+
+		spriteBatch.setColor(Color.WHITE);
+		spriteBatch.draw(day, x, y, width, height);
+	}
+
+	/**
+	 * Draws the given section of a texture by day with its night laid over it.
+	 *
+	 * See draw(TextureRegion, TextureRegion, Color, ...) for the rules.
+	 *
+	 * @param day 		The texture to draw by day
+	 * @param night		The texture to lay over it at night
+	 * @param opacity	The tint of the night; only its alpha is used by the shader
+	 * @param x        	The x-coordinate of the bottom left corner
+	 * @param y 		The y-coordinate of the bottom left corner
+	 * @param width		The texture width
+	 * @param height 	The texture height
+	 * @param u			The fraction of the texture (x) where drawing should begin
+	 * @param v			The fraction of the texture (y) where drawing should begin
+	 * @param u2		The fraction of the texture (x) where drawing should end
+	 * @param v2		The fraction of the texture (y) where drawing should end
+	 */
+	public void draw(Texture day, Texture night, Color opacity, float x, float y, float width, float height,
+					 float u, float v, float u2, float v2) {
+		if (!beginNight(day, night, opacity)) {
+			draw(day, Color.WHITE, x, y, width, height, u, v, u2, v2);
+			draw(night, opacity, x, y, width, height, u, v, u2, v2);
+			return;
+		}
+
+		spriteBatch.setColor(Color.WHITE);
+		spriteBatch.draw(day, x, y, width, height, u, v, u2, v2);
+	}
+
 	/**
 	 * Draws the polygonal region with the given transformations
 	 *
@@ -897,6 +1085,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endNight();
 		
 		// Unlike Lab 1, we can shortcut without a master drawing method
     	spriteBatch.setColor(Color.WHITE);
@@ -931,6 +1120,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endNight();
 		
 		// Unlike Lab 1, we can shortcut without a master drawing method
     	spriteBatch.setColor(tint);
@@ -967,6 +1157,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endNight();
 		
 		// Unlike Lab 1, we can shortcut without a master drawing method
     	spriteBatch.setColor(tint);
@@ -1005,6 +1196,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endNight();
 		
 		TextureRegion bounds = region.getRegion();
 		spriteBatch.setColor(tint);
@@ -1040,6 +1232,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endNight();
 
 		local.set(affine);
 		local.translate(-ox,-oy);
@@ -1078,6 +1271,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endNight();
 		GlyphLayout layout = new GlyphLayout(font,text);
 
 		GlyphLayout glyphLayout = new GlyphLayout();
@@ -1099,6 +1293,7 @@ public class GameCanvas {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		endNight();
 		
 		GlyphLayout layout = new GlyphLayout(font,text);
 		float x = (getWidth()  - layout.width) / 2.0f;
@@ -1324,6 +1519,27 @@ public class GameCanvas {
     	debugRender.ellipse(x0-w, y0-h, 2*w, 2*h, 12);
     }
     
+    /**
+     * Draws a line segment in the specified color
+     *
+     * @param color The line color
+     * @param x0 The x-coordinate of the start of the line
+     * @param y0 The y-coordinate of the start of the line
+     * @param x1 The x-coordinate of the end of the line
+     * @param y1 The y-coordinate of the end of the line
+     * @param sx The amount to scale the x-axis
+     * @param sy The amount to scale the y-axis
+     */
+    public void drawLine(Color color, float x0, float y0, float x1, float y1, float sx, float sy) {
+		if (active != DrawPass.DEBUG) {
+			Gdx.app.error("GameCanvas", "Cannot draw without active beginDebug()", new IllegalStateException());
+			return;
+		}
+
+    	debugRender.setColor(color);
+    	debugRender.line(x0*sx, y0*sy, x1*sx, y1*sy);
+    }
+
 	/**
 	 * Compute the affine transform (and store it in local) for this image.
 	 * 
@@ -1342,5 +1558,64 @@ public class GameCanvas {
 		local.translate(-ox,-oy);
 	}
 
+	/**
+	 * Returns true if two regions are cut from the same place of their textures
+	 *
+	 * @param day 	The region drawn by day
+	 * @param night The region laid over it at night
+	 *
+	 * @return true if the regions have the same texture coordinates
+	 */
+	private static boolean isAligned(TextureRegion day, TextureRegion night) {
+		return day.getU() == night.getU() && day.getV() == night.getV() &&
+			   day.getU2() == night.getU2() && day.getV2() == night.getV2();
+	}
+
+	/**
+	 * Readies the night shader to lay a night texture over a day texture.
+	 *
+	 * The batch is flushed only when the night texture or its opacity changes,
+	 * so the tiles of a level still go out in few batches.
+	 *
+	 * @param day 	  The texture drawn by day
+	 * @param night   The texture laid over it at night
+	 * @param opacity The tint of the night
+	 *
+	 * @return false if the pair must be drawn as two sprites instead, or not at all
+	 */
+	private boolean beginNight(Texture day, Texture night, Color opacity) {
+		if (active != DrawPass.STANDARD || nightShader == null ||
+			day.getWidth() != night.getWidth() || day.getHeight() != night.getHeight() ||
+			opacity.r != 1 || opacity.g != 1 || opacity.b != 1) {
+			return false;
+		}
+		if (night != nightTexture || opacity.a != nightAmount) {
+			spriteBatch.flush();
+			if (night != nightTexture) {
+				night.bind(1);
+				Gdx.gl.glActiveTexture(GL20.GL_TEXTURE0);
+				nightTexture = night;
+			}
+			if (opacity.a != nightAmount) {
+				nightShader.setUniformf("u_night", opacity.a);
+				nightAmount = opacity.a;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the night shader to drawing plain sprites.
+	 *
+	 * This is called before every sprite that is not a day and night pair.
+	 */
+	private void endNight() {
+		if (nightAmount != 0) {
+			spriteBatch.flush();
+			nightShader.setUniformf("u_night", 0);
+			nightAmount = 0;
+		}
+	}
+
 	public OrthographicCamera getCamera() { return camera; }
 }
\ No newline at end of file
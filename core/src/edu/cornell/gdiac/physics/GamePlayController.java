@@ -9,14 +9,11 @@ import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.physics.box2d.World;
 import edu.cornell.gdiac.physics.host.HostController;
 import edu.cornell.gdiac.physics.host.HostModel;
-import edu.cornell.gdiac.physics.obstacle.DecorativeRoots;
-import edu.cornell.gdiac.physics.obstacle.EnergyPillar;
 import edu.cornell.gdiac.physics.obstacle.Obstacle;
-import edu.cornell.gdiac.physics.obstacle.OscWall;
-import edu.cornell.gdiac.physics.obstacle.Wall;
 import edu.cornell.gdiac.physics.spirit.SpiritModel;
 import edu.cornell.gdiac.util.MusicController;
 import edu.cornell.gdiac.util.SoundController;
@@ -73,28 +70,46 @@ public class GamePlayController extends WorldController {
 
 	private Level level;
 
+	/** The gameplay rules for the current level */
+	private Simulation simulation;
+
+	/** Whether to preview the path of the shot being aimed */
+	private boolean showTrajectory;
+
+	/** The chunks of the level, which sleep while far from the action */
+	private ActivationGrid activation;
+
+	/** How far around the camera, spirit and hosts the level is kept awake */
+	private static final float ACTIVATION_MARGIN = 2 * Constants.TILE_WIDTH;
+
+	/** The file the input of the last attempt is recorded to, or null to not record */
+	private FileHandle recordFile;
+	/** The input of the current attempt, if recording */
+	private InputLog recording;
+	/** Whether each level is raced against the ghosts of its fastest runs */
+	private boolean timeTrial;
+	/** The ghost file the ghosts were loaded from */
+	private FileHandle ghostsFile;
+
 	protected HostModel possessed;
 
 	protected HostModel pedestal;
 
 	protected SpiritModel spirit;
 
-	protected EnergyPillar[] energyPillars;
-
-	protected OscWall[] oscWalls;
-
 	private Vector2 cache;
 
 	private Vector2 panTarget;
 
-	private final int lifePerBounce = 40;
-
 	private final float panSpeed = 10f;
 
 	private boolean isActiveScreen;
 
 	private boolean launchedFirstShot;
 
+	/** The file of the loaded level, to tell whether a retry can restore it in place */
+	private FileHandle levelFile;
+
 	/**
 	 * Preloads the assets for this controller.
 	 *
@@ -192,6 +207,7 @@ public class GamePlayController extends WorldController {
 		sound = SoundController.getInstance();
 		// Initialize vectors
         cache = new Vector2();
+        panTarget = new Vector2();
 
 	}
 
@@ -213,17 +229,6 @@ public class GamePlayController extends WorldController {
 	public void reset() {
 
 	    getLevels(inCustom);
-		// Reset game conditions to represent a new game
-		setComplete(false);
-		setFailure(false);
-		setMenu(false);
-
-		canvas.resetZoom();
-
-		renderHUD = true;
-		launchedFirstShot = false;
-
-		MusicController.getInstance().play("gameMusic");
 
 		Vector2 gravity = new Vector2(world.getGravity());
 
@@ -236,95 +241,168 @@ public class GamePlayController extends WorldController {
 		else { levelToLoad = levels.get(levelIndex); }
 
 		level = loader.loadLevel(levelToLoad, levelIndex, !inCustom);
-
-		/* Load in Tutorial */
-		tutorial.reset();
-		TutorialData tutorialData = loader.getTutorialData(level.tutorialNum);
-
-		if(tutorialData != null) {
-			tutorial.addTutorial(tutorialData);
-		}
-
-		hud.clearHUD();
-		Gdx.input.setInputProcessor(hud.getStage());
-		hud.setNumTotalHosts(level.hosts.size());
+		levelFile = levelToLoad;
 
 		dimensions.set(level.dimensions);
 
 		pedestal = level.pedestal;
 		spirit = level.spirit;
-		spirit.setName("spirit");
-
-		energyPillars = level.energyPillars;
-
-		oscWalls = level.oscWalls;
-
-		possessed = pedestal;
-		spirit.setGoToCenter(true);
-
-		spirit.setIsPossessing(true);
 
-		hostController = new HostController(level.hosts, scale, arrowHeadTex, arrowDashTex, pedestal, canvas, energyPillars);
+		hostController = new HostController(level.hosts, scale, arrowHeadTex, arrowDashTex, pedestal, canvas, level.energyPillars);
 
 		// Reset the collision controller
 		collisionController.reset();
 
+		simulation = new Simulation(level, hostController, collisionController);
+
 		for (Obstacle o : objects) {
 			o.deactivatePhysics(world);
 		}
 
-		objects.clear();
+		clearObjects();
 		addQueue.clear();
 		world.dispose();
 
 		world = new World(gravity,false);
 		world.setContactListener(collisionController);
+		trajectory = new TrajectoryPredictor(world);
 
 		populateLevel();
+		simulation.saveInitialState(addQueue);
+		activation = new ActivationGrid(addQueue);
 
-		panTarget = new Vector2(pedestal.getPosition().x * scale.x, pedestal.getPosition().y * scale.y);
-
+		startLevel();
 	}
 
 	/**
-	 * Lays out the game geography.
+	 * Restarts the current level without loading it again.
+	 *
+	 * Every object is put back where it was when the level was loaded, in the
+	 * same world, so a retry takes no longer than a frame.  If the current level
+	 * has changed since it was loaded, this falls back to a full reset.
 	 */
-	private void populateLevel() {
-		for(Obstacle obj : level.walls) {
-			// Set the hitbox of the wall to be dependent on its texture
-			if(obj instanceof Wall) {
-				((Wall)obj).setAltHitbox();
-			}
-			addQueue.add(obj);
-		}
-		for(Obstacle obj : level.water) {
-			addQueue.add(obj);
-		}
-		for(Obstacle obj : level.sand) {
-			addQueue.add(obj);
+	public void retry() {
+		if (simulation == null || !addQueue.isEmpty() || levels == null || levels.isEmpty()) {
+			reset();
+			return;
 		}
-		for(Obstacle obj : level.borderEdges) {
-			addQueue.add(obj);
+		int levelIndex = ((currentLevel%levels.size()) + levels.size()) % levels.size();
+		if (!levels.get(levelIndex).equals(levelFile)) {
+			reset();
+			return;
 		}
-		for(Obstacle obj : level.borderCorners) {
-			addQueue.add(obj);
+
+		simulation.restart(objects, world);
+		restoreEntities();
+		activation.reset();
+		trajectory.invalidate();
+		startLevel();
+	}
+
+	/**
+	 * Records the input of each attempt at a level to a file.
+	 *
+	 * The file holds the last attempt, and is written when it is won or lost, and
+	 * when the next attempt starts.  The game runs in lockstep while recording, so
+	 * that each frame is one step of the recording.
+	 *
+	 * @param file The file to record to, or null to stop recording
+	 */
+	public void setRecordFile(FileHandle file) {
+		recordFile = file;
+		setLockstep(file != null);
+	}
+
+	/**
+	 * Sets whether each level is raced against the ghosts of its fastest runs.
+	 *
+	 * The ghosts are kept in a file beside each level, and every run won that is
+	 * among the fastest is added to it.
+	 *
+	 * @param value whether to race against ghosts
+	 */
+	public void setTimeTrial(boolean value) {
+		timeTrial = value;
+		if (!value) {
+			ghosts = null;
 		}
-		for(Obstacle obj : level.energyPillars) {
-			addQueue.add(obj);
+	}
+
+	/**
+	 * Writes the input of the current attempt, if it has any
+	 */
+	private void saveRecording() {
+		if (recordFile != null && recording != null && recording.getStepCount() > 0) {
+			recording.write(recordFile);
 		}
-		for(Obstacle obj : level.oscWalls) {
-			addQueue.add(obj);
+	}
+
+	@Override
+	public void dispose() {
+		saveRecording();
+		super.dispose();
+	}
+
+	/**
+	 * Sets up everything outside the world for the start of the loaded level.
+	 */
+	private void startLevel() {
+		// Keep the last attempt and start recording the new one
+		if (recordFile != null) {
+			saveRecording();
+			int levelIndex = ((currentLevel%levels.size()) + levels.size()) % levels.size();
+			if (recording == null) {
+				recording = new InputLog(levelFile.path(), levelIndex, getStepSize());
+			} else {
+				recording.clear(levelFile.path(), levelIndex);
+			}
 		}
-		for(HostModel host : level.hosts) {
-			addQueue.add(host);
+
+		// Race the ghosts of the level, loading them only when the level changes
+		if (timeTrial) {
+			FileHandle ghostFile = GhostRace.getGhostFile(levelFile);
+			if (ghosts == null || !ghostFile.equals(ghostsFile)) {
+				ghosts = new GhostRace(ghostFile);
+				ghostsFile = ghostFile;
+			}
+			ghosts.start(pedestal.getPosition(), getStepSize());
 		}
-		for(DecorativeRoots roots : level.decorativeRootTiles) {
-			addQueue.add(roots);
+
+		// Reset game conditions to represent a new game
+		setComplete(false);
+		setFailure(false);
+		setMenu(false);
+
+		canvas.resetZoom();
+
+		renderHUD = true;
+		launchedFirstShot = false;
+
+		MusicController.getInstance().play("gameMusic");
+
+		/* Load in Tutorial */
+		tutorial.reset();
+		TutorialData tutorialData = loader.getTutorialData(level.tutorialNum);
+
+		if(tutorialData != null) {
+			tutorial.addTutorial(tutorialData);
 		}
-		addQueue.add(level.spirit);
-		addQueue.add(level.pedestal);
-		collisionController.addHosts(level.hosts);
-		collisionController.addSpirit(level.spirit);
+
+		hud.clearHUD();
+		Gdx.input.setInputProcessor(hud.getStage());
+		hud.setNumTotalHosts(level.hosts.size());
+
+		possessed = pedestal;
+		resetStepClock();
+
+		panTarget.set(pedestal.getPosition().x * scale.x, pedestal.getPosition().y * scale.y);
+	}
+
+	/**
+	 * Lays out the game geography.
+	 */
+	private void populateLevel() {
+		simulation.populate(addQueue);
 	}
 
 
@@ -335,6 +413,7 @@ public class GamePlayController extends WorldController {
 	 * not handle collisions, as those are managed by the parent class WorldController.
 	 * This method is called after input is read, but before collisions are resolved.
 	 * The very last thing that it should do is apply forces to the appropriate objects.
+	 * The gameplay rules themselves run once per physics step, in beginStep.
 	 *
 	 * @param delta Number of seconds since last animation frame
 	 */
@@ -346,46 +425,12 @@ public class GamePlayController extends WorldController {
 			return;
 		}
 
-		// Animate oscWalls
-		for(OscWall ow : oscWalls) {
-			ow.updateAnimation();
-		}
-		// Check win condition
-		if (hostController.checkAllPossessed() && !isComplete()){
-			hud.incrementCurrHosts();
-			setComplete(true);
-			sound.getInstance().play(VICTORY_SOUND,VICTORY_SOUND,false, 1.2f*sound.getVolume());
-		}
-
-		// Determine if there is any possession
-		if (collisionController.isPossessed()) {
-
-			// Play possession sound if something different is possessed this frame
-			if (possessed != collisionController.getHostPossessed()) {
-				sound.getInstance().play(POSSESSION_SOUND,POSSESSION_SOUND,false);
-			}
-
-			possessed = collisionController.getHostPossessed();
-		}
-
-		// Remove Pedestal Once Possessing a New Host
-		if(pedestal != possessed) {
-			pedestal.markRemoved(true);
-		}
-
-		// Calls update on hostController
-		hostController.update(delta, possessed, spirit, level.pedestal, collisionController.getInSand(), energyPillars, wasPaused);
-
-		if (hostController.getLaunched()){
-			SoundController.getInstance().play(LAUNCH_SOUND,LAUNCH_SOUND,false);
-		}
-
 		// If player is still playing and moving
-		if (!isFailure() && !isComplete() && hostController.isMoving()) {
+		if (!isFailure() && !isComplete() && simulation.isMoving()) {
 			// Determine if the player is in sand
-			String walkingSound = collisionController.getInSand() ? WALK_SAND_SOUND : WALK_SOUND;
+			String walkingSound = simulation.isInSand() ? WALK_SAND_SOUND : WALK_SOUND;
 			// If unmuted, then play the correct walking sound
-			if(!collisionController.getInSand()){
+			if(!simulation.isInSand()){
 				sound.stop(WALK_SAND_SOUND);
 			}
 			sound.play(walkingSound, walkingSound, true, sound.getVolume()*.30f);
@@ -396,12 +441,6 @@ public class GamePlayController extends WorldController {
 			sound.stop(WALK_SOUND);
 		}
 
-		// Check lose condition
-		if (hostController.getPossessedBlownUp() && !isComplete() && !isFailure()) {
-			setFailure(true);
-			sound.play(FAILURE_SOUND, FAILURE_SOUND, false, .25f*sound.getVolume());
-		}
-
 		// Check if HUD timer should update
 		if (!launchedFirstShot && spirit.hasLaunched) {
 			launchedFirstShot = true;
@@ -414,10 +453,15 @@ public class GamePlayController extends WorldController {
 		// Get arrow and set for world controller to draw, if applicable
 		arrow = hostController.getArrow();
 
-		// Update bouncing if applicable
-		if (collisionController.isBounced()) {
-			String bounceSound = collisionController.getBounceOnBounds() ? BOUNCE_BOUND_SOUND : BOUNCE_WALL_SOUND;
-			sound.play(bounceSound, bounceSound, false);
+		// Preview where the shot being aimed would go, if wanted
+		if (InputController.getInstance().didTrajectory()) {
+			showTrajectory = !showTrajectory;
+		}
+		Vector2 aim = hostController.getAimVelocity();
+		if (showTrajectory && aim != null) {
+			trajectory.predict(possessed, possessed.getPosition(), aim, spirit.getCurrentLife());
+		} else {
+			trajectory.invalidate();
 		}
 
 		// Calculate spirit's screen coordinates from box2d coordinates
@@ -457,25 +501,18 @@ public class GamePlayController extends WorldController {
 			canvas.zoomIn();
 		}
 
-		Boolean isInPillar = false;
-		// Check if possessed is in energy pillar radius
-        for(EnergyPillar ep : energyPillars) {
-        	if((Math.pow((possessed.getPosition().x - ep.getPosition().x), 2) / Math.pow(ep.getEnergyPillarMajor(),2)) +
-					((Math.pow((possessed.getPosition().y - ep.getPosition().y), 2))/(Math.pow(ep.getEnergyPillarMinor(), 2))) <= 1)  {
-        	    if (spirit.hasLaunched) { isInPillar = false; }
-        	    else {
-					possessed.setCurrentCharge(possessed.getCurrentCharge() + 2);
-					isInPillar = true;
-				}
-			}
-		}
-
-        possessed.setInPillar(isInPillar);
-
-		if (spirit.getDidBounce()) {
-			spirit.decCurrentLife(lifePerBounce);
-			canvas.shakeCamera(15, 5);
+		// Only keep the parts of the level near the camera, spirit and hosts awake
+		activation.begin();
+		Vector3 camPos = canvas.getCamera().position;
+		float zoom = canvas.getZoom();
+		activation.wake(camPos.x / scale.x, camPos.y / scale.y,
+				canvas.getWidth() * zoom / 2 / scale.x + ACTIVATION_MARGIN,
+				canvas.getHeight() * zoom / 2 / scale.y + ACTIVATION_MARGIN);
+		activation.wake(spirit.getX(), spirit.getY(), ACTIVATION_MARGIN, ACTIVATION_MARGIN);
+		for (HostModel h : level.hosts) {
+			activation.wake(h.getX(), h.getY(), ACTIVATION_MARGIN, ACTIVATION_MARGIN);
 		}
+		activation.end();
 
 		// Deal with random ambient sounds
 		if (Math.random() > .999){
@@ -514,12 +551,120 @@ public class GamePlayController extends WorldController {
 
 		//Update sounds
 		sound.getInstance().update();
+	}
+
+	/**
+	 * Applies the gameplay rules for one physics step, then reacts to what happened.
+	 *
+	 * The input of the frame is read by the first step after it, and recorded
+	 * once for each step.
+	 *
+	 * @param dt The length of the step in seconds
+	 */
+	@Override
+	protected void beginStep(float dt) {
+		if (pressedPause) {
+			return;
+		}
+
+		InputController.getInstance().beginStep();
+		if (recording != null) {
+			recording.record(InputController.getInstance(), wasPaused);
+		}
+		simulation.update(dt, wasPaused);
+		possessed = simulation.getPossessed();
 
 		// Not paused anymore
 		wasPaused = false;
 
-		// Clear collision controller
-		collisionController.clear();
-		spirit.setDidBounce(false);
+		// Increment HUD if a host was possessed for the first time
+		if (simulation.didPossessNewHost()) {
+			HUD.incrementCurrHosts();
+		}
+
+		// Check win condition
+		if (simulation.didWin()){
+			hud.incrementCurrHosts();
+			setComplete(true);
+			if (recording != null) {
+				recording.setOutcome(InputLog.OUTCOME_WON);
+				saveRecording();
+			}
+			if (ghosts != null) {
+				ghosts.finish();
+			}
+			sound.getInstance().play(VICTORY_SOUND,VICTORY_SOUND,false, 1.2f*sound.getVolume());
+		}
+
+		// Play possession sound if something different is possessed this step
+		if (simulation.didChangePossession()) {
+			sound.getInstance().play(POSSESSION_SOUND,POSSESSION_SOUND,false);
+		}
+
+		if (simulation.didLaunch()){
+			SoundController.getInstance().play(LAUNCH_SOUND,LAUNCH_SOUND,false);
+		}
+
+		// Check lose condition
+		if (simulation.didLose() && !isComplete() && !isFailure()) {
+			setFailure(true);
+			if (recording != null) {
+				recording.setOutcome(InputLog.OUTCOME_LOST);
+				saveRecording();
+			}
+			sound.play(FAILURE_SOUND, FAILURE_SOUND, false, .25f*sound.getVolume());
+		}
+
+		// Update bouncing if applicable
+		if (simulation.didBounce()) {
+			String bounceSound = simulation.didBounceOnBounds() ? BOUNCE_BOUND_SOUND : BOUNCE_WALL_SOUND;
+			sound.play(bounceSound, bounceSound, false);
+		}
+
+		if (simulation.didSpiritBounce()) {
+			canvas.shakeCamera(15, 5);
+		}
+	}
+
+	/**
+	 * Returns the number of pieces to cut the next physics step into.
+	 *
+	 * The step is only cut while the spirit flies fast enough to pass through a wall.
+	 *
+	 * @param dt The length of the step to cut
+	 *
+	 * @return the number of pieces to cut the step into
+	 */
+	protected int getStepPieces(float dt) {
+		return simulation == null ? 1 : simulation.getStepPieces(dt);
+	}
+
+	/**
+	 * Adds the step to the run raced against the ghosts, and moves them on
+	 */
+	@Override
+	protected void endStep() {
+		if (ghosts != null && possessed != null) {
+			ghosts.step(spirit.getPosition(), possessed.getPosition());
+		}
+	}
+
+	/**
+	 * Draws the ghosts like the spirit and the golems of this level
+	 */
+	@Override
+	protected void drawGhosts() {
+		ghosts.draw(canvas, scale, spirit, level.hosts.isEmpty() ? null : level.hosts.get(0));
+	}
+
+	/**
+	 * Resolves the contacts recorded during the last physics step.
+	 *
+	 * The contact listener only records what touched during a step, so that the
+	 * gameplay rules never run inside a Box2D callback.  They run here instead,
+	 * once per step and in the order the contacts happened.
+	 */
+	protected void postStep() {
+		collisionController.resolveContacts();
 	}
 }
\ No newline at end of file
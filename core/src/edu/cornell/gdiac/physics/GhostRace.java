@@ -0,0 +1,225 @@
+/*
+ * GhostRace.java
+ *
+ * The time trial of a level.  The fastest runs through a level are kept in a
+ * ghost file beside it, and played back as translucent ghosts while the player
+ * races them.  Each run won is added to the file if it is fast enough.
+ */
+package edu.cornell.gdiac.physics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+import edu.cornell.gdiac.physics.host.HostModel;
+import edu.cornell.gdiac.physics.spirit.SpiritModel;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The ghosts of a level, and the run being raced against them.
+ *
+ * The ghost file holds up to MAX_GHOSTS tracks, fastest first.  It is deflated,
+ * since the steps where nothing moves compress to almost nothing.  Every step of the
+ * game, step() adds the current positions to the run and moves each ghost on to
+ * the same time in its own run.  A ghost that has finished its run stays where it
+ * ended.  Runs are ranked by time, as each track keeps its own step size.
+ */
+public class GhostRace {
+
+    /** The most ghosts kept for a level */
+    public static final int MAX_GHOSTS = 3;
+
+    /** The first bytes of every ghost file */
+    private static final int MAGIC = 0x4d444748;
+    /** The version of the file format */
+    private static final int VERSION = 2;
+    /** The version of the file format whose tracks were all stepped at WORLD_STEP */
+    private static final int VERSION_FIXED_STEP = 1;
+
+    /** The tint the ghosts are drawn with */
+    private static final Color GHOST_COLOR = new Color(0.7f, 0.85f, 1, 0.35f);
+
+    /** The ghost file of the level */
+    private FileHandle file;
+    /** The runs kept for the level, fastest first */
+    private Array<GhostTrack> tracks = new Array<GhostTrack>();
+    /** A reader for each ghost */
+    private GhostTrack.Reader[] readers = new GhostTrack.Reader[MAX_GHOSTS];
+    /** The run being raced */
+    private GhostTrack run = new GhostTrack();
+
+    /** The x-coordinate of the pedestal, on the grid */
+    private int pedestalX;
+    /** The y-coordinate of the pedestal, on the grid */
+    private int pedestalY;
+
+    /**
+     * Returns the ghost file beside a level file
+     *
+     * @param levelFile The level file
+     *
+     * @return the ghost file of the level
+     */
+    public static FileHandle getGhostFile(FileHandle levelFile) {
+        return Gdx.files.local(levelFile.pathWithoutExtension() + ".ghost");
+    }
+
+    /**
+     * Creates the time trial of a level, with the ghosts in its file if it has one
+     *
+     * @param file The ghost file of the level
+     */
+    public GhostRace(FileHandle file) {
+        this.file = file;
+        for (int i = 0; i < MAX_GHOSTS; i++) {
+            readers[i] = new GhostTrack.Reader();
+        }
+        if (file.exists()) {
+            read();
+        }
+    }
+
+    /**
+     * Starts a new run, with every ghost back at its start
+     *
+     * @param pedestal The position of the pedestal, where every run starts
+     * @param stepSize The amount of time of each step of the run, in seconds
+     */
+    public void start(Vector2 pedestal, float stepSize) {
+        pedestalX = GhostTrack.toGrid(pedestal.x);
+        pedestalY = GhostTrack.toGrid(pedestal.y);
+        run.clear(stepSize);
+        for (int i = 0; i < MAX_GHOSTS; i++) {
+            readers[i].setTrack(i < tracks.size ? tracks.get(i) : null);
+        }
+    }
+
+    /**
+     * Adds a step to the run, and moves every ghost on to the time of the run
+     *
+     * @param spirit The position of the spirit
+     * @param golem The position of the possessed golem
+     */
+    public void step(Vector2 spirit, Vector2 golem) {
+        run.add(spirit.x, spirit.y, golem.x, golem.y);
+        double time = run.getDuration();
+        for (int i = 0; i < tracks.size; i++) {
+            readers[i].advanceTo(time);
+        }
+    }
+
+    /**
+     * Ends the run as won, keeping it if it is among the fastest
+     */
+    public void finish() {
+        int index = 0;
+        while (index < tracks.size && tracks.get(index).getDuration() <= run.getDuration()) {
+            index++;
+        }
+        if (index >= MAX_GHOSTS) {
+            return;
+        }
+        tracks.insert(index, run.copy());
+        if (tracks.size > MAX_GHOSTS) {
+            tracks.removeIndex(MAX_GHOSTS);
+        }
+        write();
+    }
+
+    /**
+     * Returns how long the fastest run took in seconds, or -1 if there is none
+     *
+     * @return how long the fastest run took
+     */
+    public double getBestTime() {
+        return tracks.size == 0 ? -1 : tracks.first().getDuration();
+    }
+
+    /**
+     * Returns the number of ghosts
+     *
+     * @return the number of ghosts
+     */
+    public int getGhostCount() {
+        return tracks.size;
+    }
+
+    /**
+     * Draws every ghost, as a translucent golem and a spirit apart from it.
+     *
+     * The golem is not drawn while on the pedestal, which is drawn already.  This
+     * must be called between begin() and end() of the canvas.
+     *
+     * @param canvas Drawing context
+     * @param scale The drawing scale of the world
+     * @param spirit The spirit to draw the ghost spirits like
+     * @param golem The golem to draw the ghost golems like, or null for none
+     */
+    public void draw(GameCanvas canvas, Vector2 scale, SpiritModel spirit, HostModel golem) {
+        for (int i = 0; i < tracks.size; i++) {
+            GhostTrack.Reader reader = readers[i];
+            if (!reader.hasStarted()) {
+                continue;
+            }
+            if (golem != null && !reader.isGolemAt(pedestalX, pedestalY)) {
+                golem.drawGhost(canvas, reader.getGolemX() * scale.x, reader.getGolemY() * scale.y, GHOST_COLOR);
+            }
+            if (reader.isSpiritApart()) {
+                spirit.drawGhost(canvas, reader.getSpiritX() * scale.x, reader.getSpiritY() * scale.y,
+                        reader.getSpiritAngle(), GHOST_COLOR);
+            }
+        }
+    }
+
+    /**
+     * Reads the runs in the ghost file
+     */
+    private void read() {
+        DataInputStream in = new DataInputStream(new InflaterInputStream(file.read(4096)));
+        try {
+            int version = in.readInt() == MAGIC ? in.readByte() : -1;
+            if (version != VERSION && version != VERSION_FIXED_STEP) {
+                throw new GdxRuntimeException("Not a ghost file: " + file.path());
+            }
+            int count = Math.min(in.readByte(), MAX_GHOSTS);
+            for (int i = 0; i < count; i++) {
+                if (version == VERSION_FIXED_STEP) {
+                    tracks.add(GhostTrack.read(in, WorldController.WORLD_STEP));
+                } else {
+                    tracks.add(GhostTrack.read(in));
+                }
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not read ghost file: " + file.path(), e);
+        } finally {
+            StreamUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * Writes the runs to the ghost file
+     */
+    private void write() {
+        DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(file.write(false, 4096)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(tracks.size);
+            for (GhostTrack track : tracks) {
+                track.write(out);
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not write ghost file: " + file.path(), e);
+        } finally {
+            StreamUtils.closeQuietly(out);
+        }
+    }
+}
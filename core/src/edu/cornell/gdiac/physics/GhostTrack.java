@@ -0,0 +1,387 @@
+/*
+ * GhostTrack.java
+ *
+ * The path of one run through a level, kept small enough to store several per
+ * level and to play them back every step.  Positions are rounded to a fine grid
+ * and stored as the change from the step before, which is a byte or two each.
+ */
+package edu.cornell.gdiac.physics;
+
+import com.badlogic.gdx.math.MathUtils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The positions of the spirit and the possessed golem at each step of a run.
+ *
+ * Each step is four numbers: the change in the spirit's x and y, then in the
+ * golem's, in units of 1/RESOLUTION.  Each number is zigzag encoded, so small
+ * changes either way are small, then written seven bits to a byte.  A golem at
+ * rest costs a byte per number, and the spirit in full flight no more than two.
+ *
+ * A track also keeps the amount of time of its steps, since the physics rate may
+ * differ from run to run.  Its duration, not its number of steps, is what counts.
+ *
+ * A Reader plays a track back a step at a time, without allocating.
+ */
+public class GhostTrack {
+
+    /** The number of grid points per world unit that positions are rounded to */
+    public static final float RESOLUTION = 64f;
+
+    /** The bytes a new track starts with room for */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** The encoded steps */
+    private byte[] data = new byte[INITIAL_CAPACITY];
+    /** The number of bytes used */
+    private int length;
+    /** The number of steps */
+    private int steps;
+    /** The amount of time of each step, in seconds */
+    private float stepSize = WorldController.WORLD_STEP;
+
+    /** The last spirit x-coordinate added, on the grid */
+    private int lastSpiritX;
+    /** The last spirit y-coordinate added, on the grid */
+    private int lastSpiritY;
+    /** The last golem x-coordinate added, on the grid */
+    private int lastGolemX;
+    /** The last golem y-coordinate added, on the grid */
+    private int lastGolemY;
+
+    /**
+     * Returns a coordinate rounded to the grid
+     *
+     * @param value A coordinate in world units
+     */
+    public static int toGrid(float value) {
+        return MathUtils.round(value * RESOLUTION);
+    }
+
+    /**
+     * Empties the track, to record a new run
+     *
+     * @param stepSize The amount of time of each step of the run, in seconds
+     */
+    public void clear(float stepSize) {
+        this.stepSize = stepSize;
+        length = 0;
+        steps = 0;
+        lastSpiritX = 0;
+        lastSpiritY = 0;
+        lastGolemX = 0;
+        lastGolemY = 0;
+    }
+
+    /**
+     * Adds the next step of the run
+     *
+     * @param spiritX The x-coordinate of the spirit
+     * @param spiritY The y-coordinate of the spirit
+     * @param golemX The x-coordinate of the possessed golem
+     * @param golemY The y-coordinate of the possessed golem
+     */
+    public void add(float spiritX, float spiritY, float golemX, float golemY) {
+        int sx = toGrid(spiritX);
+        int sy = toGrid(spiritY);
+        int gx = toGrid(golemX);
+        int gy = toGrid(golemY);
+        writeDelta(sx - lastSpiritX);
+        writeDelta(sy - lastSpiritY);
+        writeDelta(gx - lastGolemX);
+        writeDelta(gy - lastGolemY);
+        lastSpiritX = sx;
+        lastSpiritY = sy;
+        lastGolemX = gx;
+        lastGolemY = gy;
+        steps++;
+    }
+
+    /**
+     * Appends a change in position, zigzag encoded seven bits to a byte
+     */
+    private void writeDelta(int delta) {
+        if (length + 5 > data.length) {
+            byte[] grown = new byte[data.length * 2];
+            System.arraycopy(data, 0, grown, 0, length);
+            data = grown;
+        }
+        int value = (delta << 1) ^ (delta >> 31);
+        while ((value & ~0x7f) != 0) {
+            data[length++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+
+    /**
+     * Returns a copy of this track, trimmed to its length
+     *
+     * @return a copy of this track
+     */
+    public GhostTrack copy() {
+        GhostTrack track = new GhostTrack();
+        track.data = new byte[Math.max(length, 1)];
+        System.arraycopy(data, 0, track.data, 0, length);
+        track.length = length;
+        track.steps = steps;
+        track.stepSize = stepSize;
+        return track;
+    }
+
+    /**
+     * Returns the number of steps in the run
+     *
+     * @return the number of steps in the run
+     */
+    public int getSteps() {
+        return steps;
+    }
+
+    /**
+     * Returns the amount of time of each step, in seconds
+     *
+     * @return the amount of time of each step
+     */
+    public float getStepSize() {
+        return stepSize;
+    }
+
+    /**
+     * Returns how long the run took, in seconds
+     *
+     * @return how long the run took
+     */
+    public double getDuration() {
+        return steps * (double) stepSize;
+    }
+
+    /**
+     * Returns the number of bytes the run is stored in
+     *
+     * @return the number of bytes the run is stored in
+     */
+    public int getByteLength() {
+        return length;
+    }
+
+    /**
+     * Writes the track to a stream
+     *
+     * @param out The stream to write to
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeFloat(stepSize);
+        out.writeInt(steps);
+        out.writeInt(length);
+        out.write(data, 0, length);
+    }
+
+    /**
+     * Reads a track written by write()
+     *
+     * @param in The stream to read from
+     *
+     * @return the track
+     */
+    public static GhostTrack read(DataInputStream in) throws IOException {
+        float stepSize = in.readFloat();
+        if (!(stepSize > 0)) {
+            throw new IOException("Bad ghost step size: " + stepSize);
+        }
+        return read(in, stepSize);
+    }
+
+    /**
+     * Reads a track written without its step size, as in the first ghost files
+     *
+     * @param in The stream to read from
+     * @param stepSize The amount of time of each step, in seconds
+     *
+     * @return the track
+     */
+    public static GhostTrack read(DataInputStream in, float stepSize) throws IOException {
+        GhostTrack track = new GhostTrack();
+        track.stepSize = stepSize;
+        track.steps = in.readInt();
+        track.length = in.readInt();
+        track.data = new byte[Math.max(track.length, 1)];
+        in.readFully(track.data, 0, track.length);
+        return track;
+    }
+
+    /**
+     * Plays back a track one step at a time.
+     *
+     * A reader is made once and pointed at a track, and decodes each step into its
+     * own fields, so playing back does not allocate.  Past the last step it holds
+     * the last positions.
+     */
+    public static class Reader {
+        /** The track played back */
+        private GhostTrack track;
+        /** The position of the next step in the data */
+        private int position;
+        /** The number of steps read */
+        private int step;
+
+        /** The spirit x-coordinate, on the grid */
+        private int spiritX;
+        /** The spirit y-coordinate, on the grid */
+        private int spiritY;
+        /** The golem x-coordinate, on the grid */
+        private int golemX;
+        /** The golem y-coordinate, on the grid */
+        private int golemY;
+        /** The spirit x-coordinate of the step before, on the grid */
+        private int lastSpiritX;
+        /** The spirit y-coordinate of the step before, on the grid */
+        private int lastSpiritY;
+
+        /**
+         * Points the reader at the start of a track
+         *
+         * @param track The track to play back, or null for none
+         */
+        public void setTrack(GhostTrack track) {
+            this.track = track;
+            rewind();
+        }
+
+        /**
+         * Returns the track played back, or null for none
+         *
+         * @return the track played back
+         */
+        public GhostTrack getTrack() {
+            return track;
+        }
+
+        /**
+         * Goes back to before the first step
+         */
+        public void rewind() {
+            position = 0;
+            step = 0;
+            spiritX = spiritY = golemX = golemY = 0;
+            lastSpiritX = lastSpiritY = 0;
+        }
+
+        /**
+         * Reads the next step
+         *
+         * @return false if the track has no more steps
+         */
+        public boolean next() {
+            if (track == null || step >= track.steps) {
+                return false;
+            }
+            lastSpiritX = spiritX;
+            lastSpiritY = spiritY;
+            spiritX += readDelta();
+            spiritY += readDelta();
+            golemX += readDelta();
+            golemY += readDelta();
+            step++;
+            return true;
+        }
+
+        /**
+         * Reads every step that ends by a time in the run
+         *
+         * A track recorded at another physics rate moves on by more or fewer steps
+         * than the run raced against it, so it keeps pace in time.
+         *
+         * @param time The time since the start of the run, in seconds
+         */
+        public void advanceTo(double time) {
+            if (track == null) {
+                return;
+            }
+            // Allow for rounding, so a track at the same rate reads one step per step
+            int target = (int) Math.floor(time / track.stepSize + 1e-4);
+            while (step < target) {
+                if (!next()) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Reads a change in position written by writeDelta
+         */
+        private int readDelta() {
+            byte[] data = track.data;
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = data[position++];
+                value |= (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+            }
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        /**
+         * Returns true if a step has been read
+         *
+         * @return true if a step has been read
+         */
+        public boolean hasStarted() {
+            return step > 0;
+        }
+
+        /**
+         * Returns true if every step has been read
+         *
+         * @return true if every step has been read
+         */
+        public boolean isFinished() {
+            return track != null && step >= track.steps;
+        }
+
+        /**
+         * Returns true if the spirit is apart from the golem, as when it flies
+         *
+         * @return true if the spirit is apart from the golem
+         */
+        public boolean isSpiritApart() {
+            return spiritX != golemX || spiritY != golemY;
+        }
+
+        /**
+         * Returns true if the golem is at a point, such as the pedestal
+         *
+         * @param x The x-coordinate of the point, on the grid
+         * @param y The y-coordinate of the point, on the grid
+         */
+        public boolean isGolemAt(int x, int y) {
+            return golemX == x && golemY == y;
+        }
+
+        /** Returns the spirit x-coordinate in world units */
+        public float getSpiritX() { return spiritX / RESOLUTION; }
+
+        /** Returns the spirit y-coordinate in world units */
+        public float getSpiritY() { return spiritY / RESOLUTION; }
+
+        /** Returns the golem x-coordinate in world units */
+        public float getGolemX() { return golemX / RESOLUTION; }
+
+        /** Returns the golem y-coordinate in world units */
+        public float getGolemY() { return golemY / RESOLUTION; }
+
+        /**
+         * Returns the angle the spirit moved in over the last step, in radians
+         *
+         * @return the angle the spirit moved in over the last step
+         */
+        public float getSpiritAngle() {
+            return MathUtils.atan2(spiritY - lastSpiritY, spiritX - lastSpiritX);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * GroundCache.java
+ *
+ * The ground of a level, drawn once into an off-screen buffer.  The background,
+ * the floor tiles, the roots and the tops of the border never change in play, yet
+ * they are most of the sprites of a large level.  Drawn as one image, they cost a
+ * single sprite per frame.
+ */
+package edu.cornell.gdiac.physics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.BufferUtils;
+
+import java.nio.IntBuffer;
+
+/**
+ * An image of the ground, and the board it was drawn for.
+ *
+ * The buffer is cleared to the color of the screen and drawn over the ground
+ * without blending, so it looks just as the ground drawn sprite by sprite.  It is
+ * drawn for one board, level and time of day; isCurrent() tells when it must be
+ * drawn again.  A board too large for a texture is not cached, and the ground
+ * must then be drawn every frame.
+ */
+public class GroundCache {
+
+    /** The buffer holding the image, or null if there is none */
+    private FrameBuffer buffer;
+    /** The image in the buffer, flipped the right way up */
+    private TextureRegion region;
+    /** The area of the world the image covers, in pixels */
+    private Rectangle area = new Rectangle();
+
+    /** The board the image was drawn for, in pixels */
+    private Rectangle board = new Rectangle();
+    /** The level the image was drawn for */
+    private int level = -1;
+    /** Whether the image was drawn at night */
+    private boolean night;
+    /** Whether the image is drawn and up to date */
+    private boolean ready;
+    /** Whether the cache was set for a board at all */
+    private boolean current;
+
+    /** The largest texture the graphics card allows, or 0 if not asked yet */
+    private int maxSize;
+
+    /**
+     * Returns true if the cache was set for this board, level and time of day
+     *
+     * The cache is still current if the board was too large to draw it, so that
+     * it is not tried again every frame.
+     *
+     * @param board The board, in pixels
+     * @param level The level
+     * @param night Whether the level is drawn at night
+     *
+     * @return true if the cache was set for this board, level and time of day
+     */
+    public boolean isCurrent(Rectangle board, int level, boolean night) {
+        return current && this.board.equals(board) && this.level == level && this.night == night;
+    }
+
+    /**
+     * Returns true if the cache holds an up to date image to draw
+     *
+     * @return true if the cache holds an image
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Marks the image out of date, so it is drawn again before it is next used
+     */
+    public void invalidate() {
+        current = false;
+        ready = false;
+    }
+
+    /**
+     * Starts drawing the image for a board.
+     *
+     * If this returns true, the ground must be drawn to the canvas and end() be
+     * called.  If it returns false, the area is too large for a texture, and the
+     * ground must be drawn every frame instead.
+     *
+     * @param canvas Drawing context
+     * @param area The area of the world to draw, in pixels, which holds the board
+     * @param board The board, in pixels
+     * @param level The level, for the color of the screen
+     * @param night Whether the level is drawn at night
+     *
+     * @return true if the image can be drawn
+     */
+    public boolean begin(GameCanvas canvas, Rectangle area, Rectangle board, int level, boolean night) {
+        this.board.set(board);
+        this.level = level;
+        this.night = night;
+        current = true;
+        ready = false;
+
+        int x = MathUtils.floor(area.x);
+        int y = MathUtils.floor(area.y);
+        int width = MathUtils.ceil(area.x + area.width) - x;
+        int height = MathUtils.ceil(area.y + area.height) - y;
+        if (width <= 0 || height <= 0 || width > getMaxSize() || height > getMaxSize()) {
+            return false;
+        }
+        this.area.set(x, y, width, height);
+
+        if (buffer == null || buffer.getWidth() != width || buffer.getHeight() != height) {
+            dispose();
+            buffer = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, false);
+            Texture texture = buffer.getColorBufferTexture();
+            texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+            region = new TextureRegion(texture);
+            region.flip(false, true);
+        }
+
+        buffer.begin();
+        canvas.clear(level, night);
+        canvas.begin(x, y, width, height);
+        return true;
+    }
+
+    /**
+     * Finishes drawing the image
+     *
+     * @param canvas Drawing context
+     */
+    public void end(GameCanvas canvas) {
+        canvas.end();
+        buffer.end();
+        ready = true;
+    }
+
+    /**
+     * Draws the image in place of the ground.
+     *
+     * This must be called between begin() and end() of the canvas.
+     *
+     * @param canvas Drawing context
+     */
+    public void draw(GameCanvas canvas) {
+        GameCanvas.BlendState blend = canvas.getBlendState();
+        canvas.setBlendState(GameCanvas.BlendState.OPAQUE);
+        canvas.draw(region, Color.WHITE, area.x, area.y, area.width, area.height);
+        canvas.setBlendState(blend);
+    }
+
+    /**
+     * Returns the largest texture the graphics card allows
+     */
+    private int getMaxSize() {
+        if (maxSize == 0) {
+            IntBuffer size = BufferUtils.newIntBuffer(16);
+            Gdx.gl.glGetIntegerv(GL20.GL_MAX_TEXTURE_SIZE, size);
+            maxSize = size.get(0);
+        }
+        return maxSize;
+    }
+
+    /**
+     * Frees the buffer
+     */
+    public void dispose() {
+        if (buffer != null) {
+            buffer.dispose();
+            buffer = null;
+            region = null;
+        }
+        ready = false;
+    }
+}
@@ -94,8 +94,15 @@ public class InputController {
 	/** If the instruction button was pressed */
 	private boolean instructionPressed;
 	private boolean instructionPrevious;
+	/** If the trajectory preview toggle was pressed */
+	private boolean trajectoryPressed;
+	private boolean trajectoryPrevious;
 	/** If left mouse was just clicked */
 	private boolean leftJustClicked;
+	/** Whether the mouse was clicked since the last physics step read the input */
+	private boolean stepClicked;
+	/** Whether the mouse was released since the last physics step read the input */
+	private boolean stepReleased;
 
 	/** If left mouse is pressed or held clicked */
 	private boolean mousePressed;
@@ -211,6 +218,13 @@ public class InputController {
 	 */
 	public boolean didDebug() { return debugPressed && !debugPrevious; }
 
+	/**
+	 * Returns true if the player wants to toggle the preview of the shot path.
+	 *
+	 * @return true if the player wants to toggle the preview of the shot path.
+	 */
+	public boolean didTrajectory() { return trajectoryPressed && !trajectoryPrevious; }
+
 	/**
 	 * Returns true if the exit button was pressed.
 	 *
@@ -384,6 +398,74 @@ public class InputController {
 
 	}
 
+	/**
+	 * Feeds one frame of synthetic input, in place of reading the devices.
+	 *
+	 * This is used by headless simulations, which have no window to poll.  The
+	 * click and release edges are derived from frame to frame exactly as
+	 * readInput() derives them.
+	 *
+	 * @param horizontal The sideways movement (-1 = left, 1 = right)
+	 * @param vertical   The vertical movement (-1 = down, 1 = up)
+	 * @param mouseX     The mouse x-coordinate in screen space
+	 * @param mouseY     The mouse y-coordinate in screen space (y-up)
+	 * @param pressed    Whether the left mouse button is held
+	 */
+	public void setInput(float horizontal, float vertical, float mouseX, float mouseY, boolean pressed) {
+		updateInput();
+
+		this.horizontal = horizontal;
+		this.vertical = vertical;
+
+		tertiaryPressed = pressed;
+		leftJustClicked = pressed && !mousePressedPrevious;
+		mousePressed = pressed;
+		mousePosition.set(mouseX, mouseY);
+	}
+
+	/**
+	 * Feeds one frame of recorded input, in place of reading the devices.
+	 *
+	 * Unlike the other setInput, the click edge is given rather than derived, so
+	 * a recording plays back exactly as the devices were read.
+	 *
+	 * @param horizontal The sideways movement (-1 = left, 1 = right)
+	 * @param vertical   The vertical movement (-1 = down, 1 = up)
+	 * @param mouseX     The mouse x-coordinate in screen space
+	 * @param mouseY     The mouse y-coordinate in screen space (y-up)
+	 * @param pressed    Whether the left mouse button is held
+	 * @param clicked    Whether the left mouse button was pressed this frame
+	 */
+	public void setInput(float horizontal, float vertical, float mouseX, float mouseY, boolean pressed, boolean clicked) {
+		setInput(horizontal, vertical, mouseX, mouseY, pressed);
+		leftJustClicked = clicked;
+	}
+
+	/**
+	 * Sets the click and release edges for the next physics step.
+	 *
+	 * Frames and physics steps do not line up: a frame may take no step or several.
+	 * A click or release is kept from the frame it happened in until the next step,
+	 * and only that step sees it.
+	 */
+	public void beginStep() {
+		leftJustClicked = stepClicked;
+		mousePressedPrevious = stepReleased || mousePressed;
+		stepClicked = false;
+		stepReleased = false;
+	}
+
+	/**
+	 * Forgets any click or release not yet seen by a physics step.
+	 *
+	 * This is called when a level starts, so a click in a menu is not taken as
+	 * the first click of the level.
+	 */
+	public void clearStepInput() {
+		stepClicked = false;
+		stepReleased = false;
+	}
+
 	/**
 	 * Updates for converting input into game logic
 	 */
@@ -411,6 +493,7 @@ public class InputController {
 		savePrevious = savePressed;
 		menuPrevious = menuPressed;
 		instructionPrevious = instructionPressed;
+		trajectoryPrevious = trajectoryPressed;
 		mousePressedPrevious = mousePressed;
 	}
 
@@ -443,6 +526,7 @@ public class InputController {
 		savePressed = (secondary && savePressed)  || (Gdx.input.isKeyPressed(Input.Keys.ENTER));
 		menuPressed = (secondary && menuPressed) || (Gdx.input.isKeyPressed(Input.Keys.M));
 		instructionPressed = (secondary && instructionPressed) || (Gdx.input.isKeyPressed(Input.Keys.I));
+		trajectoryPressed = (secondary && trajectoryPressed) || (Gdx.input.isKeyPressed(Input.Keys.T));
 //		instructionPressed = Gdx.input.isKeyJustPressed(Input.Keys.I);
 
 
@@ -476,6 +560,8 @@ public class InputController {
 		else { mousePressed = false; }
 
 		leftJustClicked = Gdx.input.isButtonJustPressed(Input.Buttons.LEFT);
+		stepClicked |= leftJustClicked;
+		stepReleased |= mousePressedPrevious && !mousePressed;
 
 		mousePosition.set(Gdx.input.getX(), height - Gdx.input.getY());
 	}
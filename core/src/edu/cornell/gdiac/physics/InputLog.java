@@ -0,0 +1,371 @@
+/*
+ * InputLog.java
+ *
+ * Records the input of one attempt at a level, so the attempt can be played back
+ * without a window.  Only the input the gameplay rules read is kept: movement, the
+ * mouse, its button, and whether the game was just unpaused.  Played back through
+ * a headless Simulation, the same steps give the same attempt, which makes bug
+ * reports, regression checks and speedrun times repeatable.
+ */
+package edu.cornell.gdiac.physics;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.ByteArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ShortArray;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The input of every fixed step of one attempt at a level.
+ *
+ * A step is kept only when its input differs from the step before, so holding
+ * still costs nothing.  The file is a header (the level, the step size, the
+ * number of steps and the outcome) followed by one record per change: the steps
+ * since the last change, the button flags, the movement axes and the mouse
+ * position in pixels.
+ *
+ * To record, call record() once per step, before the step is simulated.  To play
+ * back, call playStep() once per step to set the input of that step, and step the
+ * simulation by getStepSize().
+ */
+public class InputLog {
+
+    /** The outcome of an attempt that was neither won nor lost */
+    public static final int OUTCOME_NONE = 0;
+    /** The outcome of an attempt where every host was possessed */
+    public static final int OUTCOME_WON = 1;
+    /** The outcome of an attempt where the possessed host blew up */
+    public static final int OUTCOME_LOST = 2;
+
+    /** The first bytes of every log */
+    private static final int MAGIC = 0x4d444952;
+    /** The version of the file format */
+    private static final int VERSION = 2;
+    /** The version of the file format before the step size was kept */
+    private static final int VERSION_FIXED_STEP = 1;
+
+    /** The flag for a held mouse button */
+    private static final int FLAG_PRESSED = 1;
+    /** The flag for a mouse button pressed this step */
+    private static final int FLAG_CLICKED = 2;
+    /** The flag for the first step after the game was unpaused */
+    private static final int FLAG_UNPAUSED = 4;
+
+    /** The path of the level file */
+    private String levelPath;
+    /** The index of the level, as for Loader.loadLevel */
+    private int levelIndex;
+    /** The amount of time of each step, in seconds */
+    private float stepSize;
+    /** The number of steps recorded */
+    private int steps;
+    /** How the attempt ended */
+    private int outcome = OUTCOME_NONE;
+    /** The step in which the attempt was won or lost */
+    private int outcomeStep = -1;
+
+    /** The step at which each change took effect */
+    private IntArray changeSteps = new IntArray();
+    /** The button flags of each change */
+    private ByteArray flags = new ByteArray();
+    /** The horizontal movement of each change */
+    private ByteArray horizontal = new ByteArray();
+    /** The vertical movement of each change */
+    private ByteArray vertical = new ByteArray();
+    /** The mouse x-coordinate of each change */
+    private ShortArray mouseX = new ShortArray();
+    /** The mouse y-coordinate of each change */
+    private ShortArray mouseY = new ShortArray();
+
+    /** The next step to play back */
+    private int playStep;
+    /** The change that holds at the next step to play back */
+    private int playChange;
+
+    /**
+     * Creates an empty log for an attempt at a level, stepped at WORLD_STEP
+     *
+     * @param levelPath The path of the level file, relative to the assets directory
+     * @param levelIndex The index of the level, as for Loader.loadLevel
+     */
+    public InputLog(String levelPath, int levelIndex) {
+        this(levelPath, levelIndex, WorldController.WORLD_STEP);
+    }
+
+    /**
+     * Creates an empty log for an attempt at a level
+     *
+     * @param levelPath The path of the level file, relative to the assets directory
+     * @param levelIndex The index of the level, as for Loader.loadLevel
+     * @param stepSize The amount of time of each step, in seconds
+     */
+    public InputLog(String levelPath, int levelIndex, float stepSize) {
+        this.levelPath = levelPath;
+        this.levelIndex = levelIndex;
+        this.stepSize = stepSize;
+    }
+
+    /**
+     * Empties the log for a new attempt, keeping its storage and step size
+     *
+     * @param levelPath The path of the level file, relative to the assets directory
+     * @param levelIndex The index of the level, as for Loader.loadLevel
+     */
+    public void clear(String levelPath, int levelIndex) {
+        this.levelPath = levelPath;
+        this.levelIndex = levelIndex;
+        steps = 0;
+        outcome = OUTCOME_NONE;
+        outcomeStep = -1;
+        changeSteps.clear();
+        flags.clear();
+        horizontal.clear();
+        vertical.clear();
+        mouseX.clear();
+        mouseY.clear();
+        rewind();
+    }
+
+    /**
+     * Records the input of the next step
+     *
+     * @param input The input the step will read
+     * @param wasPaused Whether the game was just unpaused
+     */
+    public void record(InputController input, boolean wasPaused) {
+        int flag = (input.didIsPressed() ? FLAG_PRESSED : 0) | (input.didLeftClick() ? FLAG_CLICKED : 0)
+                | (wasPaused ? FLAG_UNPAUSED : 0);
+        byte h = (byte) Math.signum(input.getHorizontal());
+        byte v = (byte) Math.signum(input.getVertical());
+        short x = toShort(input.getMousePosition().x);
+        short y = toShort(input.getMousePosition().y);
+
+        int last = changeSteps.size - 1;
+        if (last < 0 || flags.get(last) != flag || horizontal.get(last) != h || vertical.get(last) != v
+                || mouseX.get(last) != x || mouseY.get(last) != y) {
+            changeSteps.add(steps);
+            flags.add((byte) flag);
+            horizontal.add(h);
+            vertical.add(v);
+            mouseX.add(x);
+            mouseY.add(y);
+        }
+        steps++;
+    }
+
+    /**
+     * Returns a mouse coordinate rounded to a whole pixel that fits in a short
+     */
+    private static short toShort(float value) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(value)));
+    }
+
+    /**
+     * Records how the attempt ended, if it has not ended already
+     *
+     * @param value OUTCOME_WON or OUTCOME_LOST
+     */
+    public void setOutcome(int value) {
+        if (outcome == OUTCOME_NONE) {
+            outcome = value;
+            outcomeStep = steps - 1;
+        }
+    }
+
+    /**
+     * Sets the input of the next step to play back
+     *
+     * Steps past the end of the log repeat its last input.
+     *
+     * @param input The input to set
+     *
+     * @return whether the game was just unpaused in this step
+     */
+    public boolean playStep(InputController input) {
+        while (playChange + 1 < changeSteps.size && changeSteps.get(playChange + 1) <= playStep) {
+            playChange++;
+        }
+        playStep++;
+        if (changeSteps.size == 0) {
+            input.setInput(0, 0, 0, 0, false, false);
+            return false;
+        }
+        int flag = flags.get(playChange);
+        input.setInput(horizontal.get(playChange), vertical.get(playChange), mouseX.get(playChange), mouseY.get(playChange),
+                (flag & FLAG_PRESSED) != 0, (flag & FLAG_CLICKED) != 0);
+        return (flag & FLAG_UNPAUSED) != 0;
+    }
+
+    /**
+     * Starts playback over from the first step
+     */
+    public void rewind() {
+        playStep = 0;
+        playChange = 0;
+    }
+
+    /**
+     * Writes the log to a file
+     *
+     * @param file The file to write
+     */
+    public void write(FileHandle file) {
+        DataOutputStream out = new DataOutputStream(file.write(false, 4096));
+        try {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(levelPath);
+            out.writeInt(levelIndex);
+            out.writeFloat(stepSize);
+            out.writeInt(steps);
+            out.writeByte(outcome);
+            out.writeInt(outcomeStep);
+            out.writeInt(changeSteps.size);
+            int last = 0;
+            for (int i = 0; i < changeSteps.size; i++) {
+                writeVarInt(out, changeSteps.get(i) - last);
+                last = changeSteps.get(i);
+                out.writeByte(flags.get(i));
+                out.writeByte(horizontal.get(i));
+                out.writeByte(vertical.get(i));
+                out.writeShort(mouseX.get(i));
+                out.writeShort(mouseY.get(i));
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not write input log: " + file.path(), e);
+        } finally {
+            StreamUtils.closeQuietly(out);
+        }
+    }
+
+    /**
+     * Reads a log written by write()
+     *
+     * Logs written before the step size was kept were all stepped at WORLD_STEP.
+     *
+     * @param file The file to read
+     *
+     * @return the log, ready to play back from the first step
+     */
+    public static InputLog read(FileHandle file) {
+        DataInputStream in = new DataInputStream(file.read(4096));
+        try {
+            int version = in.readInt() == MAGIC ? in.readByte() : -1;
+            if (version != VERSION && version != VERSION_FIXED_STEP) {
+                throw new GdxRuntimeException("Not an input log: " + file.path());
+            }
+            InputLog log = new InputLog(in.readUTF(), in.readInt());
+            if (version != VERSION_FIXED_STEP) {
+                log.stepSize = in.readFloat();
+                if (!(log.stepSize > 0)) {
+                    throw new GdxRuntimeException("Bad step size in input log: " + file.path());
+                }
+            }
+            log.steps = in.readInt();
+            log.outcome = in.readByte();
+            log.outcomeStep = in.readInt();
+            int changes = in.readInt();
+            int last = 0;
+            for (int i = 0; i < changes; i++) {
+                last += readVarInt(in);
+                log.changeSteps.add(last);
+                log.flags.add(in.readByte());
+                log.horizontal.add(in.readByte());
+                log.vertical.add(in.readByte());
+                log.mouseX.add(in.readShort());
+                log.mouseY.add(in.readShort());
+            }
+            return log;
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not read input log: " + file.path(), e);
+        } finally {
+            StreamUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * Writes a non-negative int in as few bytes as it needs, seven bits at a time
+     */
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads an int written by writeVarInt
+     */
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Returns the path of the level file, relative to the assets directory
+     *
+     * @return the path of the level file
+     */
+    public String getLevelPath() {
+        return levelPath;
+    }
+
+    /**
+     * Returns the index of the level, as for Loader.loadLevel
+     *
+     * @return the index of the level
+     */
+    public int getLevelIndex() {
+        return levelIndex;
+    }
+
+    /**
+     * Returns the amount of time of each step, in seconds
+     *
+     * Playback must step the simulation by this amount to repeat the attempt.
+     *
+     * @return the amount of time of each step
+     */
+    public float getStepSize() {
+        return stepSize;
+    }
+
+    /**
+     * Returns the number of steps recorded
+     *
+     * @return the number of steps recorded
+     */
+    public int getStepCount() {
+        return steps;
+    }
+
+    /**
+     * Returns how the attempt ended
+     *
+     * @return OUTCOME_NONE, OUTCOME_WON or OUTCOME_LOST
+     */
+    public int getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Returns the step in which the attempt was won or lost, or -1 if neither
+     *
+     * @return the step in which the attempt was won or lost
+     */
+    public int getOutcomeStep() {
+        return outcomeStep;
+    }
+}
@@ -10,6 +10,8 @@
  */
 package edu.cornell.gdiac.physics;
 
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.files.FileHandle;
@@ -18,6 +20,7 @@ import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.World;
+import edu.cornell.gdiac.physics.entity.ObstacleEntities;
 import edu.cornell.gdiac.physics.host.FootPrintModel;
 import edu.cornell.gdiac.physics.host.HostModel;
 import edu.cornell.gdiac.physics.obstacle.*;
@@ -431,19 +434,28 @@ public class LevelDesignerMode extends WorldController {
 	 */
 	private void refreshFootprints() {
 		footprints.clear();
-		for (Obstacle ob : objects) {
-			if (ob instanceof HostModel) {
-				Vector2[] list = ((HostModel)ob).getInstructionList();
-				if (list != null) {
-					for (Vector2 instr : list) {
-						FootPrintModel ft = new FootPrintModel(footprintTexture, new Vector2(instr.x * scale.x, instr.y * scale.y));
-						footprints.add(ft);
-					}
+		ImmutableArray<Entity> hosts = engine.getEntitiesFor(ObstacleEntities.HOSTS);
+		for (int i = 0; i < hosts.size(); i++) {
+			Vector2[] list = ObstacleEntities.HOST.get(hosts.get(i)).host.getInstructionList();
+			if (list != null) {
+				for (Vector2 instr : list) {
+					FootPrintModel ft = new FootPrintModel(footprintTexture, new Vector2(instr.x * scale.x, instr.y * scale.y));
+					footprints.add(ft);
 				}
 			}
 		}
 	}
 
+	/**
+	 * Returns false, as the designer drags and resizes the tiles of the board
+	 *
+	 * @return false
+	 */
+	@Override
+	protected boolean areTilesFixed() {
+		return false;
+	}
+
 	/**
 	 * Resets the status of the game so that we can play again.
 	 *
@@ -479,7 +491,7 @@ public class LevelDesignerMode extends WorldController {
 		for(Obstacle obj : objects) {
 			obj.deactivatePhysics(world);
 		}
-		objects.clear();
+		clearObjects();
 		addQueue.clear();
 		world.dispose();
 
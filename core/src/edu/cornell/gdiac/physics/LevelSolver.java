@@ -0,0 +1,572 @@
+/*
+ * LevelSolver.java
+ */
+package edu.cornell.gdiac.physics;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import edu.cornell.gdiac.physics.host.HostController;
+import edu.cornell.gdiac.physics.host.HostModel;
+import edu.cornell.gdiac.physics.spirit.SpiritModel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Proves that a level can be completed by searching over launch vectors.
+ *
+ * The search is breadth first over the number of shots.  A node is the sequence of
+ * shots that led to it; every candidate shot from a node is simulated in its own
+ * headless Simulation (and so its own Box2D world) on a ForkJoinPool, by replaying
+ * the shots of the node and then firing the candidate.  Worlds cannot be copied,
+ * but each replay is deterministic, so the candidate sees exactly the state the
+ * node was found in.
+ *
+ * A candidate is kept only if the spirit possesses a different host.  States are
+ * memoized on the set of possessed hosts, the host holding the spirit and the
+ * bucket its position falls into, and each depth is trimmed to the most promising
+ * states.  Results are merged in candidate order, so the report does not depend
+ * on thread scheduling.
+ *
+ * Before each shot the player either waits or walks the possessed host in one of
+ * eight directions for a moment, so the search covers timing and repositioning but
+ * not long walks; a level that needs one may be reported as unsolved.
+ *
+ * The search is a heuristic.  It samples directions, speeds and delays, and drops
+ * all but the beam width best states at each depth.  A solution found is an upper
+ * bound on the fewest shots needed, and a host no state reached is not proof that
+ * it cannot be reached.  A beam width of 0 keeps every state, which only leaves
+ * the sampling between the result and a proof.
+ */
+public class LevelSolver {
+
+    /** Default number of launch directions tried from each state */
+    public static final int DEFAULT_ANGLES = 24;
+    /** Default number of states kept at each depth of the search, or 0 for all */
+    public static final int DEFAULT_BEAM_WIDTH = 12;
+    /** Default number of shots to try before giving up, beyond one per host */
+    public static final int DEFAULT_EXTRA_SHOTS = 2;
+
+    /** Launch speeds tried in each direction, between the minimum and maximum shot speed */
+    private static final float[] SPEEDS = {
+            (HostController.MINIMUM_SHOT_SPEED + HostController.MAXIMUM_SHOT_SPEED) / 2,
+            HostController.MAXIMUM_SHOT_SPEED };
+    /** Frames to wait after the spirit settles before shooting, to time moving golems */
+    private static final int[] DELAYS = { 0, 45, 90 };
+    /** Directions the possessed host may walk before shooting, as input axes */
+    private static final int[][] WALKS = {
+            { 1, 0 }, { 1, 1 }, { 0, 1 }, { -1, 1 }, { -1, 0 }, { -1, -1 }, { 0, -1 }, { 1, -1 } };
+    /** Frames the possessed host walks for before shooting */
+    private static final int WALK_FRAMES = 60;
+
+    /** Size of the position buckets used to memoize states, in world units */
+    private static final float POSITION_BUCKET = 1f;
+    /** Frames allowed for the spirit to settle into a host before giving up */
+    private static final int SETTLE_LIMIT = 300;
+    /** Frames allowed for a shot to reach a host before giving up */
+    private static final int FLIGHT_LIMIT = 900;
+
+    /** The directory holding the game assets */
+    private final FileHandle assetDirectory;
+
+    /** The pool that simulates candidate shots */
+    private final ForkJoinPool pool;
+
+    /** Headless loaders, one per worker thread as loaders are not thread safe */
+    private final ThreadLocal<Loader> loaders;
+
+    /** Number of launch directions tried from each state */
+    private int angles = DEFAULT_ANGLES;
+
+    /** Number of states kept at each depth of the search, or 0 for all */
+    private int beamWidth = DEFAULT_BEAM_WIDTH;
+
+    /** Number of shots to try before giving up, beyond one per host */
+    private int extraShots = DEFAULT_EXTRA_SHOTS;
+
+    /**
+     * A single shot: how the player waits or walks once settled, and the launch velocity
+     *
+     * A shot either has a fixed direction or is aimed at the position a host has
+     * when it is fired, which finds narrow lines to golems that a grid of angles misses.
+     */
+    public static class Shot {
+        /** Frames waited or walked after the spirit settled */
+        public final int delay;
+        /** Horizontal input while walking, 0 when standing still */
+        public final int walkX;
+        /** Vertical input while walking, 0 when standing still */
+        public final int walkY;
+        /** Direction of the launch in degrees, if not aimed at a host */
+        public final float angle;
+        /** The host the shot is aimed at, or -1 for a fixed direction */
+        public final int target;
+        /** Speed of the launch */
+        public final float speed;
+
+        public Shot(int delay, int walkX, int walkY, float angle, int target, float speed) {
+            this.delay = delay;
+            this.walkX = walkX;
+            this.walkY = walkY;
+            this.angle = angle;
+            this.target = target;
+            this.speed = speed;
+        }
+
+        /**
+         * @return Whether the possessed host walks before this shot
+         */
+        public boolean isWalking() {
+            return walkX != 0 || walkY != 0;
+        }
+
+        @Override
+        public String toString() {
+            String approach = isWalking() ? String.format("walk (%d,%d) for %d", walkX, walkY, delay)
+                                          : String.format("wait %d", delay);
+            if (target >= 0) {
+                return String.format("%s, aim at host %d at %.1f", approach, target, speed);
+            }
+            return String.format("%s, %.1f deg at %.1f", approach, angle, speed);
+        }
+    }
+
+    /**
+     * What the search found out about one level
+     */
+    public static class Result {
+        /** The level file that was searched */
+        public FileHandle file;
+        /** The number of hosts in the level, not counting the pedestal */
+        public int hosts;
+        /** Whether some sequence of shots possesses every host */
+        public boolean solvable;
+        /** The shots of the shortest solution found, empty if unsolved */
+        public List<Shot> solution = new ArrayList<Shot>();
+        /** Whether the beam dropped any state, so a wider search might do better */
+        public boolean pruned;
+        /** Indices of the hosts no explored state possessed, empty if solved */
+        public List<Integer> unreachable = new ArrayList<Integer>();
+        /** Starting positions of the unreachable hosts */
+        public List<Vector2> unreachablePositions = new ArrayList<Vector2>();
+        /** The number of distinct states explored */
+        public int states;
+        /** The number of candidate shots tried */
+        public int simulations;
+        /** The wall clock time of the search in milliseconds */
+        public long millis;
+
+        /**
+         * @return The fewest shots found to complete the level, or -1 if unsolved.
+         * This is an upper bound: the level may be completed in fewer.
+         */
+        public int getFewestShotsFound() {
+            return solvable ? solution.size() : -1;
+        }
+    }
+
+    /**
+     * A state of the search, reached by a sequence of shots
+     */
+    private static class Node {
+        /** The node this was reached from, null for the start of the level */
+        final Node parent;
+        /** The shot taken from the parent */
+        final Shot shot;
+        /** The number of shots from the start of the level */
+        final int depth;
+        /** The hosts possessed so far, one bit per host */
+        final long possessedSet;
+        /** The host holding the spirit, -1 for the pedestal */
+        final int host;
+
+        Node(Node parent, Shot shot, long possessedSet, int host) {
+            this.parent = parent;
+            this.shot = shot;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+            this.possessedSet = possessedSet;
+            this.host = host;
+        }
+
+        /**
+         * @return The shots from the start of the level to this node
+         */
+        List<Shot> getShots() {
+            ArrayList<Shot> shots = new ArrayList<Shot>();
+            for (Node n = this; n.parent != null; n = n.parent) {
+                shots.add(n.shot);
+            }
+            Collections.reverse(shots);
+            return shots;
+        }
+    }
+
+    /**
+     * The memoization key of a state: possessed hosts, spirit host and its position bucket
+     */
+    private static class StateKey {
+        final long possessedSet;
+        final int host;
+        final int bucketX;
+        final int bucketY;
+
+        StateKey(long possessedSet, int host, Vector2 position) {
+            this.possessedSet = possessedSet;
+            this.host = host;
+            this.bucketX = MathUtils.floor(position.x / POSITION_BUCKET);
+            this.bucketY = MathUtils.floor(position.y / POSITION_BUCKET);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof StateKey)) { return false; }
+            StateKey k = (StateKey) o;
+            return possessedSet == k.possessedSet && host == k.host && bucketX == k.bucketX && bucketY == k.bucketY;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = (int) (possessedSet ^ (possessedSet >>> 32));
+            h = 31 * h + host;
+            h = 31 * h + bucketX;
+            return 31 * h + bucketY;
+        }
+    }
+
+    /**
+     * The result of simulating one candidate shot
+     */
+    private static class Outcome {
+        /** The state reached, null if the shot did not possess a different host */
+        Node node;
+        /** The memoization key of the state reached */
+        StateKey key;
+    }
+
+    /**
+     * Simulates a range of candidate shots, splitting the range across the pool
+     */
+    private class ExpandTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FileHandle file;
+        private final int hosts;
+        private final List<Node> nodes;
+        private final Outcome[] outcomes;
+        private final int lo;
+        private final int hi;
+
+        ExpandTask(FileHandle file, int hosts, List<Node> nodes, Outcome[] outcomes, int lo, int hi) {
+            this.file = file;
+            this.hosts = hosts;
+            this.nodes = nodes;
+            this.outcomes = outcomes;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                int perNode = getCandidateCount(hosts);
+                outcomes[lo] = simulate(file, nodes.get(lo / perNode), getCandidate(lo % perNode, hosts));
+            } else {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new ExpandTask(file, hosts, nodes, outcomes, lo, mid),
+                          new ExpandTask(file, hosts, nodes, outcomes, mid, hi));
+            }
+        }
+    }
+
+    /**
+     * Creates a solver that simulates on the given pool
+     *
+     * @param assetDirectory The directory holding the game assets
+     * @param pool The pool to simulate candidate shots on
+     */
+    public LevelSolver(final FileHandle assetDirectory, ForkJoinPool pool) {
+        this.assetDirectory = assetDirectory;
+        this.pool = pool;
+        loaders = new ThreadLocal<Loader>() {
+            @Override
+            protected Loader initialValue() {
+                return Simulation.createHeadlessLoader(assetDirectory);
+            }
+        };
+    }
+
+    /**
+     * Sets the number of launch directions tried from each state
+     *
+     * @param angles The number of directions, evenly spaced
+     */
+    public void setAngles(int angles) { this.angles = angles; }
+
+    /**
+     * Sets the number of states kept at each depth of the search
+     *
+     * @param beamWidth The number of states kept, or 0 to keep every state
+     */
+    public void setBeamWidth(int beamWidth) { this.beamWidth = beamWidth; }
+
+    /**
+     * Sets the number of shots to try before giving up, beyond one per host
+     *
+     * @param extraShots The number of extra shots allowed
+     */
+    public void setExtraShots(int extraShots) { this.extraShots = extraShots; }
+
+    /**
+     * Searches for a short sequence of shots that completes a level
+     *
+     * @param file The level file to search
+     *
+     * @return What the search found out about the level
+     */
+    public Result solve(FileHandle file) {
+        long start = System.currentTimeMillis();
+        Result result = new Result();
+        result.file = file;
+
+        Simulation initial = Simulation.load(loaders.get(), file, 0, new InputController());
+        ArrayList<HostModel> hosts = initial.getLevel().hosts;
+        result.hosts = hosts.size();
+        if (hosts.size() >= Long.SIZE) {
+            initial.dispose();
+            throw new GdxRuntimeException("Too many hosts to solve " + file.name() + ": " + hosts.size());
+        }
+        long allHosts = (1L << hosts.size()) - 1;
+        ArrayList<Vector2> hostStarts = new ArrayList<Vector2>();
+        for (HostModel h : hosts) {
+            hostStarts.add(new Vector2(h.getPosition()));
+        }
+
+        HashSet<StateKey> visited = new HashSet<StateKey>();
+        visited.add(new StateKey(0, -1, initial.getPedestal().getPosition()));
+        initial.dispose();
+
+        long reached = 0;
+        Node solution = hosts.isEmpty() ? new Node(null, null, 0, -1) : null;
+        List<Node> frontier = new ArrayList<Node>();
+        frontier.add(new Node(null, null, 0, -1));
+
+        int maxShots = hosts.size() + extraShots;
+        while (solution == null && !frontier.isEmpty() && frontier.get(0).depth < maxShots) {
+            int count = frontier.size() * getCandidateCount(hosts.size());
+            Outcome[] outcomes = new Outcome[count];
+            pool.invoke(new ExpandTask(file, hosts.size(), frontier, outcomes, 0, count));
+            result.simulations += count;
+
+            ArrayList<Node> next = new ArrayList<Node>();
+            for (Outcome outcome : outcomes) {
+                if (outcome.node == null || !visited.add(outcome.key)) {
+                    continue;
+                }
+                reached |= outcome.node.possessedSet;
+                if (outcome.node.possessedSet == allHosts) {
+                    solution = outcome.node;
+                    break;
+                }
+                next.add(outcome.node);
+            }
+
+            // Keep the states that have possessed the most hosts (stable, so ties keep candidate order)
+            Collections.sort(next, new Comparator<Node>() {
+                public int compare(Node a, Node b) {
+                    return Long.bitCount(b.possessedSet) - Long.bitCount(a.possessedSet);
+                }
+            });
+            if (beamWidth > 0 && next.size() > beamWidth) {
+                frontier = new ArrayList<Node>(next.subList(0, beamWidth));
+                result.pruned = true;
+            } else {
+                frontier = next;
+            }
+        }
+
+        result.states = visited.size();
+        if (solution != null) {
+            result.solvable = true;
+            result.solution = solution.getShots();
+        } else {
+            for (int i = 0; i < hosts.size(); i++) {
+                if ((reached & (1L << i)) == 0) {
+                    result.unreachable.add(i);
+                    result.unreachablePositions.add(hostStarts.get(i));
+                }
+            }
+        }
+        result.millis = System.currentTimeMillis() - start;
+        return result;
+    }
+
+    /**
+     * Returns the number of candidate shots tried from each state
+     *
+     * @param hosts The number of hosts in the level
+     */
+    private int getCandidateCount(int hosts) {
+        return (DELAYS.length + WALKS.length) * (angles + hosts) * SPEEDS.length;
+    }
+
+    /**
+     * Returns a candidate shot by index
+     *
+     * Candidates are grouped by approach, first waiting for each delay and then
+     * walking in each direction.  The first candidates of each approach are the
+     * fixed directions, and the rest are aimed at each host in turn.
+     *
+     * @param index The index of the candidate, less than getCandidateCount(hosts)
+     * @param hosts The number of hosts in the level
+     */
+    private Shot getCandidate(int index, int hosts) {
+        int speed = index % SPEEDS.length;
+        index /= SPEEDS.length;
+        int direction = index % (angles + hosts);
+        int approach = index / (angles + hosts);
+
+        int delay = WALK_FRAMES;
+        int walkX = 0;
+        int walkY = 0;
+        if (approach < DELAYS.length) {
+            delay = DELAYS[approach];
+        } else {
+            walkX = WALKS[approach - DELAYS.length][0];
+            walkY = WALKS[approach - DELAYS.length][1];
+        }
+        if (direction < angles) {
+            return new Shot(delay, walkX, walkY, 360f * direction / angles, -1, SPEEDS[speed]);
+        }
+        return new Shot(delay, walkX, walkY, 0, direction - angles, SPEEDS[speed]);
+    }
+
+    /**
+     * Replays the shots of a node and then simulates a candidate shot from it
+     *
+     * @param file The level file being searched
+     * @param node The state to shoot from
+     * @param candidate The shot to try
+     *
+     * @return The outcome of the shot
+     */
+    private Outcome simulate(FileHandle file, Node node, Shot candidate) {
+        Outcome outcome = new Outcome();
+
+        // The pedestal cannot walk, and a host cannot be shot at from inside
+        if ((candidate.isWalking() && node.host < 0) || (candidate.target >= 0 && candidate.target == node.host)) {
+            return outcome;
+        }
+
+        InputController input = new InputController();
+        Simulation simulation = Simulation.load(loaders.get(), file, 0, input);
+        try {
+            for (Shot shot : node.getShots()) {
+                if (!shoot(simulation, input, shot)) {
+                    return outcome;
+                }
+            }
+            if (!shoot(simulation, input, candidate)) {
+                return outcome;
+            }
+
+            ArrayList<HostModel> hosts = simulation.getLevel().hosts;
+            long possessedSet = 0;
+            for (int i = 0; i < hosts.size(); i++) {
+                if (hosts.get(i).beenPossessed()) {
+                    possessedSet |= 1L << i;
+                }
+            }
+            HostModel possessed = simulation.getPossessed();
+            int host = hosts.indexOf(possessed);
+            outcome.node = new Node(node, candidate, possessedSet, host);
+            outcome.key = new StateKey(possessedSet, host, possessed.getPosition());
+            return outcome;
+        } finally {
+            simulation.dispose();
+        }
+    }
+
+    /**
+     * Plays one shot: waits for the spirit to settle, aims, fires and follows the flight.
+     *
+     * The mouse is held for a single frame, at the position that gives the shot
+     * its launch velocity, and released on the next.
+     *
+     * @param simulation The simulation to play the shot in
+     * @param input The input driving the simulation
+     * @param shot The shot to play
+     *
+     * @return true if the spirit possessed a different host
+     */
+    private static boolean shoot(Simulation simulation, InputController input, Shot shot) {
+        float centerX = Simulation.SCREEN_WIDTH / 2;
+        float centerY = Simulation.SCREEN_HEIGHT / 2;
+        SpiritModel spirit = simulation.getSpirit();
+
+        int frames = 0;
+        while (!spirit.getIsPossessing() || spirit.getGoToCenter()) {
+            if (frames++ > SETTLE_LIMIT || !idle(simulation, input)) {
+                return false;
+            }
+        }
+        for (int i = 0; i < shot.delay; i++) {
+            input.setInput(shot.walkX, shot.walkY, centerX, centerY, false);
+            simulation.step();
+            if (simulation.isFailure()) {
+                return false;
+            }
+        }
+
+        float angle = shot.angle;
+        if (shot.target >= 0) {
+            HostModel target = simulation.getLevel().hosts.get(shot.target);
+            Vector2 toTarget = target.getPosition().sub(spirit.getPosition());
+            angle = toTarget.angle();
+        }
+
+        // The launch velocity is SHOOTING_MULTIPLIER times the mouse offset from the spirit, in world units
+        Vector2 scale = Simulation.getHeadlessScale();
+        float offset = shot.speed / HostController.SHOOTING_MULTIPLIER;
+        float mouseX = centerX - offset * MathUtils.cosDeg(angle) * scale.x;
+        float mouseY = centerY - offset * MathUtils.sinDeg(angle) * scale.y;
+        input.setInput(0, 0, mouseX, mouseY, true);
+        simulation.step();
+        input.setInput(0, 0, mouseX, mouseY, false);
+        simulation.step();
+        if (!spirit.hasLaunched || simulation.isFailure()) {
+            return false;
+        }
+
+        HostModel from = simulation.getPossessed();
+        for (frames = 0; frames < FLIGHT_LIMIT; frames++) {
+            if (!idle(simulation, input)) {
+                return false;
+            }
+            if (simulation.getPossessed() != from) {
+                return true;
+            }
+            if (spirit.getIsPossessing()) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Steps a simulation with no input
+     *
+     * @return false if the possessed host blew up
+     */
+    private static boolean idle(Simulation simulation, InputController input) {
+        input.setInput(0, 0, Simulation.SCREEN_WIDTH / 2, Simulation.SCREEN_HEIGHT / 2, false);
+        simulation.step();
+        return !simulation.isFailure();
+    }
+}
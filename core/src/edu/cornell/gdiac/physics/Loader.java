@@ -165,6 +165,22 @@ public class Loader {
         tutorials = json.fromJson(Tutorials.class, Gdx.files.internal(TUTORIAL_DATA_PATH));
     }
 
+    /**
+     * Initializes a loader for headless use, with no asset manager
+     *
+     * @param factory The factory used to build level objects
+     * @param tutorialFile The tutorial data to load, or null to skip tutorials
+     */
+    public Loader(Factory factory, FileHandle tutorialFile) {
+        this.factory = factory;
+
+        json = new Json();
+
+        if (tutorialFile != null) {
+            tutorials = json.fromJson(Tutorials.class, tutorialFile);
+        }
+    }
+
     /**
      * A function to save a level as a json file storing the data of the level
      *
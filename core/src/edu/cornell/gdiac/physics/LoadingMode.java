@@ -335,8 +335,6 @@ public class LoadingMode implements Screen {
 		isPressed = false;
 		isReady = false;
 		active = false;
-		updateFrameLoading = true;
-		updateFrameMenu = true;
 
 		buttonPressed = pressState.NONE;
 
@@ -546,19 +544,18 @@ public class LoadingMode implements Screen {
 
 	/** Which number of film strip are you on */
 	private int onFilmStrip = 0;
-	/** The number of frames that have elapsed since the last animation update */
+	/** The clock the menu and loading animations advance by */
+	private AnimationClock animationClock = new AnimationClock();
+
+	/** The number of clock ticks that have elapsed since the last animation update */
 	private int elapsedFramesMenu = 0;
-	/** The number of frames that should pass before the animation updates */
+	/** The number of clock ticks that should pass before the animation updates */
 	private int framesPerUpdateMenu = 2;
-	/** Whether or not animation should be updated on this frame */
-	private boolean updateFrameMenu;
 
-	/** The number of frames that have elapsed since the last animation update */
+	/** The number of clock ticks that have elapsed since the last animation update */
 	private int elapsedFramesLoading = 0;
-	/** The number of frames that should pass before the animation updates */
+	/** The number of clock ticks that should pass before the animation updates */
 	private int framesPerUpdateLoading = 16;
-	/** Whether or not animation should be updated on this frame */
-	private boolean updateFrameLoading;
 
 	private static final int FRAME_START = 0;
 
@@ -613,14 +610,14 @@ public class LoadingMode implements Screen {
 		this.flappingPhoenixStrip_3.setFrame(FRAME_START);
 	}
 
+	/**
+	 * Advances the phoenix of the menu by a frame for every framesPerUpdateMenu clock ticks
+	 */
 	public void updateMenuAnimation () {
-		elapsedFramesMenu++;
-
-		if (elapsedFramesMenu >= framesPerUpdateMenu) {
-			updateFrameMenu = true;
-			elapsedFramesMenu = 0;
-		}
-		if (updateFrameMenu) {
+		elapsedFramesMenu += animationClock.getElapsedTicks();
+		int steps = elapsedFramesMenu / framesPerUpdateMenu;
+		elapsedFramesMenu %= framesPerUpdateMenu;
+		for (int i = 0; i < steps; i++) {
 			if (this.flyingPhoenixStrip_1.getFrame() < this.flyingPhoenixStrip_1.getSize() - 1) {
 				this.flyingPhoenixStrip_1.setFrame(this.flyingPhoenixStrip_1.getFrame() + 1);
 					onFilmStrip = 1; }
@@ -650,7 +647,6 @@ public class LoadingMode implements Screen {
 				this.flappingPhoenixStrip_3.setFrame(FRAME_START);
 				onFilmStrip = 4;
 			}
-			updateFrameMenu = false;
 		}
 	}
 
@@ -666,17 +662,16 @@ public class LoadingMode implements Screen {
 		this.flappingPhoenixStrip_3.setFrame(FRAME_START);
 
 		elapsedFramesMenu = 0;
-		updateFrameMenu = false;
 	}
 
+	/**
+	 * Advances the golem and loading text by a frame for every framesPerUpdateLoading clock ticks
+	 */
 	public void updateLoadingAnimation () {
-		elapsedFramesLoading++;
-
-		if (elapsedFramesLoading >= framesPerUpdateLoading) {
-			updateFrameLoading = true;
-			elapsedFramesLoading = 0;
-		}
-		if (updateFrameLoading) {
+		elapsedFramesLoading += animationClock.getElapsedTicks();
+		int steps = elapsedFramesLoading / framesPerUpdateLoading;
+		elapsedFramesLoading %= framesPerUpdateLoading;
+		for (int i = 0; i < steps; i++) {
 			if ((this.golemWakingStrip.getFrame() < this.golemWakingStrip.getSize() - 1)) {
 				this.golemWakingStrip.setFrame(this.golemWakingStrip.getFrame() + 1); }
 			else {
@@ -688,7 +683,6 @@ public class LoadingMode implements Screen {
 			} else {
 				this.loadingTextStrip.setFrame(FRAME_START);
 			}
-			updateFrameLoading = false;
 		}
 	}
 
@@ -755,6 +749,7 @@ public class LoadingMode implements Screen {
 	public void render(float delta) {
 		if (active) {
 			update(delta);
+			animationClock.update(delta);
 			draw();
 
 			// We are are ready, notify our listener
@@ -0,0 +1,137 @@
+/*
+ * OscWallTimeline.java
+ *
+ * Drives every oscillating gate of a level from one clock.  A gate used to count
+ * its own frames, so its cycle ran faster or slower with the frame rate.  Here the
+ * phase of every gate is a function of the time since the level started.
+ */
+package edu.cornell.gdiac.physics;
+
+import edu.cornell.gdiac.physics.obstacle.OscWall;
+
+/**
+ * The timeline of the oscillating gates of a level.
+ *
+ * A gate cycles forever: it rises, stays up for OscWall.WALL_DELAY ticks, falls,
+ * and stays down as long.  A tick is WORLD_STEP long, the frame the animation was
+ * made for.  Gates that start by falling are half a cycle ahead of those that
+ * start by rising.
+ *
+ * Each update computes the phase of every gate in one pass.  A gate is only told
+ * to close or open when it crosses between the two, and a frame of its animation
+ * is only set when the frame changes.
+ */
+public class OscWallTimeline {
+
+    /** How long a tick lasts, in seconds */
+    private static final double TICK = WorldController.WORLD_STEP;
+
+    /** Slack for time that is a whole number of ticks, but rounded just below */
+    private static final double TICK_EPSILON = 1e-6;
+
+    /** The number of ticks a gate takes to rise */
+    private static final int RISE_TICKS = OscWall.WALL_RISE_FINISH_FRAME - OscWall.WALL_RISE_START_FRAME;
+
+    /** The number of ticks a gate takes to fall */
+    private static final int FALL_TICKS = OscWall.WALL_FALLING_FINISH_FRAME - OscWall.WALL_FALLING_START_FRAME;
+
+    /** The number of ticks from the start of a rise to the start of the next fall */
+    private static final int RISING_TICKS = RISE_TICKS + OscWall.WALL_DELAY;
+
+    /** The number of ticks in a whole cycle */
+    private static final int CYCLE_TICKS = RISING_TICKS + FALL_TICKS + OscWall.WALL_DELAY;
+
+    /** The gates of the level */
+    private OscWall[] walls;
+
+    /** The phase each gate starts the level at, in ticks since the start of a rise */
+    private int[] offsets;
+
+    /** Whether each gate is closed to the spirit */
+    private boolean[] closed;
+
+    /** The number of seconds since the level started */
+    private double time;
+
+    /** The number of whole ticks since the level started */
+    private long ticks;
+
+    /**
+     * Creates a timeline for gates at the start of their level
+     *
+     * @param walls The gates of the level
+     */
+    public OscWallTimeline(OscWall[] walls) {
+        this.walls = walls;
+        offsets = new int[walls.length];
+        closed = new boolean[walls.length];
+        for (int i = 0; i < walls.length; i++) {
+            offsets[i] = walls[i].isGoingUp() ? 0 : RISING_TICKS;
+        }
+        reset();
+    }
+
+    /**
+     * Puts the timeline back at the start of the level.
+     *
+     * The gates must already be back in their starting state.
+     */
+    public void reset() {
+        time = 0;
+        ticks = 0;
+        for (int i = 0; i < walls.length; i++) {
+            closed[i] = walls[i].isClosed();
+        }
+    }
+
+    /**
+     * Advances the timeline, moving every gate whose phase changed
+     *
+     * @param dt Number of seconds since the last update
+     */
+    public void update(float dt) {
+        time += dt;
+        long now = (long) (time / TICK + TICK_EPSILON);
+        if (now == ticks) {
+            return;
+        }
+        ticks = now;
+
+        for (int i = 0; i < walls.length; i++) {
+            setPhase(i, (int) ((ticks + offsets[i]) % CYCLE_TICKS));
+        }
+    }
+
+    /**
+     * Moves a gate to a phase of its cycle, and closes or opens it if it crossed over
+     *
+     * @param i The index of the gate
+     * @param phase The number of ticks since the start of its last rise
+     */
+    private void setPhase(int i, int phase) {
+        OscWall wall = walls[i];
+        int frame;
+        if (phase < RISE_TICKS) {
+            frame = OscWall.WALL_RISE_START_FRAME + phase;
+            wall.setPhase(frame, true, true, 0);
+        } else if (phase < RISING_TICKS) {
+            frame = OscWall.WALL_RISE_FINISH_FRAME;
+            wall.setPhase(frame, true, true, phase - RISE_TICKS);
+        } else {
+            int falling = phase - RISING_TICKS;
+            if (falling < FALL_TICKS) {
+                frame = OscWall.WALL_FALLING_START_FRAME + falling;
+                wall.setPhase(frame, false, falling > 0, 0);
+            } else {
+                frame = OscWall.WALL_FALLING_FINISH_FRAME;
+                wall.setPhase(frame, false, falling == FALL_TICKS, falling - FALL_TICKS);
+            }
+        }
+
+        boolean closing = OscWall.isClosedFrame(frame);
+        if (closing != closed[i]) {
+            closed[i] = closing;
+            wall.setClosed(closing);
+        }
+    }
+}
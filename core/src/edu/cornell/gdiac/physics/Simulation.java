@@ -0,0 +1,639 @@
+/*
+ * Simulation.java
+ */
+package edu.cornell.gdiac.physics;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.physics.host.HostController;
+import edu.cornell.gdiac.physics.host.HostModel;
+import edu.cornell.gdiac.physics.obstacle.BorderCorner;
+import edu.cornell.gdiac.physics.obstacle.BorderEdge;
+import edu.cornell.gdiac.physics.obstacle.BoxObstacle;
+import edu.cornell.gdiac.physics.obstacle.DecorativeRoots;
+import edu.cornell.gdiac.physics.obstacle.EnergyPillar;
+import edu.cornell.gdiac.physics.obstacle.Obstacle;
+import edu.cornell.gdiac.physics.obstacle.OscWall;
+import edu.cornell.gdiac.physics.obstacle.TileMapObstacle;
+import edu.cornell.gdiac.physics.obstacle.Wall;
+import edu.cornell.gdiac.physics.spirit.SpiritModel;
+import edu.cornell.gdiac.util.PooledList;
+
+import java.util.Iterator;
+
+/**
+ * The gameplay rules of Modosu, with no rendering, sound or camera.
+ *
+ * GamePlayController drives one of these every physics step inside the game
+ * window, and reacts to the events it reports (possession, launch, bounce, win
+ * and loss).
+ *
+ * A simulation can also be loaded headless, from a level file and a texture-free
+ * Factory.  It then owns its own Box2D world, and step() advances the full rules
+ * one physics step at a time, as fast as the CPU allows.  This needs no GL context,
+ * so it can run on machines without a GPU and on several threads at once.
+ */
+public class Simulation {
+
+    /** Width of the reference screen in pixels, which aiming is measured against */
+    public static final int SCREEN_WIDTH = 1024;
+    /** Height of the reference screen in pixels, which aiming is measured against */
+    public static final int SCREEN_HEIGHT = 576;
+
+    /** Life the spirit loses each time it bounces off a wall */
+    public static final int LIFE_PER_BOUNCE = 40;
+
+    /** Charge a host gains each 60 Hz tick while standing in an energy pillar field */
+    private static final int PILLAR_CHARGE_RATE = 2;
+
+    /**
+     * The furthest the spirit may fly in one piece of a physics step.
+     *
+     * This is a quarter of a tile, half the height of the hitbox of a front wall,
+     * so the spirit cannot pass through one between two pieces.
+     */
+    public static final float TUNNEL_DISTANCE = Constants.TILE_HEIGHT / 4f;
+
+    /** The level being played */
+    private Level level;
+
+    /** The Box2D world, only owned by headless simulations */
+    private World world;
+
+    /** The physics objects of a headless simulation */
+    private PooledList<Obstacle> objects;
+
+    /** Every physics object of the level, in world order, as recorded at the start */
+    private Obstacle[] initialObjects;
+
+    private HostController hostController;
+
+    private CollisionController collisionController;
+
+    /** The input that drives a headless simulation */
+    private InputController input;
+
+    private HostModel possessed;
+
+    private HostModel pedestal;
+
+    private SpiritModel spirit;
+
+    private EnergyPillar[] energyPillars;
+
+    private OscWall[] oscWalls;
+
+    /** The clock the oscillating gates of the level follow */
+    private OscWallTimeline oscTimeline;
+
+    /** The sand and pillar fields of the level, for the possessed host */
+    private ZoneGrid zones;
+
+    /** Whether every host has been possessed */
+    private boolean complete;
+
+    /** Whether the possessed host has blown up */
+    private boolean failed;
+
+    /** The number of physics steps taken by a headless simulation */
+    private long steps;
+
+    // Events from the last update, for the presentation layer
+
+    /** Whether the level was won on the last update */
+    private boolean won;
+    /** Whether the level was lost on the last update */
+    private boolean lost;
+    /** Whether a host was possessed for the first time on the last update */
+    private boolean newHostPossessed;
+    /** Whether a different host became possessed on the last update */
+    private boolean possessionChanged;
+    /** Whether the spirit was launched on the last update */
+    private boolean launched;
+    /** Whether the possessed host walked on the last update */
+    private boolean moving;
+    /** Whether the possessed host was in sand on the last update */
+    private boolean inSand;
+    /** Whether the spirit bounced against a wall on the last update */
+    private boolean bounced;
+    /** Whether that bounce was against the level bounds */
+    private boolean bounceOnBounds;
+    /** Whether the spirit lost life to a bounce on the last update */
+    private boolean spiritBounced;
+
+    /**
+     * Creates the rules for a level whose world is managed elsewhere
+     *
+     * @param level The level being played
+     * @param hostController The controller for the hosts of this level
+     * @param collisionController The contact listener of the level world
+     */
+    public Simulation(Level level, HostController hostController, CollisionController collisionController) {
+        this.level = level;
+        this.hostController = hostController;
+        this.collisionController = collisionController;
+
+        pedestal = level.pedestal;
+        spirit = level.spirit;
+        spirit.setName("spirit");
+        energyPillars = level.energyPillars;
+        oscWalls = level.oscWalls;
+        oscTimeline = new OscWallTimeline(oscWalls);
+        zones = new ZoneGrid(level);
+
+        possessed = pedestal;
+        spirit.setGoToCenter(true);
+        spirit.setIsPossessing(true);
+
+        collisionController.addHosts(level.hosts);
+        collisionController.addSpirit(level.spirit);
+    }
+
+    /**
+     * Creates a loader that builds texture-free levels, for headless simulation
+     *
+     * Without a game window, nothing else has loaded the Box2D natives yet (the
+     * level shapes are built before any world), so this loads them as well.
+     *
+     * @param assetDirectory The directory holding the game assets
+     */
+    public static Loader createHeadlessLoader(FileHandle assetDirectory) {
+        Box2D.init();
+        return new Loader(Factory.headless(getHeadlessScale(), assetDirectory), null);
+    }
+
+    /**
+     * Returns the draw scale of the reference screen
+     *
+     * @return the draw scale of the reference screen
+     */
+    public static Vector2 getHeadlessScale() {
+        return new Vector2(SCREEN_WIDTH / WorldController.DEFAULT_WIDTH,
+                SCREEN_HEIGHT / WorldController.DEFAULT_HEIGHT);
+    }
+
+    /**
+     * Loads a level into a new headless simulation with its own world
+     *
+     * @param loader A loader made by createHeadlessLoader
+     * @param file The level file to load
+     * @param levelIndex The index of the level, as for Loader.loadLevel
+     * @param input The input that will drive the spirit and possessed host
+     */
+    public static Simulation load(Loader loader, FileHandle file, int levelIndex, InputController input) {
+        Level level = loader.loadLevel(file, levelIndex, false);
+
+        World world = new World(new Vector2(0, 0), false);
+        CollisionController collisionController = new CollisionController();
+        world.setContactListener(collisionController);
+
+        HostController hostController = new HostController(level.hosts, getHeadlessScale(), null, null,
+                level.pedestal, new Vector2(SCREEN_WIDTH / 2, SCREEN_HEIGHT / 2), level.energyPillars);
+        hostController.setInput(input);
+
+        Simulation simulation = new Simulation(level, hostController, collisionController);
+        simulation.world = world;
+        simulation.input = input;
+        simulation.objects = new PooledList<Obstacle>();
+        simulation.populate(simulation.objects);
+        for (Obstacle obj : simulation.objects) {
+            obj.activatePhysics(world);
+        }
+        simulation.saveInitialState(simulation.objects);
+        return simulation;
+    }
+
+    /**
+     * Adds every physics object of the level to the list, in world order.
+     *
+     * Front walls are given their shorter hitbox along the way.  The hitboxes of
+     * the walls, the sand, and the border edges and corners are then merged into
+     * one static body per kind and activation chunk, so that idle chunks can sleep;
+     * the tiles stay in the list, but only to be drawn.  The
+     * zone grid answers whether the possessed host is in sand; its body only turns
+     * patrolling hosts around.
+     *
+     * @param list The list to add the objects to
+     */
+    public void populate(PooledList<Obstacle> list) {
+        Array<TileMapObstacle> wallMaps = new Array<TileMapObstacle>();
+        for(Wall obj : level.walls) {
+            // Set the hitbox of the wall to be dependent on its texture
+            obj.setAltHitbox();
+            getChunkMap(wallMaps, "wall", obj).addTile(obj);
+            list.add(obj);
+        }
+        addChunkMaps(wallMaps, list);
+
+        for(Obstacle obj : level.water) {
+            list.add(obj);
+        }
+        Array<TileMapObstacle> sandMaps = new Array<TileMapObstacle>();
+        for(BoxObstacle obj : level.sand) {
+            getChunkMap(sandMaps, "sand", obj).addTile(obj);
+            list.add(obj);
+        }
+        addChunkMaps(sandMaps, list);
+
+        // Edges and corners both bounce the spirit off the level bounds
+        Array<TileMapObstacle> borderMaps = new Array<TileMapObstacle>();
+        for(BorderEdge obj : level.borderEdges) {
+            getChunkMap(borderMaps, "edge", obj).addTile(obj);
+            list.add(obj);
+        }
+        for(BorderCorner obj : level.borderCorners) {
+            getChunkMap(borderMaps, "edge", obj).addTile(obj);
+            list.add(obj);
+        }
+        addChunkMaps(borderMaps, list);
+        for(Obstacle obj : level.energyPillars) {
+            list.add(obj);
+        }
+        for(Obstacle obj : level.oscWalls) {
+            list.add(obj);
+        }
+        for(HostModel host : level.hosts) {
+            list.add(host);
+        }
+        for(DecorativeRoots roots : level.decorativeRootTiles) {
+            list.add(roots);
+        }
+        list.add(level.spirit);
+        list.add(level.pedestal);
+    }
+
+    /**
+     * Returns the tile map for the activation chunk holding a tile, creating it if needed
+     *
+     * One map per chunk lets the activation grid put the merged bodies to sleep
+     * along with the rest of the chunk.
+     *
+     * @param maps The maps made so far, in the order they were created
+     * @param name The tag of the tiles
+     * @param tile The tile to find a map for
+     *
+     * @return the tile map for the chunk holding the tile
+     */
+    private static TileMapObstacle getChunkMap(Array<TileMapObstacle> maps, String name, BoxObstacle tile) {
+        float x = ActivationGrid.getChunkCenterX(tile.getX());
+        float y = ActivationGrid.getChunkCenterY(tile.getY());
+        for (int ii = 0; ii < maps.size; ii++) {
+            TileMapObstacle map = maps.get(ii);
+            if (map.getX() == x && map.getY() == y) {
+                return map;
+            }
+        }
+        TileMapObstacle map = new TileMapObstacle(name, x, y);
+        maps.add(map);
+        return map;
+    }
+
+    /**
+     * Merges each tile map and adds it to the list
+     *
+     * @param maps The tile maps to merge
+     * @param list The list to add the maps to
+     */
+    private static void addChunkMaps(Array<TileMapObstacle> maps, PooledList<Obstacle> list) {
+        for (int ii = 0; ii < maps.size; ii++) {
+            maps.get(ii).merge();
+            list.add(maps.get(ii));
+        }
+    }
+
+    /**
+     * Records the state of every object as the start of the level, for restart
+     *
+     * @param list The physics objects of the level, in world order
+     */
+    public void saveInitialState(PooledList<Obstacle> list) {
+        initialObjects = new Obstacle[list.size()];
+        int i = 0;
+        for (Obstacle obj : list) {
+            obj.saveInitialState();
+            initialObjects[i++] = obj;
+        }
+    }
+
+    /**
+     * Puts the level back as it was when saveInitialState was called.
+     *
+     * This is a retry without a reload: no file is read and only the pedestal body
+     * is created again.  Every other body is deactivated first, so that no contact
+     * from the last attempt carries over, and is then moved back and reactivated in
+     * world order.
+     *
+     * @param list The physics objects in the world, to put removed objects back into
+     * @param world The world holding the objects
+     */
+    public void restart(PooledList<Obstacle> list, World world) {
+        // Contacts destroyed here must not reach the rules
+        collisionController.reset();
+        for (int i = initialObjects.length - 1; i >= 0; i--) {
+            initialObjects[i].setActive(false);
+        }
+
+        for (Obstacle obj : initialObjects) {
+            obj.restoreInitialState();
+            if (obj.getBody() == null && !obj.isMerged()) {
+                obj.activatePhysics(world);
+                list.add(obj);
+            } else if (obj == pedestal) {
+                // A new fixture makes Box2D find contacts on the first step, as after a load
+                obj.deactivatePhysics(world);
+                obj.activatePhysics(world);
+            } else {
+                obj.setActive(true);
+            }
+        }
+
+        hostController.reset();
+        oscTimeline.reset();
+        collisionController.addHosts(level.hosts);
+        collisionController.addSpirit(spirit);
+
+        possessed = pedestal;
+        complete = false;
+        failed = false;
+        steps = 0;
+        won = false;
+        lost = false;
+        newHostPossessed = false;
+        possessionChanged = false;
+        launched = false;
+        moving = false;
+        inSand = false;
+        bounced = false;
+        bounceOnBounds = false;
+        spiritBounced = false;
+    }
+
+    /**
+     * Puts a headless simulation back at the start of its level
+     */
+    public void restart() {
+        restart(objects, world);
+    }
+
+    /**
+     * Advances a headless simulation by one physics step.
+     *
+     * This applies the gameplay rules, steps the world, resolves its contacts and
+     * removes any objects marked for removal, just as a frame of the game would.
+     */
+    public void step() {
+        step(false);
+    }
+
+    /**
+     * Advances a headless simulation by one physics step, as the first after a pause.
+     *
+     * This is how a recorded attempt is played back, as a pause is part of its input.
+     *
+     * @param wasPaused Whether the game was just unpaused
+     */
+    public void step(boolean wasPaused) {
+        step(WorldController.WORLD_STEP, wasPaused);
+    }
+
+    /**
+     * Advances a headless simulation by one physics step of the given size.
+     *
+     * A recording made at another physics rate must be played back at its own
+     * step size, as the world does not step the same way at every size.
+     *
+     * @param dt The amount of time of the step, in seconds
+     * @param wasPaused Whether the game was just unpaused
+     */
+    public void step(float dt, boolean wasPaused) {
+        update(dt, wasPaused);
+
+        int pieces = getStepPieces(dt);
+        for (int i = 0; i < pieces; i++) {
+            world.step(dt / pieces, WorldController.WORLD_VELOC, WorldController.WORLD_POSIT);
+            collisionController.resolveContacts();
+        }
+
+        Iterator<PooledList<Obstacle>.Entry> iterator = objects.entryIterator();
+        while (iterator.hasNext()) {
+            PooledList<Obstacle>.Entry entry = iterator.next();
+            Obstacle obj = entry.getValue();
+            if (obj.isRemoved()) {
+                obj.deactivatePhysics(world);
+                entry.remove();
+            } else {
+                obj.update(dt);
+            }
+        }
+        steps++;
+    }
+
+    /**
+     * Returns the number of pieces to cut a physics step into.
+     *
+     * Only a launched spirit is fast enough to pass through a wall, so while
+     * aiming or walking a step is never cut.  In flight, a step is cut so that
+     * the spirit never moves more than TUNNEL_DISTANCE in one piece.  At the
+     * default step size, even the fastest shot needs a single piece.
+     *
+     * @param dt The length of the step to cut
+     *
+     * @return the number of pieces to cut the step into
+     */
+    public int getStepPieces(float dt) {
+        if (!spirit.hasLaunched) {
+            return 1;
+        }
+        float distance = spirit.getLinearVelocity().len() * dt;
+        return Math.max(1, MathUtils.ceil(distance / TUNNEL_DISTANCE));
+    }
+
+    /**
+     * Applies one fixed step of the gameplay rules.
+     *
+     * This is called after input is read, right before the world is stepped.  The
+     * charge and life counters advance by the 60 Hz ticks that passed in the step,
+     * so they last as long in seconds at any step size.
+     *
+     * @param dt The length of the step in seconds
+     * @param wasPaused Whether the game was just unpaused
+     */
+    public void update(float dt, boolean wasPaused) {
+        won = false;
+        lost = false;
+        newHostPossessed = collisionController.getNewPossession();
+
+        // Move the oscWalls along their cycle
+        oscTimeline.update(dt);
+
+        // Check win condition
+        if (hostController.checkAllPossessed() && !complete) {
+            complete = true;
+            won = true;
+        }
+
+        // Determine if there is any possession
+        possessionChanged = false;
+        if (collisionController.isPossessed()) {
+            possessionChanged = possessed != collisionController.getHostPossessed();
+            possessed = collisionController.getHostPossessed();
+        }
+
+        // Remove Pedestal Once Possessing a New Host
+        if(pedestal != possessed) {
+            pedestal.markRemoved(true);
+        }
+
+        inSand = zones.isSand(possessed.getX(), possessed.getY());
+        hostController.update(dt, possessed, spirit, pedestal, inSand, energyPillars, wasPaused);
+        launched = hostController.getLaunched();
+        moving = hostController.isMoving();
+
+        // Check lose condition
+        if (hostController.getPossessedBlownUp() && !complete && !failed) {
+            failed = true;
+            lost = true;
+        }
+
+        bounced = collisionController.isBounced();
+        bounceOnBounds = collisionController.getBounceOnBounds();
+
+        boolean isInPillar = false;
+        // Check if possessed is in the field of a nearby energy pillar
+        for(EnergyPillar ep : zones.getPillarsNear(possessed.getX(), possessed.getY())) {
+            if(ep.isInField(possessed.getX(), possessed.getY())) {
+                if (spirit.hasLaunched) { isInPillar = false; }
+                else {
+                    possessed.setCurrentCharge(possessed.getCurrentCharge()
+                            + PILLAR_CHARGE_RATE * hostController.getElapsedTicks());
+                    isInPillar = true;
+                }
+            }
+        }
+
+        possessed.setInPillar(isInPillar);
+
+        spiritBounced = spirit.getDidBounce();
+        if (spiritBounced) {
+            spirit.decCurrentLife(LIFE_PER_BOUNCE);
+        }
+
+        // Clear collision controller
+        collisionController.clear();
+        spirit.setDidBounce(false);
+    }
+
+    /**
+     * @return The level being played
+     */
+    public Level getLevel() { return level; }
+
+    /**
+     * @return The world of a headless simulation, or null if managed elsewhere
+     */
+    public World getWorld() { return world; }
+
+    /**
+     * @return The input driving a headless simulation, or null if managed elsewhere
+     */
+    public InputController getInput() { return input; }
+
+    /**
+     * @return The controller for the hosts of this level
+     */
+    public HostController getHostController() { return hostController; }
+
+    /**
+     * @return The host the spirit currently belongs to
+     */
+    public HostModel getPossessed() { return possessed; }
+
+    /**
+     * @return The starting pedestal
+     */
+    public HostModel getPedestal() { return pedestal; }
+
+    /**
+     * @return The spirit of the player
+     */
+    public SpiritModel getSpirit() { return spirit; }
+
+    /**
+     * @return Whether every host has been possessed
+     */
+    public boolean isComplete() { return complete; }
+
+    /**
+     * @return Whether the possessed host has blown up
+     */
+    public boolean isFailure() { return failed; }
+
+    /**
+     * @return The number of physics steps taken by a headless simulation
+     */
+    public long getSteps() { return steps; }
+
+    /**
+     * @return Whether the level was won on the last update
+     */
+    public boolean didWin() { return won; }
+
+    /**
+     * @return Whether the level was lost on the last update
+     */
+    public boolean didLose() { return lost; }
+
+    /**
+     * @return Whether a host was possessed for the first time on the last update
+     */
+    public boolean didPossessNewHost() { return newHostPossessed; }
+
+    /**
+     * @return Whether a different host became possessed on the last update
+     */
+    public boolean didChangePossession() { return possessionChanged; }
+
+    /**
+     * @return Whether the spirit was launched on the last update
+     */
+    public boolean didLaunch() { return launched; }
+
+    /**
+     * @return Whether the possessed host walked on the last update
+     */
+    public boolean isMoving() { return moving; }
+
+    /**
+     * @return Whether the possessed host was in sand on the last update
+     */
+    public boolean isInSand() { return inSand; }
+
+    /**
+     * @return Whether the spirit bounced against a wall on the last update
+     */
+    public boolean didBounce() { return bounced; }
+
+    /**
+     * @return Whether the last bounce was against the level bounds
+     */
+    public boolean didBounceOnBounds() { return bounceOnBounds; }
+
+    /**
+     * @return Whether the spirit lost life to a bounce on the last update
+     */
+    public boolean didSpiritBounce() { return spiritBounced; }
+
+    /**
+     * Destroys the world of a headless simulation
+     */
+    public void dispose() {
+        if (world != null) {
+            world.dispose();
+            world = null;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * TrajectoryPredictor.java
+ *
+ * Shows the player where an aimed shot would go.  The path is traced with
+ * World.rayCast, bouncing off everything that bounces the spirit, so it costs a
+ * handful of ray casts instead of a simulation.
+ */
+package edu.cornell.gdiac.physics;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.RayCastCallback;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BooleanArray;
+import edu.cornell.gdiac.physics.obstacle.Obstacle;
+import edu.cornell.gdiac.physics.obstacle.OscWall;
+
+/**
+ * A predicted path of the spirit, as a list of points where it bounces.
+ *
+ * The path ends when the spirit would run out of life, reach a host, or run out
+ * of bounces.  Each bounce costs the spirit LIFE_PER_BOUNCE, as it does in flight.
+ * The spirit is traced as a point, so the path shows where its center would go.
+ * Tracing stops early if it takes longer than TIME_BUDGET_NANOS, so aiming never
+ * costs more than that per frame.  A path traced to its end is kept until the aim
+ * moves by more than AIM_THRESHOLD, or a gate it met opens or closes; a path cut
+ * short is shown, but traced again the next frame.
+ */
+public class TrajectoryPredictor implements RayCastCallback {
+
+    /** The most bounces a path shows */
+    public static final int MAX_BOUNCES = 4;
+
+    /** The most time a path may take to trace, in nanoseconds */
+    public static final long TIME_BUDGET_NANOS = 200000L;
+
+    /** How far the aim or the start must move before the path is traced again */
+    public static final float AIM_THRESHOLD = 0.05f;
+
+    /** How far from a wall a bounce starts its next ray, so it does not hit that wall again */
+    private static final float BOUNCE_OFFSET = 1e-3f;
+
+    /** The color the path is drawn in */
+    private static final Color PATH_COLOR = new Color(1, 1, 1, 0.5f);
+
+    /** The world to cast rays in */
+    private World world;
+
+    /** The points of the path, as x and y pairs */
+    private float[] points = new float[2 * (MAX_BOUNCES + 2)];
+    /** The number of points in the path */
+    private int count;
+    /** Whether the path was cut short by the time budget */
+    private boolean truncated;
+
+    /** Whether there is a path to show */
+    private boolean valid;
+    /** The start the path was traced from */
+    private Vector2 lastStart = new Vector2();
+    /** The velocity the path was traced for */
+    private Vector2 lastVelocity = new Vector2();
+    /** The life the path was traced for */
+    private float lastLife;
+
+    /** The gates the path met, to trace it again when one of them changes */
+    private Array<OscWall> gates = new Array<OscWall>();
+    /** Whether each gate the path met was closed at the time */
+    private BooleanArray gateStates = new BooleanArray();
+
+    /** The obstacle the ray starts in, which it ignores */
+    private Obstacle shooter;
+    /** Whether the current ray hit anything */
+    private boolean hit;
+    /** Whether the current ray hit a host, which ends the path */
+    private boolean hitHost;
+    /** Where the current ray hit */
+    private Vector2 hitPoint = new Vector2();
+    /** The surface normal where the current ray hit */
+    private Vector2 hitNormal = new Vector2();
+
+    /**
+     * Creates a predictor tracing paths in a world
+     *
+     * @param world The world to cast rays in
+     */
+    public TrajectoryPredictor(World world) {
+        this.world = world;
+    }
+
+    /**
+     * Forgets the current path, so the next prediction traces a new one
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Predicts the path of the spirit shot from a point.
+     *
+     * The path is only traced again if the start or the aim moved past the
+     * threshold, the life changed, a gate on the path changed, or the last trace
+     * was cut short by the time budget.
+     *
+     * @param shooter The host the spirit is shot from, which the path ignores
+     * @param start The point the spirit is shot from
+     * @param velocity The velocity the spirit is shot at
+     * @param life The life the spirit has when shot
+     */
+    public void predict(Obstacle shooter, Vector2 start, Vector2 velocity, float life) {
+        if (valid && !truncated && lastLife == life && lastStart.epsilonEquals(start, AIM_THRESHOLD)
+                && lastVelocity.epsilonEquals(velocity, AIM_THRESHOLD) && !gatesChanged()) {
+            return;
+        }
+        lastStart.set(start);
+        lastVelocity.set(velocity);
+        lastLife = life;
+        valid = true;
+        truncated = trace(shooter, start.x, start.y, velocity.x, velocity.y, life);
+    }
+
+    /**
+     * Returns true if a gate the path met has opened or closed since
+     */
+    private boolean gatesChanged() {
+        for (int i = 0; i < gates.size; i++) {
+            if (gates.get(i).isPhysical() != gateStates.get(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Traces the path of the spirit, bounce by bounce
+     *
+     * @return true if the path was cut short by the time budget
+     */
+    private boolean trace(Obstacle shooter, float x, float y, float vx, float vy, float life) {
+        long deadline = System.nanoTime() + TIME_BUDGET_NANOS;
+        this.shooter = shooter;
+        gates.clear();
+        gateStates.clear();
+        count = 0;
+        addPoint(x, y);
+
+        float speed = (float) Math.sqrt(vx * vx + vy * vy);
+        if (speed == 0) {
+            return false;
+        }
+        boolean cut = false;
+        float dx = vx / speed;
+        float dy = vy / speed;
+
+        // The spirit loses one life a frame, and LIFE_PER_BOUNCE at each bounce
+        float perFrame = speed * WorldController.WORLD_STEP;
+        float reach = life * perFrame;
+        for (int bounces = 0; reach > 0; bounces++) {
+            if (System.nanoTime() > deadline) {
+                cut = true;
+                break;
+            }
+
+            hit = false;
+            hitHost = false;
+            world.rayCast(this, x, y, x + dx * reach, y + dy * reach);
+            if (!hit) {
+                addPoint(x + dx * reach, y + dy * reach);
+                break;
+            }
+            addPoint(hitPoint.x, hitPoint.y);
+            if (hitHost || bounces == MAX_BOUNCES) {
+                break;
+            }
+
+            // Reflect off the surface that was hit
+            reach -= Vector2.dst(x, y, hitPoint.x, hitPoint.y) + Simulation.LIFE_PER_BOUNCE * perFrame;
+            float dot = dx * hitNormal.x + dy * hitNormal.y;
+            dx -= 2 * dot * hitNormal.x;
+            dy -= 2 * dot * hitNormal.y;
+            x = hitPoint.x + hitNormal.x * BOUNCE_OFFSET;
+            y = hitPoint.y + hitNormal.y * BOUNCE_OFFSET;
+        }
+        this.shooter = null;
+        return cut;
+    }
+
+    /**
+     * Adds a point to the end of the path
+     */
+    private void addPoint(float x, float y) {
+        points[2 * count] = x;
+        points[2 * count + 1] = y;
+        count++;
+    }
+
+    /**
+     * Keeps the closest fixture that stops the spirit.
+     *
+     * Walls, bounds, energy pillars and closed gates bounce the spirit.  Hosts end
+     * the path, as the spirit would possess them.  Everything else is passed through.
+     *
+     * @param fixture The fixture the ray hit
+     * @param point The point where the ray hit, which Box2D reuses
+     * @param normal The surface normal at that point, which Box2D reuses
+     * @param fraction How far along the ray the fixture was hit
+     *
+     * @return the fraction to clip the ray to, or -1 to ignore the fixture
+     */
+    public float reportRayFixture(Fixture fixture, Vector2 point, Vector2 normal, float fraction) {
+        Obstacle obj = (Obstacle) fixture.getBody().getUserData();
+        boolean host = false;
+        switch (obj.getType()) {
+            case WALL:
+            case EDGE:
+            case CORNER:
+            case ENERGY_PILLAR:
+                break;
+            case OSC_WALL:
+                OscWall gate = (OscWall) obj;
+                if (!gates.contains(gate, true)) {
+                    gates.add(gate);
+                    gateStates.add(gate.isPhysical());
+                }
+                if (!gate.isPhysical()) {
+                    return -1;
+                }
+                break;
+            case HOST:
+                if (obj == shooter) {
+                    return -1;
+                }
+                host = true;
+                break;
+            default:
+                return -1;
+        }
+        hit = true;
+        hitHost = host;
+        hitPoint.set(point);
+        hitNormal.set(normal);
+        return fraction;
+    }
+
+    /**
+     * Returns true if there is a path to show
+     *
+     * @return true if there is a path to show
+     */
+    public boolean isValid() {
+        return valid && count > 1;
+    }
+
+    /**
+     * Returns true if the last path was cut short by the time budget
+     *
+     * @return true if the last path was cut short by the time budget
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Returns the number of points in the path
+     *
+     * @return the number of points in the path
+     */
+    public int getPointCount() {
+        return count;
+    }
+
+    /**
+     * Returns the points of the path, as x and y pairs.
+     *
+     * The array is reused, and only the first getPointCount() pairs are used.
+     *
+     * @return the points of the path
+     */
+    public float[] getPoints() {
+        return points;
+    }
+
+    /**
+     * Draws the path as a line through its points
+     *
+     * This must be called in a debug pass of the canvas.
+     *
+     * @param canvas Drawing context
+     * @param scale The drawing scale of the world
+     */
+    public void draw(GameCanvas canvas, Vector2 scale) {
+        for (int i = 1; i < count; i++) {
+            canvas.drawLine(PATH_COLOR, points[2 * i - 2], points[2 * i - 1], points[2 * i], points[2 * i + 1], scale.x, scale.y);
+        }
+    }
+}
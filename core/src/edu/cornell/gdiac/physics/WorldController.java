@@ -3,20 +3,27 @@
  */
 package edu.cornell.gdiac.physics;
 
+import com.badlogic.ashley.core.Engine;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Preferences;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import edu.cornell.gdiac.physics.entity.MovementSystem;
+import edu.cornell.gdiac.physics.entity.ObstacleEntities;
+import edu.cornell.gdiac.physics.entity.RenderSystem;
 import edu.cornell.gdiac.physics.host.ArrowModel;
 import edu.cornell.gdiac.physics.host.FootPrintModel;
 import edu.cornell.gdiac.physics.host.HostModel;
@@ -204,6 +211,41 @@ public abstract class WorldController implements Screen {
 	/** File to texture for OscWall Horz Gauge */
 	public static String OSC_WALL_VERT_GAUGE_FILE = "shared/verticalGateLightSpritesheet.png";
 
+	/** Sprite sheets with no night to them: the golems, the spirit and the lights */
+	private static final String[] SPRITE_SHEETS = {
+			HOST_FILE_E, HOST_FILE_N, HOST_FILE_NE, HOST_FILE_NW,
+			HOST_FILE_S, HOST_FILE_SE, HOST_FILE_SW, HOST_FILE_W,
+			HOST_GLYPH_FILE_E, HOST_GLYPH_FILE_N, HOST_GLYPH_FILE_NE, HOST_GLYPH_FILE_NW,
+			HOST_GLYPH_FILE_S, HOST_GLYPH_FILE_SE, HOST_GLYPH_FILE_SW, HOST_GLYPH_FILE_W,
+			HOST_DEATH_FILE_E, HOST_DEATH_FILE_N, HOST_DEATH_FILE_NE, HOST_DEATH_FILE_NW,
+			HOST_DEATH_FILE_S, HOST_DEATH_FILE_SE, HOST_DEATH_FILE_SW, HOST_DEATH_FILE_W,
+			HOST_ARMS_FILE, HOST_GEN_POSSESSION_FILE, HOST_NEW_POSSESSION_FILE, HOST_WAKING_UP_FILE,
+			HOST_GAUGE_FILE, HOST_SHADOW_FILE, SPIRIT_HEAD_FILE, SPIRIT_TAIL_FILE,
+			ENERGY_PILLAR_BODY_FILE, ENERGY_PILLAR_BODY_CHARGE_FILE, ENERGY_PILLAR_RADIUS_FILE,
+			OSC_WALL_HORZ_GAUGE_FILE, OSC_WALL_VERT_GAUGE_FILE
+	};
+	/** Sprite sheets of the board by day */
+	private static final String[] DAY_SHEETS = {
+			WALL_DAY_FILE, WATER_FILE, CORNER_FILE, SAND_FILE, CORNER_SAND_FILE, PEDESTAL_FILE,
+			BORDER_EDGE_FILE, BORDER_CORNER_FILE, DECORATIVE_ROOTS_FILE, OSC_WALL_HORZ_FILE, OSC_WALL_VERT_FILE
+	};
+	/** Sprite sheets of the board by night, in the order of their day sheets */
+	private static final String[] NIGHT_SHEETS = {
+			WALL_NIGHT_FILE, WATER_NIGHT_FILE, CORNER_NIGHT_FILE, SAND_NIGHT_FILE, CORNER_SAND_NIGHT_FILE, PEDESTAL_NIGHT_FILE,
+			BORDER_EDGE_NIGHT_FILE, BORDER_CORNER_NIGHT_FILE, DECORATIVE_ROOTS_NIGHT_FILE, OSC_WALL_HORZ_NIGHT_FILE, OSC_WALL_VERT_NIGHT_FILE
+	};
+	/** The sprite sheets, grouped as they are packed */
+	private static final String[][] SHEET_FILES = {SPRITE_SHEETS, DAY_SHEETS, NIGHT_SHEETS};
+	/**
+	 * The texture atlases made by the packTextures task of the core build, one for
+	 * each group of SHEET_FILES.  A region is named by the path of its sheet, less
+	 * the extension, so the two lists must be kept in step; checkAtlases() logs an
+	 * error for any sheet missing from its atlas.  A night sheet is
+	 * packed under the name of its day sheet, so that the day and night atlases
+	 * have the same layout and the night shader of the canvas can draw both.
+	 */
+	private static final String[] ATLAS_FILES = {"atlas/sprites.atlas", "atlas/day.atlas", "atlas/night.atlas"};
+
 	private static int FONT_SIZE = 56;
 
 	/** The font for giving messages to the player */
@@ -217,6 +259,8 @@ public abstract class WorldController implements Screen {
 	private TextureRegion backgroundDayTexture;
 	/** Texture asset for background image */
 	private TextureRegion backgroundNightTexture;
+	/** The tint of the night background, for the current level */
+	private final Color nightOpacity = new Color();
 	/** The texture for walls */
 	protected TextureRegion wallDayTex;
 	/** The texture for walls */
@@ -226,130 +270,134 @@ public abstract class WorldController implements Screen {
 	/** The texture for the arrow dash */
 	protected Texture arrowDashTex;
 	/** Texture for Host SpriteSheet EAST*/
-	private static Texture hostTextureE;
+	private static TextureRegion hostTextureE;
 	/** Texture for Host SpriteSheet NORTH*/
-	private static Texture hostTextureN;
+	private static TextureRegion hostTextureN;
 	/** Texture for Host SpriteSheet NORTH EAST*/
-	private static Texture hostTextureNE;
+	private static TextureRegion hostTextureNE;
 	/** Texture for Host SpriteSheet NORTH WEST*/
-	private static Texture hostTextureNW;
+	private static TextureRegion hostTextureNW;
 	/** Texture for Host SpriteSheet SOUTH */
-	private static Texture hostTextureS;
+	private static TextureRegion hostTextureS;
 	/** Texture for Host SpriteSheet SOUTH EAST*/
-	private static Texture hostTextureSE;
+	private static TextureRegion hostTextureSE;
 	/** Texture for Host SpriteSheet SOUTH WEST*/
-	private static Texture hostTextureSW;
+	private static TextureRegion hostTextureSW;
 	/** Texture for Host SpriteSheet WEST*/
-	private static Texture hostTextureW;
+	private static TextureRegion hostTextureW;
 	/** Texture for Host Glyph SpriteSheet EAST*/
-	private static Texture hostGlyphTextureE;
+	private static TextureRegion hostGlyphTextureE;
 	/** Texture for Host Glyph SpriteSheet NORTH*/
-	private static Texture hostGlyphTextureN;
+	private static TextureRegion hostGlyphTextureN;
 	/** Texture for Host Glyph SpriteSheet NORTH EAST*/
-	private static Texture hostGlyphTextureNE;
+	private static TextureRegion hostGlyphTextureNE;
 	/** Texture for Host Glyph SpriteSheet NORTH WEST*/
-	private static Texture hostGlyphTextureNW;
+	private static TextureRegion hostGlyphTextureNW;
 	/** Texture for Host Glyph SpriteSheet SOUTH */
-	private static Texture hostGlyphTextureS;
+	private static TextureRegion hostGlyphTextureS;
 	/** Texture for Host Glyph SpriteSheet SOUTH EAST*/
-	private static Texture hostGlyphTextureSE;
+	private static TextureRegion hostGlyphTextureSE;
 	/** Texture for Host Glyph SpriteSheet SOUTH WEST*/
-	private static Texture hostGlyphTextureSW;
+	private static TextureRegion hostGlyphTextureSW;
 	/** Texture for Host Glyph SpriteSheet WEST*/
-	private static Texture hostGlyphTextureW;
+	private static TextureRegion hostGlyphTextureW;
 	/** Texture for Host death SpriteSheet EAST*/
-	private static Texture hostDeathTextureE;
+	private static TextureRegion hostDeathTextureE;
 	/** Texture for Host death SpriteSheet NORTH*/
-	private static Texture hostDeathTextureN;
+	private static TextureRegion hostDeathTextureN;
 	/** Texture for Host death SpriteSheet NORTH EAST*/
-	private static Texture hostDeathTextureNE;
+	private static TextureRegion hostDeathTextureNE;
 	/** Texture for Host death SpriteSheet NORTH WEST*/
-	private static Texture hostDeathTextureNW;
+	private static TextureRegion hostDeathTextureNW;
 	/** Texture for Host death SpriteSheet SOUTH */
-	private static Texture hostDeathTextureS;
+	private static TextureRegion hostDeathTextureS;
 	/** Texture for Host death SpriteSheet SOUTH EAST*/
-	private static Texture hostDeathTextureSE;
+	private static TextureRegion hostDeathTextureSE;
 	/** Texture for Host death SpriteSheet SOUTH WEST*/
-	private static Texture hostDeathTextureSW;
+	private static TextureRegion hostDeathTextureSW;
 	/** Texture for Host death SpriteSheet WEST*/
-	private static Texture hostDeathTextureW;
+	private static TextureRegion hostDeathTextureW;
 	/** Texture for Host Arms */
-	private static Texture hostArmsTexture;
+	private static TextureRegion hostArmsTexture;
 	/** Texture for Host Gen Possession */
-	private static Texture hostGenPossessionTexture;
+	private static TextureRegion hostGenPossessionTexture;
 	/** Texture for Host New Possession */
-	private static Texture hostNewPossessionTexture;
+	private static TextureRegion hostNewPossessionTexture;
 	/** Texture for Host Waking Up */
-	private static Texture hostWakingUpTexture;
+	private static TextureRegion hostWakingUpTexture;
 	/** Texture for Host Gauge SpriteSheet */
-	private static Texture hostGaugeTexture;
+	private static TextureRegion hostGaugeTexture;
 	/** Texture for Host Shadow */
-	private static Texture hostShadowTexture;
+	private static TextureRegion hostShadowTexture;
 	/** Texture for Wall Day SpriteSheet */
-	private static Texture wallDayTexture;
+	private static TextureRegion wallDayTexture;
 	/** Texture for Wall Night SpriteSheet */
-	private static Texture wallNightTexture;
+	private static TextureRegion wallNightTexture;
 	/** Texture for Water SpriteSheet */
-	private static Texture waterTexture;
+	private static TextureRegion waterTexture;
 	/** Texture for Water Night SpriteSheet */
-	private static Texture waterNightTexture;
+	private static TextureRegion waterNightTexture;
 	/** Texture for Water Corner SpriteSheet */
-	private static Texture cornerTexture;
+	private static TextureRegion cornerTexture;
 	/** Texture for Water Corner Night SpriteSheet */
-	private static Texture cornerNightTexture;
+	private static TextureRegion cornerNightTexture;
 	/** Texture for Sand SpriteSheet */
-	private static Texture sandTexture;
+	private static TextureRegion sandTexture;
 	/** Texture for Sand SpriteSheet */
-	private static Texture sandNightTexture;
+	private static TextureRegion sandNightTexture;
 	/** Texture for Sand Corner SpriteSheet */
-	private static Texture cornerSandTexture;
+	private static TextureRegion cornerSandTexture;
 	/** Texture for Sand Corner SpriteSheet */
-	private static Texture cornerSandNightTexture;
+	private static TextureRegion cornerSandNightTexture;
 	/** Texture for Pedestal SpriteSheet */
-	private static Texture pedestalTexture;
+	private static TextureRegion pedestalTexture;
 	/** Texture for Pedestal SpriteSheet */
-	private static Texture pedestalNightTexture;
+	private static TextureRegion pedestalNightTexture;
 	/** Texture for Spirit Head Texture */
-	private static Texture spiritHeadTexture;
+	private static TextureRegion spiritHeadTexture;
 	/** Texture for Spirit Body Texture */
-	private static Texture spiritBodyTexture;
+	private static TextureRegion spiritBodyTexture;
 	/** Texture for Spirit Tail Texture */
-	private static Texture spiritTailTexture;
+	private static TextureRegion spiritTailTexture;
 	/** Texture for border edges */
-	private static Texture borderEdgeTexture;
+	private static TextureRegion borderEdgeTexture;
 	/** Texture for border night edges */
-	private static Texture borderEdgeNightTexture;
+	private static TextureRegion borderEdgeNightTexture;
 	/** Texture for border corners */
-	private static Texture borderCornerTexture;
+	private static TextureRegion borderCornerTexture;
 	/** Texture for border night corners */
-	private static Texture borderCornerNightTexture;
+	private static TextureRegion borderCornerNightTexture;
 	/** Texture for Energy Pillar Body Texture */
-	private static Texture energyPillarBody;
+	private static TextureRegion energyPillarBody;
 	/** Texture for Energy Pillar Body Lights Texture */
-	private static Texture energyPillarCharge;
+	private static TextureRegion energyPillarCharge;
 	/** Texture for Energy Pillar Radius Texture */
-	private static Texture energyPillarRadius;
+	private static TextureRegion energyPillarRadius;
 	/** Texture for Osc Wall Horz */
-	private static Texture oscWallHorz;
+	private static TextureRegion oscWallHorz;
 	/** Texture for Osc Wall Horz */
-	private static Texture oscWallHorzNight;
+	private static TextureRegion oscWallHorzNight;
 	/** Texture for Osc Wall Gauge Horz */
-	private static Texture oscWallGaugeHorz;
+	private static TextureRegion oscWallGaugeHorz;
 	/** Texture for Osc Wall Vert */
-	private static Texture oscWallVert;
+	private static TextureRegion oscWallVert;
 	/** Texture for Osc Wall Vert */
-	private static Texture oscWallVertNight;
+	private static TextureRegion oscWallVertNight;
 	/** Texture for Osc Wall Vert Gauge */
-	private static Texture oscWallVertGauge;
+	private static TextureRegion oscWallVertGauge;
 	/** Texture for decorative roots */
-	private static Texture rootsTexture;
+	private static TextureRegion rootsTexture;
 	/** Texture for decorative roots */
-	private static Texture rootsNightTexture;
+	private static TextureRegion rootsNightTexture;
 
 	/** List of footprints for level editor */
 	private ArrayList<FootPrintModel> footprints;
 
 	public  ArrowModel arrow;
+	/** The preview of the path of the shot being aimed, if any */
+	protected TrajectoryPredictor trajectory;
+	/** The ghosts raced in a time trial, or null if not racing */
+	protected GhostRace ghosts;
 
 	public HUD hud;
 
@@ -362,23 +410,6 @@ public abstract class WorldController implements Screen {
 	/** Whether to render the HUD */
 	protected boolean renderHUD;
 
-	// These are all lists which are filled each draw frame, in order to draw
-	// all game objects in the correct order
-	/** Border edge objects to be drawn */
-	private PooledList<BorderEdge> edgeDrawLayer;
-	/** Objects to be drawn on below others, like terrain tiles */
-	private PooledList<Obstacle> groundDrawLayer;
-	/** Objects to be drawn above terrain and under everything else */
-	private PooledList<Obstacle> rootsDrawLayer;
-	/** Objects that stick up vertically, and need to be sorted by y pos */
-	private PooledList<Obstacle> threeDimensionalDrawLayer;
-	/** Wall objects to be drawn */
-	private PooledList<Wall> wallDrawLayer;
-	/** Host objects to be drawn */
-	private PooledList<HostModel> hostDrawLayer;
-	/** Objects drawn above everything else (HUD elements, selected objects) */
-	private PooledList<Obstacle> topDrawLayer;
-
 	/** The dimensions of the board */
 	protected Vector2 dimensions;
 	/** Offset of the lower left corner. Allows for the ground to be offset */
@@ -406,128 +437,24 @@ public abstract class WorldController implements Screen {
 		assets.add(BACKG_DAY_FILE);
 		manager.load(BACKG_NIGHT_FILE,Texture.class);
 		assets.add(BACKG_NIGHT_FILE);
-		manager.load(HOST_FILE_E, Texture.class);
-		assets.add(HOST_FILE_E);
-		manager.load(HOST_FILE_N, Texture.class);
-		assets.add(HOST_FILE_N);
-		manager.load(HOST_FILE_NE, Texture.class);
-		assets.add(HOST_FILE_NE);
-		manager.load(HOST_FILE_NW, Texture.class);
-		assets.add(HOST_FILE_NW);
-		manager.load(HOST_FILE_S, Texture.class);
-		assets.add(HOST_FILE_S);
-		manager.load(HOST_FILE_SE, Texture.class);
-		assets.add(HOST_FILE_SE);
-		manager.load(HOST_FILE_SW, Texture.class);
-		assets.add(HOST_FILE_SW);
-		manager.load(HOST_FILE_W, Texture.class);
-		assets.add(HOST_FILE_W);
-		manager.load(HOST_GLYPH_FILE_E, Texture.class);
-		assets.add(HOST_GLYPH_FILE_E);
-		manager.load(HOST_GLYPH_FILE_N, Texture.class);
-		assets.add(HOST_GLYPH_FILE_N);
-		manager.load(HOST_GLYPH_FILE_NE, Texture.class);
-		assets.add(HOST_GLYPH_FILE_NE);
-		manager.load(HOST_GLYPH_FILE_NW, Texture.class);
-		assets.add(HOST_GLYPH_FILE_NW);
-		manager.load(HOST_GLYPH_FILE_S, Texture.class);
-		assets.add(HOST_GLYPH_FILE_S);
-		manager.load(HOST_GLYPH_FILE_SE, Texture.class);
-		assets.add(HOST_GLYPH_FILE_SE);
-		manager.load(HOST_GLYPH_FILE_SW, Texture.class);
-		assets.add(HOST_GLYPH_FILE_SW);
-		manager.load(HOST_GLYPH_FILE_W, Texture.class);
-		assets.add(HOST_GLYPH_FILE_W);
-		manager.load(HOST_DEATH_FILE_E, Texture.class);
-		assets.add(HOST_DEATH_FILE_E);
-		manager.load(HOST_DEATH_FILE_N, Texture.class);
-		assets.add(HOST_DEATH_FILE_N);
-		manager.load(HOST_DEATH_FILE_NE, Texture.class);
-		assets.add(HOST_DEATH_FILE_NE);
-		manager.load(HOST_DEATH_FILE_NW, Texture.class);
-		assets.add(HOST_DEATH_FILE_NW);
-		manager.load(HOST_DEATH_FILE_S, Texture.class);
-		assets.add(HOST_DEATH_FILE_S);
-		manager.load(HOST_DEATH_FILE_SE, Texture.class);
-		assets.add(HOST_DEATH_FILE_SE);
-		manager.load(HOST_DEATH_FILE_SW, Texture.class);
-		assets.add(HOST_DEATH_FILE_SW);
-		manager.load(HOST_DEATH_FILE_W, Texture.class);
-		assets.add(HOST_DEATH_FILE_W);
-		manager.load(HOST_ARMS_FILE, Texture.class);
-		assets.add(HOST_ARMS_FILE);
-		manager.load(HOST_GEN_POSSESSION_FILE, Texture.class);
-		assets.add(HOST_GEN_POSSESSION_FILE);
-		manager.load(HOST_NEW_POSSESSION_FILE, Texture.class);
-		assets.add(HOST_NEW_POSSESSION_FILE);
-		manager.load(HOST_WAKING_UP_FILE, Texture.class);
-		assets.add(HOST_WAKING_UP_FILE);
-		manager.load(HOST_GAUGE_FILE, Texture.class);
-		assets.add(HOST_GAUGE_FILE);
-		manager.load(HOST_SHADOW_FILE, Texture.class);
-		assets.add(HOST_SHADOW_FILE);
-		manager.load(WALL_DAY_FILE, Texture.class);
-		assets.add(WALL_DAY_FILE);
-		manager.load(WALL_NIGHT_FILE, Texture.class);
-		assets.add(WALL_NIGHT_FILE);
-		manager.load(WATER_FILE, Texture.class);
-		assets.add(WATER_FILE);
-		manager.load(WATER_NIGHT_FILE, Texture.class);
-		assets.add(WATER_NIGHT_FILE);
-		manager.load(CORNER_FILE, Texture.class);
-		assets.add(CORNER_FILE);
-		manager.load(CORNER_NIGHT_FILE, Texture.class);
-		assets.add(CORNER_NIGHT_FILE);
-		manager.load(SAND_FILE, Texture.class);
-		assets.add(SAND_FILE);
-		manager.load(SAND_NIGHT_FILE, Texture.class);
-		assets.add(SAND_NIGHT_FILE);
-		manager.load(CORNER_SAND_FILE, Texture.class);
-		assets.add(CORNER_SAND_FILE);
-		manager.load(CORNER_SAND_NIGHT_FILE, Texture.class);
-		assets.add(CORNER_SAND_NIGHT_FILE);
+		// Load the sprite sheets, from the atlases if the build packed them
+		if (isPacked()) {
+			for (String file : ATLAS_FILES) {
+				manager.load(file, TextureAtlas.class);
+				assets.add(file);
+			}
+		} else {
+			for (String[] sheets : SHEET_FILES) {
+				for (String file : sheets) {
+					manager.load(file, Texture.class);
+					assets.add(file);
+				}
+			}
+		}
 		manager.load(ARROW_HEAD_FILE, Texture.class);
 		assets.add(ARROW_HEAD_FILE);
 		manager.load(ARROW_DASH_FILE, Texture.class);
 		assets.add(ARROW_DASH_FILE);
-		manager.load(PEDESTAL_FILE, Texture.class);
-		assets.add(PEDESTAL_FILE);
-		manager.load(PEDESTAL_NIGHT_FILE, Texture.class);
-		assets.add(PEDESTAL_NIGHT_FILE);
-		manager.load(SPIRIT_HEAD_FILE, Texture.class);
-		assets.add(SPIRIT_HEAD_FILE);
-		manager.load(SPIRIT_TAIL_FILE, Texture.class);
-		assets.add(SPIRIT_TAIL_FILE);
-		manager.load(BORDER_EDGE_FILE, Texture.class);
-		assets.add(BORDER_EDGE_FILE);
-		manager.load(BORDER_EDGE_NIGHT_FILE, Texture.class);
-		assets.add(BORDER_EDGE_NIGHT_FILE);
-		manager.load(BORDER_CORNER_FILE, Texture.class);
-		assets.add(BORDER_CORNER_FILE);
-		manager.load(BORDER_CORNER_NIGHT_FILE, Texture.class);
-		assets.add(BORDER_CORNER_NIGHT_FILE);
-		manager.load(ENERGY_PILLAR_BODY_CHARGE_FILE, Texture.class);
-		assets.add(ENERGY_PILLAR_BODY_CHARGE_FILE);
-		manager.load(ENERGY_PILLAR_BODY_FILE, Texture.class);
-		assets.add(ENERGY_PILLAR_BODY_FILE);
-		manager.load(ENERGY_PILLAR_RADIUS_FILE, Texture.class);
-		assets.add(ENERGY_PILLAR_RADIUS_FILE);
-		manager.load(OSC_WALL_HORZ_FILE, Texture.class);
-		assets.add(OSC_WALL_HORZ_FILE);
-		manager.load(OSC_WALL_HORZ_NIGHT_FILE, Texture.class);
-		assets.add(OSC_WALL_HORZ_NIGHT_FILE);
-		manager.load(OSC_WALL_HORZ_GAUGE_FILE, Texture.class);
-		assets.add(OSC_WALL_HORZ_GAUGE_FILE);
-		manager.load(OSC_WALL_VERT_FILE, Texture.class);
-		assets.add(OSC_WALL_VERT_FILE);
-		manager.load(OSC_WALL_VERT_NIGHT_FILE, Texture.class);
-		assets.add(OSC_WALL_VERT_NIGHT_FILE);
-		manager.load(OSC_WALL_VERT_GAUGE_FILE, Texture.class);
-		assets.add(OSC_WALL_VERT_GAUGE_FILE);
-		manager.load(DECORATIVE_ROOTS_FILE, Texture.class);
-		assets.add(DECORATIVE_ROOTS_FILE);
-		manager.load(DECORATIVE_ROOTS_NIGHT_FILE, Texture.class);
-		assets.add(DECORATIVE_ROOTS_NIGHT_FILE);
 
 		// Load the font
 		FreetypeFontLoader.FreeTypeFontLoaderParameter size2Params = new FreetypeFontLoader.FreeTypeFontLoaderParameter();
@@ -551,6 +478,7 @@ public abstract class WorldController implements Screen {
 		if (worldAssetState != AssetState.LOADING) {
 			return;
 		}
+		checkAtlases(manager);
 		
 		// Allocate the tiles
 		backgroundDayTexture = createTexture(manager, BACKG_DAY_FILE, true);
@@ -577,65 +505,65 @@ public abstract class WorldController implements Screen {
 
 		worldAssetState = AssetState.COMPLETE;
 
-		hostTextureE = manager.get(HOST_FILE_E,Texture.class);
-		hostTextureN = manager.get(HOST_FILE_N, Texture.class);
-		hostTextureNE = manager.get(HOST_FILE_NE, Texture.class);
-		hostTextureNW = manager.get(HOST_FILE_NW, Texture.class);
-		hostTextureS = manager.get(HOST_FILE_S, Texture.class);
-		hostTextureSE = manager.get(HOST_FILE_SE, Texture.class);
-		hostTextureSW = manager.get(HOST_FILE_SW, Texture.class);
-		hostTextureW = manager.get(HOST_FILE_W, Texture.class);
-		hostGlyphTextureE = manager.get(HOST_GLYPH_FILE_E,Texture.class);
-		hostGlyphTextureN = manager.get(HOST_GLYPH_FILE_N, Texture.class);
-		hostGlyphTextureNE = manager.get(HOST_GLYPH_FILE_NE, Texture.class);
-		hostGlyphTextureNW = manager.get(HOST_GLYPH_FILE_NW, Texture.class);
-		hostGlyphTextureS = manager.get(HOST_GLYPH_FILE_S, Texture.class);
-		hostGlyphTextureSE = manager.get(HOST_GLYPH_FILE_SE, Texture.class);
-		hostGlyphTextureSW = manager.get(HOST_GLYPH_FILE_SW, Texture.class);
-		hostGlyphTextureW = manager.get(HOST_GLYPH_FILE_W, Texture.class);
-		hostDeathTextureE = manager.get(HOST_DEATH_FILE_E,Texture.class);
-		hostDeathTextureN = manager.get(HOST_DEATH_FILE_N, Texture.class);
-		hostDeathTextureNE = manager.get(HOST_DEATH_FILE_NE, Texture.class);
-		hostDeathTextureNW = manager.get(HOST_DEATH_FILE_NW, Texture.class);
-		hostDeathTextureS = manager.get(HOST_DEATH_FILE_S, Texture.class);
-		hostDeathTextureSE = manager.get(HOST_DEATH_FILE_SE, Texture.class);
-		hostDeathTextureSW = manager.get(HOST_DEATH_FILE_SW, Texture.class);
-		hostDeathTextureW = manager.get(HOST_DEATH_FILE_W, Texture.class);
-		hostArmsTexture = manager.get(HOST_ARMS_FILE, Texture.class);
-		hostNewPossessionTexture = manager.get(HOST_NEW_POSSESSION_FILE, Texture.class);
-		hostGenPossessionTexture = manager.get(HOST_GEN_POSSESSION_FILE, Texture.class);
-		hostWakingUpTexture = manager.get(HOST_WAKING_UP_FILE, Texture.class);
-		hostGaugeTexture = manager.get(HOST_GAUGE_FILE, Texture.class);
-		hostShadowTexture = manager.get(HOST_SHADOW_FILE, Texture.class);
-		wallDayTexture = manager.get(WALL_DAY_FILE, Texture.class);
-		wallNightTexture = manager.get(WALL_NIGHT_FILE, Texture.class);
-		waterTexture = manager.get(WATER_FILE, Texture.class);
-		waterNightTexture = manager.get(WATER_NIGHT_FILE, Texture.class);
-		cornerTexture = manager.get(CORNER_FILE, Texture.class);
-		cornerNightTexture =  manager.get(CORNER_NIGHT_FILE, Texture.class);
-		sandTexture = manager.get(SAND_FILE, Texture.class);
-		sandNightTexture = manager.get(SAND_NIGHT_FILE, Texture.class);
-		cornerSandTexture = manager.get(CORNER_SAND_FILE, Texture.class);
-		cornerSandNightTexture = manager.get(CORNER_SAND_NIGHT_FILE, Texture.class);
-		pedestalTexture = manager.get(PEDESTAL_FILE, Texture.class);
-		pedestalNightTexture = manager.get(PEDESTAL_NIGHT_FILE, Texture.class);
-		spiritHeadTexture = manager.get(SPIRIT_HEAD_FILE, Texture.class);
-		spiritTailTexture = manager.get(SPIRIT_TAIL_FILE, Texture.class);
-		borderEdgeTexture = manager.get(BORDER_EDGE_FILE, Texture.class);
-		borderEdgeNightTexture = manager.get(BORDER_EDGE_NIGHT_FILE, Texture.class);
-		borderCornerTexture = manager.get(BORDER_CORNER_FILE, Texture.class);
-		borderCornerNightTexture = manager.get(BORDER_CORNER_NIGHT_FILE, Texture.class);
-		energyPillarBody = manager.get(ENERGY_PILLAR_BODY_FILE, Texture.class);
-		energyPillarCharge = manager.get(ENERGY_PILLAR_BODY_CHARGE_FILE, Texture.class);
-		energyPillarRadius = manager.get(ENERGY_PILLAR_RADIUS_FILE, Texture.class);
-		oscWallHorz = manager.get(OSC_WALL_HORZ_FILE, Texture.class);
-		oscWallHorzNight = manager.get(OSC_WALL_HORZ_NIGHT_FILE, Texture.class);
-		oscWallGaugeHorz = manager.get(OSC_WALL_HORZ_GAUGE_FILE, Texture.class);
-		oscWallVert = manager.get(OSC_WALL_VERT_FILE, Texture.class);
-		oscWallVertNight = manager.get(OSC_WALL_VERT_NIGHT_FILE, Texture.class);
-		oscWallVertGauge = manager.get(OSC_WALL_VERT_GAUGE_FILE, Texture.class);
-		rootsTexture = manager.get(DECORATIVE_ROOTS_FILE, Texture.class);
-		rootsNightTexture = manager.get(DECORATIVE_ROOTS_NIGHT_FILE, Texture.class);
+		hostTextureE = getSheet(manager, HOST_FILE_E);
+		hostTextureN = getSheet(manager, HOST_FILE_N);
+		hostTextureNE = getSheet(manager, HOST_FILE_NE);
+		hostTextureNW = getSheet(manager, HOST_FILE_NW);
+		hostTextureS = getSheet(manager, HOST_FILE_S);
+		hostTextureSE = getSheet(manager, HOST_FILE_SE);
+		hostTextureSW = getSheet(manager, HOST_FILE_SW);
+		hostTextureW = getSheet(manager, HOST_FILE_W);
+		hostGlyphTextureE = getSheet(manager, HOST_GLYPH_FILE_E);
+		hostGlyphTextureN = getSheet(manager, HOST_GLYPH_FILE_N);
+		hostGlyphTextureNE = getSheet(manager, HOST_GLYPH_FILE_NE);
+		hostGlyphTextureNW = getSheet(manager, HOST_GLYPH_FILE_NW);
+		hostGlyphTextureS = getSheet(manager, HOST_GLYPH_FILE_S);
+		hostGlyphTextureSE = getSheet(manager, HOST_GLYPH_FILE_SE);
+		hostGlyphTextureSW = getSheet(manager, HOST_GLYPH_FILE_SW);
+		hostGlyphTextureW = getSheet(manager, HOST_GLYPH_FILE_W);
+		hostDeathTextureE = getSheet(manager, HOST_DEATH_FILE_E);
+		hostDeathTextureN = getSheet(manager, HOST_DEATH_FILE_N);
+		hostDeathTextureNE = getSheet(manager, HOST_DEATH_FILE_NE);
+		hostDeathTextureNW = getSheet(manager, HOST_DEATH_FILE_NW);
+		hostDeathTextureS = getSheet(manager, HOST_DEATH_FILE_S);
+		hostDeathTextureSE = getSheet(manager, HOST_DEATH_FILE_SE);
+		hostDeathTextureSW = getSheet(manager, HOST_DEATH_FILE_SW);
+		hostDeathTextureW = getSheet(manager, HOST_DEATH_FILE_W);
+		hostArmsTexture = getSheet(manager, HOST_ARMS_FILE);
+		hostNewPossessionTexture = getSheet(manager, HOST_NEW_POSSESSION_FILE);
+		hostGenPossessionTexture = getSheet(manager, HOST_GEN_POSSESSION_FILE);
+		hostWakingUpTexture = getSheet(manager, HOST_WAKING_UP_FILE);
+		hostGaugeTexture = getSheet(manager, HOST_GAUGE_FILE);
+		hostShadowTexture = getSheet(manager, HOST_SHADOW_FILE);
+		wallDayTexture = getSheet(manager, WALL_DAY_FILE);
+		wallNightTexture = getSheet(manager, WALL_NIGHT_FILE);
+		waterTexture = getSheet(manager, WATER_FILE);
+		waterNightTexture = getSheet(manager, WATER_NIGHT_FILE);
+		cornerTexture = getSheet(manager, CORNER_FILE);
+		cornerNightTexture =  getSheet(manager, CORNER_NIGHT_FILE);
+		sandTexture = getSheet(manager, SAND_FILE);
+		sandNightTexture = getSheet(manager, SAND_NIGHT_FILE);
+		cornerSandTexture = getSheet(manager, CORNER_SAND_FILE);
+		cornerSandNightTexture = getSheet(manager, CORNER_SAND_NIGHT_FILE);
+		pedestalTexture = getSheet(manager, PEDESTAL_FILE);
+		pedestalNightTexture = getSheet(manager, PEDESTAL_NIGHT_FILE);
+		spiritHeadTexture = getSheet(manager, SPIRIT_HEAD_FILE);
+		spiritTailTexture = getSheet(manager, SPIRIT_TAIL_FILE);
+		borderEdgeTexture = getSheet(manager, BORDER_EDGE_FILE);
+		borderEdgeNightTexture = getSheet(manager, BORDER_EDGE_NIGHT_FILE);
+		borderCornerTexture = getSheet(manager, BORDER_CORNER_FILE);
+		borderCornerNightTexture = getSheet(manager, BORDER_CORNER_NIGHT_FILE);
+		energyPillarBody = getSheet(manager, ENERGY_PILLAR_BODY_FILE);
+		energyPillarCharge = getSheet(manager, ENERGY_PILLAR_BODY_CHARGE_FILE);
+		energyPillarRadius = getSheet(manager, ENERGY_PILLAR_RADIUS_FILE);
+		oscWallHorz = getSheet(manager, OSC_WALL_HORZ_FILE);
+		oscWallHorzNight = getSheet(manager, OSC_WALL_HORZ_NIGHT_FILE);
+		oscWallGaugeHorz = getSheet(manager, OSC_WALL_HORZ_GAUGE_FILE);
+		oscWallVert = getSheet(manager, OSC_WALL_VERT_FILE);
+		oscWallVertNight = getSheet(manager, OSC_WALL_VERT_NIGHT_FILE);
+		oscWallVertGauge = getSheet(manager, OSC_WALL_VERT_GAUGE_FILE);
+		rootsTexture = getSheet(manager, DECORATIVE_ROOTS_FILE);
+		rootsNightTexture = getSheet(manager, DECORATIVE_ROOTS_NIGHT_FILE);
 
 
 		factory = new Factory(scale, spiritBodyTexture, spiritHeadTexture, spiritTailTexture,
@@ -669,7 +597,7 @@ public abstract class WorldController implements Screen {
 	 */
 	protected TextureRegion createTexture(AssetManager manager, String file, boolean repeat) {
 		if (manager.isLoaded(file)) {
-			TextureRegion region = new TextureRegion(manager.get(file, Texture.class));
+			TextureRegion region = new TextureRegion(getSheet(manager, file));
 			region.getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
 			if (repeat) {
 				region.getTexture().setWrap(Texture.TextureWrap.Repeat, Texture.TextureWrap.Repeat);
@@ -680,6 +608,97 @@ public abstract class WorldController implements Screen {
 	}
 	
 
+	/**
+	 * Returns true if the sprite sheets were packed into texture atlases.
+	 *
+	 * The atlases are made by the build, so a copy of the game run without it
+	 * loads the sheets one texture at a time instead.
+	 *
+	 * @return true if every texture atlas is present
+	 */
+	private static boolean isPacked() {
+		for (String file : ATLAS_FILES) {
+			if (!Gdx.files.internal(file).exists()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the region holding the given sprite sheet.
+	 *
+	 * If the sheets were packed, this is the region of the sheet in its atlas,
+	 * where a night sheet goes by the name of its day sheet.  Otherwise it is the
+	 * whole texture loaded from the file.
+	 *
+	 * @param manager 	Reference to global asset manager.
+	 * @param file		The sprite sheet file
+	 *
+	 * @return the region holding the given sprite sheet.
+	 */
+	protected TextureRegion getSheet(AssetManager manager, String file) {
+		for (int ii = 0; ii < SHEET_FILES.length; ii++) {
+			if (!manager.isLoaded(ATLAS_FILES[ii])) {
+				continue;
+			}
+			for (int jj = 0; jj < SHEET_FILES[ii].length; jj++) {
+				if (SHEET_FILES[ii][jj].equals(file)) {
+					TextureRegion region = manager.get(ATLAS_FILES[ii], TextureAtlas.class)
+							.findRegion(getRegionName(ii, jj));
+					if (region != null) {
+						return region;
+					}
+				}
+			}
+		}
+		if (!manager.isLoaded(file)) {
+			throw new GdxRuntimeException("Sprite sheet not loaded: " + file);
+		}
+		return new TextureRegion(manager.get(file, Texture.class));
+	}
+
+	/**
+	 * Returns the name of a sprite sheet in its atlas.
+	 *
+	 * This is the path of the sheet less the extension, where a night sheet goes
+	 * by the name of its day sheet.
+	 *
+	 * @param group	The index of the group of the sheet in SHEET_FILES
+	 * @param index	The index of the sheet in its group
+	 *
+	 * @return the name of the sprite sheet in its atlas.
+	 */
+	private static String getRegionName(int group, int index) {
+		String sheet = (SHEET_FILES[group] == NIGHT_SHEETS ? DAY_SHEETS[index] : SHEET_FILES[group][index]);
+		return sheet.substring(0, sheet.lastIndexOf('.'));
+	}
+
+	/**
+	 * Logs an error for every sprite sheet missing from its texture atlas.
+	 *
+	 * The sheets packed by the build are listed in core/build.gradle as well as in
+	 * SHEET_FILES.  A sheet added to one list and not the other is caught here, as
+	 * the level is loaded, rather than when the sheet is first drawn.
+	 *
+	 * @param manager 	Reference to global asset manager.
+	 */
+	private static void checkAtlases(AssetManager manager) {
+		for (int ii = 0; ii < SHEET_FILES.length; ii++) {
+			if (!manager.isLoaded(ATLAS_FILES[ii])) {
+				continue;
+			}
+			TextureAtlas atlas = manager.get(ATLAS_FILES[ii], TextureAtlas.class);
+			for (int jj = 0; jj < SHEET_FILES[ii].length; jj++) {
+				if (atlas.findRegion(getRegionName(ii, jj)) == null) {
+					Gdx.app.error("WorldController", "Sprite sheet " + SHEET_FILES[ii][jj] + " is missing from "
+							+ ATLAS_FILES[ii] + "; add it to the packTextures lists in core/build.gradle",
+							new IllegalStateException());
+				}
+			}
+		}
+	}
+
 	/** 
 	 * Unloads the assets for this game.
 	 * 
@@ -724,6 +743,14 @@ public abstract class WorldController implements Screen {
 	public static final int WORLD_VELOC = 6;
 	/** Number of position iterations for the constrain solvers */
 	public static final int WORLD_POSIT = 2;
+	/** Maximum number of physics steps per frame, so slow frames cannot spiral */
+	public static final int MAX_SUBSTEPS = 5;
+	/** How far the ground images reach past the positions of their tiles, in world units */
+	private static final float GROUND_MARGIN = 2 * Constants.TILE_WIDTH;
+	/** The speed that simulates as many frames as fit in the time budget, and draws none */
+	public static final int SPEED_MAX = 0;
+	/** The most time a displayed frame may spend simulating at SPEED_MAX, in nanoseconds */
+	public static final long SPEED_MAX_BUDGET_NANOS = 1000000000L / 30;
 	
 	/** Width of the game world in Box2d units */
 	protected static final float DEFAULT_WIDTH  = 32.0f;
@@ -738,6 +765,20 @@ public abstract class WorldController implements Screen {
 	protected PooledList<Obstacle> objects  = new PooledList<Obstacle>();
 	/** Queue for adding objects */
 	protected PooledList<Obstacle> addQueue = new PooledList<Obstacle>();
+	/** The entities of the objects in the world, grouped into families for the systems */
+	protected Engine engine;
+	/** Steps, updates and interpolates the objects that move */
+	private MovementSystem movement;
+	/** Draws the objects in layers, kept as objects come and go */
+	private RenderSystem layers;
+	/** The background and fixed ground, drawn once */
+	private GroundCache groundCache = new GroundCache();
+	/** The board the ground is drawn for, in pixels */
+	private Rectangle groundBoard = new Rectangle();
+	/** The area the ground is drawn over, in pixels */
+	private Rectangle groundArea = new Rectangle();
+	/** The bounds of the fixed ground objects */
+	private Rectangle groundBounds = new Rectangle();
 	/** Listener that will update the player mode when we are done */
 	private ScreenListener listener;
 
@@ -758,6 +799,14 @@ public abstract class WorldController implements Screen {
 	private boolean debug;
 	/** Countdown active for winning or losing */
 	private int countdown;
+	/** Simulation time not yet consumed by a fixed physics step */
+	private float accumulator;
+	/** The amount of time for a physics engine step, which may be slower than WORLD_STEP */
+	private float stepSize = WORLD_STEP;
+	/** The number of simulation frames per displayed frame, or SPEED_MAX */
+	private int speed = 1;
+	/** Whether every displayed frame is exactly one physics step */
+	private boolean lockstep;
 	/** Controls the menu */
 	public boolean menu;
 	/** Current level */
@@ -786,6 +835,78 @@ public abstract class WorldController implements Screen {
 		return debug;
 	}
 
+	/**
+	 * Returns the amount of time for a physics engine step
+	 *
+	 * @return the amount of time for a physics engine step
+	 */
+	public float getStepSize() {
+		return stepSize;
+	}
+
+	/**
+	 * Sets the amount of time for a physics engine step
+	 *
+	 * Slower machines can step the world less often than WORLD_STEP.  The spirit
+	 * is then stepped in pieces while it flies, so it does not pass through walls.
+	 *
+	 * @param value  the amount of time for a physics engine step
+	 */
+	public void setStepSize(float value) {
+		stepSize = value;
+	}
+
+	/**
+	 * Returns the number of simulation frames per displayed frame, or SPEED_MAX
+	 *
+	 * @return the number of simulation frames per displayed frame, or SPEED_MAX
+	 */
+	public int getSpeed() {
+		return speed;
+	}
+
+	/**
+	 * Sets the number of simulation frames per displayed frame
+	 *
+	 * A speed above 1 fast-forwards the game: the extra frames are each one fixed
+	 * step of update and postUpdate, and only the last is drawn.  SPEED_MAX runs as
+	 * many as fit in SPEED_MAX_BUDGET_NANOS and draws nothing.  This is for replays,
+	 * demos and testing long host patrols.
+	 *
+	 * @param value  the number of simulation frames per displayed frame, or SPEED_MAX
+	 *
+	 * @throws IllegalArgumentException if value is below 1 and not SPEED_MAX
+	 */
+	public void setSpeed(int value) {
+		if (value < 1 && value != SPEED_MAX) {
+			throw new IllegalArgumentException("Speed must be at least 1, or SPEED_MAX: " + value);
+		}
+		speed = value;
+	}
+
+	/**
+	 * Returns true if every displayed frame is exactly one physics step
+	 *
+	 * @return true if every displayed frame is exactly one physics step
+	 */
+	public boolean isLockstep() {
+		return lockstep;
+	}
+
+	/**
+	 * Sets whether every displayed frame is exactly one physics step
+	 *
+	 * In lockstep, each frame updates the game by the step size, however long the
+	 * frame really took, so the frames line up with the steps of a headless
+	 * Simulation.  This is how input is recorded for playback.  The game runs at
+	 * the rate of the display, which is real time with vsync at 60 Hz.
+	 *
+	 * @param value  whether every displayed frame is exactly one physics step
+	 */
+	public void setLockstep(boolean value) {
+		lockstep = value;
+	}
+
 	/**
 	 * Sets whether debug mode is active.
 	 *
@@ -1006,14 +1127,12 @@ public abstract class WorldController implements Screen {
 		dimensions = new Vector2();
 		lowerLeft = new Vector2();
 		footprints = new ArrayList<>();
-		topDrawLayer = new PooledList<>();
-		edgeDrawLayer = new PooledList<>();
-		groundDrawLayer = new PooledList<>();
-		rootsDrawLayer = new PooledList<>();
-		hostDrawLayer = new PooledList<>();
-		wallDrawLayer = new PooledList<>();
-		threeDimensionalDrawLayer = new PooledList<>();
 
+		engine = new Engine();
+		movement = new MovementSystem();
+		engine.addSystem(movement);
+		layers = new RenderSystem();
+		engine.addSystem(layers);
 
 		hud = new HUD();
 		tutorial = new Tutorial();
@@ -1026,9 +1145,10 @@ public abstract class WorldController implements Screen {
 		for(Obstacle obj : objects) {
 			obj.deactivatePhysics(world);
 		}
-		objects.clear();
+		clearObjects();
 		addQueue.clear();
 		world.dispose();
+		groundCache.dispose();
 		hud.dispose();
 		tutorial.dispose();
 		objects = null;
@@ -1063,6 +1183,56 @@ public abstract class WorldController implements Screen {
 		assert inBounds(obj) : "Object is not in bounds";
 		objects.add(obj);
 		obj.activatePhysics(world);
+		addEntity(obj);
+	}
+
+	/**
+	 * Adds the entity of an object to the engine, making one if needed
+	 *
+	 * @param obj The object in the world
+	 */
+	protected void addEntity(Obstacle obj) {
+		if (obj.getEntity() == null) {
+			obj.setEntity(ObstacleEntities.create(obj, areTilesFixed()));
+			engine.addEntity(obj.getEntity());
+		}
+	}
+
+	/**
+	 * Removes every object from the world list and from the engine
+	 *
+	 * The objects must be deactivated first.  Their bodies are left to the world.
+	 */
+	protected void clearObjects() {
+		for (Obstacle obj : objects) {
+			obj.setEntity(null);
+		}
+		objects.clear();
+		engine.removeAllEntities();
+	}
+
+	/**
+	 * Adds an entity for every object in the world that lost its own
+	 *
+	 * Objects put back into the world list directly, as on a retry, are given
+	 * their entities again this way.
+	 */
+	protected void restoreEntities() {
+		for (Obstacle obj : objects) {
+			addEntity(obj);
+		}
+	}
+
+	/**
+	 * Returns true if the tiles of the board never move while this mode runs
+	 *
+	 * Fixed tiles are never stepped or updated.  A mode that edits the board
+	 * must return false.
+	 *
+	 * @return true if the tiles of the board never move
+	 */
+	protected boolean areTilesFixed() {
+		return true;
 	}
 
 	/**
@@ -1086,6 +1256,16 @@ public abstract class WorldController implements Screen {
 	 * This method disposes of the world and creates a new one.
 	 */
 	public abstract void reset();
+
+	/**
+	 * Restarts the current level from the beginning.
+	 *
+	 * By default this is a full reset.  Subclasses that can put the level back in
+	 * place should override it, so that a retry needs no loading.
+	 */
+	public void retry() {
+		reset();
+	}
 	
 	/**
 	 * Returns whether to process the update loop
@@ -1100,12 +1280,7 @@ public abstract class WorldController implements Screen {
 	 */
 	public boolean preUpdate(float dt) {
 		InputController input = InputController.getInstance();
-		if (this instanceof LevelDesignerMode) {
-			input.readInput(bounds, scale, canvas.getZoom());
-		}
-		else{
-			input.readInput();
-		}
+		readInput();
 		if (listener == null) {
 			return true;
 		}
@@ -1117,7 +1292,7 @@ public abstract class WorldController implements Screen {
 		
 		// Handle resets
 		if (input.didReset()) {
-			reset();
+			retry();
 		}
 
 		if ((input.didPause() || hud.getPauseClicked()) && renderHUD) {
@@ -1174,6 +1349,38 @@ public abstract class WorldController implements Screen {
 		return true;
 	}
 
+	/**
+	 * Reads the input for the next frame of the simulation
+	 */
+	private void readInput() {
+		InputController input = InputController.getInstance();
+		if (this instanceof LevelDesignerMode) {
+			input.readInput(bounds, scale, canvas.getZoom());
+		}
+		else{
+			input.readInput();
+		}
+	}
+
+	/**
+	 * Simulates the extra frames of a fast-forward speed.
+	 *
+	 * Each frame is one fixed step of update and postUpdate.  The devices are
+	 * read once per displayed frame, and the first step has consumed its click and
+	 * release, so a press is not acted on more than once.  Fast-forwarding stops
+	 * at the end of the level, so the game can move on.
+	 */
+	private void fastForward() {
+		long deadline = System.nanoTime() + SPEED_MAX_BUDGET_NANOS;
+		for (int i = 1; speed == SPEED_MAX || i < speed; i++) {
+			if (complete || failed || (speed == SPEED_MAX && System.nanoTime() > deadline)) {
+				return;
+			}
+			update(stepSize);
+			postUpdate(stepSize);
+		}
+	}
+
 	public void setFootprints(ArrayList<FootPrintModel> list) {
 		footprints = list;
 	}
@@ -1205,8 +1412,27 @@ public abstract class WorldController implements Screen {
 			addObject(addQueue.poll());
 		}
 
-		// Turn the physics engine crank.
-		world.step(WORLD_STEP,WORLD_VELOC,WORLD_POSIT);
+		// Turn the physics engine crank in fixed steps, banking the remainder.
+		accumulator += dt;
+		int steps = 0;
+		while (accumulator >= stepSize && steps < MAX_SUBSTEPS) {
+			movement.savePreviousStates();
+			beginStep(stepSize);
+			// Fast objects may need the step cut into smaller pieces
+			int pieces = getStepPieces(stepSize);
+			for (int i = 0; i < pieces; i++) {
+				world.step(stepSize/pieces,WORLD_VELOC,WORLD_POSIT);
+				postStep();
+			}
+			endStep();
+			accumulator -= stepSize;
+			steps++;
+		}
+
+		// Drop any backlog we could not simulate, rather than slowing down later frames
+		if (steps == MAX_SUBSTEPS && accumulator >= stepSize) {
+			accumulator = 0;
+		}
 
 		// Garbage collect the deleted objects.
 		// Note how we use the linked list nodes to delete O(1) in place.
@@ -1218,13 +1444,77 @@ public abstract class WorldController implements Screen {
 			if (obj.isRemoved()) {
 				obj.deactivatePhysics(world);
 				entry.remove();
-			} else {
-				// Note that update is called last!
-				obj.update(dt);
+				if (obj.getEntity() != null) {
+					engine.removeEntity(obj.getEntity());
+					obj.setEntity(null);
+				}
 			}
 		}
+
+		// Note that update is called last, and only on the objects that move
+		movement.setAlpha(accumulator / stepSize);
+		engine.update(dt);
 	}
 	
+	/**
+	 * Starts the fixed step clock over, as at the start of a level.
+	 *
+	 * Time banked from the last attempt is dropped, every moving object is drawn
+	 * where it is rather than blended from where it was, and any click not yet
+	 * seen by a step is forgotten.
+	 */
+	protected void resetStepClock() {
+		accumulator = 0;
+		movement.setAlpha(0);
+		movement.savePreviousStates();
+		InputController.getInstance().clearStepInput();
+	}
+
+	/**
+	 * Called before each whole physics step, to apply the gameplay rules for it
+	 *
+	 * Rules that count steps must run here rather than in update, as a frame may
+	 * take no step or several.  By default it does nothing.
+	 *
+	 * @param dt The length of the step in seconds
+	 */
+	protected void beginStep(float dt) {
+	}
+
+	/**
+	 * Called once a whole physics step is done, after all of its pieces
+	 *
+	 * This is the place for anything kept per step, such as the track of a run.
+	 * By default it does nothing.
+	 */
+	protected void endStep() {
+	}
+
+	/**
+	 * Returns the number of pieces to cut the next physics step into
+	 *
+	 * A step may be too long for a fast object, which could pass through a thin
+	 * obstacle between two steps.  Cutting the step into pieces only costs time
+	 * while something that fast is moving.  By default a step is never cut.
+	 *
+	 * @param dt The length of the step to cut
+	 *
+	 * @return the number of pieces to cut the step into
+	 */
+	protected int getStepPieces(float dt) {
+		return 1;
+	}
+
+	/**
+	 * Processes the aftermath of a single physics step
+	 *
+	 * This is called after every fixed world step, outside of any Box2D callback,
+	 * so that contacts recorded during the step can be resolved.  By default it does
+	 * nothing.
+	 */
+	protected void postStep() {
+	}
+
 	/**
 	 * Draw the physics objects to the canvas
 	 *
@@ -1236,103 +1526,40 @@ public abstract class WorldController implements Screen {
 	 * @param delta The drawing context
 	 */
 	public void draw(float delta) {
-		canvas.clear(currentLevel, renderHUD && !inCustom);
-
-		// Clear the lists so they can be repopulated
-		edgeDrawLayer.clear();
-		groundDrawLayer.clear();
-		rootsDrawLayer.clear();
-		threeDimensionalDrawLayer.clear();
-		hostDrawLayer.clear();
-		wallDrawLayer.clear();
-		topDrawLayer.clear();
-
-
-		canvas.begin();
-
-		// Use the lower left corner of tiles, not the center, to start drawing the canvas
-		for(float x = 0; x < scale.x * dimensions.x; x += canvas.getWidth()) {
-			for(float y = 0; y < scale.y * dimensions.y; y += canvas.getHeight()) {
-
-				// Calculate the width and height of the canvas segment. If the
-				// board doesn't extend the entire way, find the desired dimensions
-				float width = Math.min(canvas.getWidth(), (scale.x * dimensions.x) - x);
-				float height = Math.min(canvas.getHeight(), (scale.y * dimensions.y) - y);
-
-				// Draw only the part of the texture that is in game, using the
-				// texture coordinates
-
-				canvas.draw(backgroundDayTexture.getTexture(), Color.WHITE,
-						(scale.x * lowerLeft.x) + x, (scale.y * lowerLeft.y) + y,  width, height,
-						0.f, 0.f, width / canvas.getWidth(), height / canvas.getHeight());
-
-				if (renderHUD && !inCustom) {
-					canvas.draw(backgroundNightTexture.getTexture(), new Color(1,1,1,1 - currentLevel/32.0f),
-							(scale.x * lowerLeft.x) + x, (scale.y * lowerLeft.y) + y,  width, height,
-							0.f, 0.f, width / canvas.getWidth(), height / canvas.getHeight());
-				}
+		boolean night = renderHUD && !inCustom;
+		canvas.clear(currentLevel, night);
+
+		// Draw the ground into its cache if the board or the tiles on it changed
+		groundBoard.set(scale.x * lowerLeft.x, scale.y * lowerLeft.y, scale.x * dimensions.x, scale.y * dimensions.y);
+		if (!groundCache.isCurrent(groundBoard, currentLevel, night) || layers.isGroundChanged()) {
+			groundArea.set(groundBoard);
+			if (layers.getFixedGroundBounds(groundBounds)) {
+				groundBounds.x = (groundBounds.x - GROUND_MARGIN) * scale.x;
+				groundBounds.y = (groundBounds.y - GROUND_MARGIN) * scale.y;
+				groundBounds.width = (groundBounds.width + 2 * GROUND_MARGIN) * scale.x;
+				groundBounds.height = (groundBounds.height + 2 * GROUND_MARGIN) * scale.y;
+				groundArea.merge(groundBounds);
 			}
-		}
-		canvas.end();
-
-		for(Obstacle obj : objects) {
-			if(obj.inHUD || obj.selected) {
-				topDrawLayer.add(obj);
-			} else if(obj instanceof Terrain || obj instanceof BorderCorner) {
-				groundDrawLayer.add(obj);
-			} else if(obj instanceof DecorativeRoots) {
-				rootsDrawLayer.add(obj);
-			} else if(obj instanceof BorderEdge) {
-				edgeDrawLayer.add((BorderEdge)obj);
-			} else {
-				threeDimensionalDrawLayer.add(obj);
-				if(obj instanceof HostModel) {
-					hostDrawLayer.add((HostModel)obj);
-				} else if(obj instanceof Wall) {
-					wallDrawLayer.add((Wall)obj);
-				}
+			if (groundCache.begin(canvas, groundArea, groundBoard, currentLevel, night)) {
+				drawGround(night, false);
+				groundCache.end(canvas);
 			}
 		}
 
-		canvas.begin();
-
-		Collections.sort(threeDimensionalDrawLayer, new Comparator<Obstacle>() {
-			@Override
-			public int compare(Obstacle ob1, Obstacle ob2) {
-				// Want to sort them so furthest away is in front, so those are
-				// drawn first
-				float diff = ob2.getY() - ob1.getY();
-
-				if(diff > 0) return 1;
-				else if(diff < 0) return -1;
-				else return 0;
-			}
-		});
+		// Only draw the objects in view of the camera
+		OrthographicCamera camera = canvas.getCamera();
+		float viewWidth = camera.viewportWidth * camera.zoom;
+		float viewHeight = camera.viewportHeight * camera.zoom;
+		layers.setView((camera.position.x - viewWidth / 2) / scale.x, (camera.position.y - viewHeight / 2) / scale.y,
+				viewWidth / scale.x, viewHeight / scale.y);
 
-		for(Obstacle obj : groundDrawLayer) {
-			obj.draw(canvas);
-		}
-		for(Obstacle obj : rootsDrawLayer) {
-			obj.draw(canvas);
-		}
-		for(BorderEdge edge : edgeDrawLayer) {
-			edge.drawTop(canvas);
-		}
-		for(Obstacle obj : threeDimensionalDrawLayer) {
-			obj.draw(canvas);
-		}
-		for(Wall wall : wallDrawLayer) {
-			wall.drawTop(canvas);
-		}
-		for(BorderEdge edge : edgeDrawLayer) {
-			edge.drawNotTop(canvas);
-		}
-		for(HostModel host : hostDrawLayer) {
-			host.drawCharge(canvas);
-		}
-		for(Obstacle obj : topDrawLayer) {
-			obj.draw(canvas);
+		canvas.begin();
+		if (groundCache.isReady()) {
+			groundCache.draw(canvas);
+		} else {
+			drawGround(night, true);
 		}
+		layers.draw(canvas);
 
 		// Draw footprints
 		for (FootPrintModel fp : footprints) {
@@ -1340,13 +1567,30 @@ public abstract class WorldController implements Screen {
 		}
 		canvas.end();
 
+		// Draw the ghosts of a time trial in a pass of their own, over the level
+		if (ghosts != null && ghosts.getGhostCount() > 0) {
+			canvas.begin();
+			drawGhosts();
+			canvas.end();
+		}
+
 		// Draw the arrow
 		if (arrow != null) { arrow.draw(canvas); }
 
+		// Draw the path the aimed shot would take
+		if (arrow != null && trajectory != null && trajectory.isValid()) {
+			canvas.beginDebug();
+			trajectory.draw(canvas, scale);
+			canvas.endDebug();
+		}
+
 		if (debug) {
 			canvas.beginDebug();
 			for(Obstacle obj : objects) {
-				obj.drawDebug(canvas);
+				// Merged hitboxes span the board, so they are always drawn
+				if (obj instanceof TileMapObstacle || layers.isVisible(obj)) {
+					obj.drawDebug(canvas);
+				}
 			}
 			canvas.endDebug();
 		}
@@ -1360,6 +1604,53 @@ public abstract class WorldController implements Screen {
 		}
 	}
 	
+	/**
+	 * Draws the background and the fixed ground under every object
+	 *
+	 * This is drawn into the ground cache once per level, or every frame if the
+	 * level is too large to cache.  It must be called between begin() and end()
+	 * of the canvas.
+	 *
+	 * @param night Whether to draw the night over the day
+	 * @param cull Whether to skip the tiles out of view
+	 */
+	private void drawGround(boolean night, boolean cull) {
+		nightOpacity.set(1, 1, 1, 1 - currentLevel/32.0f);
+		// Use the lower left corner of tiles, not the center, to start drawing the canvas
+		for(float x = 0; x < scale.x * dimensions.x; x += canvas.getWidth()) {
+			for(float y = 0; y < scale.y * dimensions.y; y += canvas.getHeight()) {
+
+				// Calculate the width and height of the canvas segment. If the
+				// board doesn't extend the entire way, find the desired dimensions
+				float width = Math.min(canvas.getWidth(), (scale.x * dimensions.x) - x);
+				float height = Math.min(canvas.getHeight(), (scale.y * dimensions.y) - y);
+
+				// Draw only the part of the texture that is in game, using the
+				// texture coordinates
+
+				if (night) {
+					canvas.draw(backgroundDayTexture.getTexture(), backgroundNightTexture.getTexture(), nightOpacity,
+							(scale.x * lowerLeft.x) + x, (scale.y * lowerLeft.y) + y,  width, height,
+							0.f, 0.f, width / canvas.getWidth(), height / canvas.getHeight());
+				} else {
+					canvas.draw(backgroundDayTexture.getTexture(), Color.WHITE,
+							(scale.x * lowerLeft.x) + x, (scale.y * lowerLeft.y) + y,  width, height,
+							0.f, 0.f, width / canvas.getWidth(), height / canvas.getHeight());
+				}
+			}
+		}
+		layers.drawFixedGround(canvas, cull);
+	}
+
+	/**
+	 * Draws the ghosts of a time trial
+	 *
+	 * This is called between begin() and end() of the canvas, and only when there
+	 * are ghosts to draw.  By default it does nothing.
+	 */
+	protected void drawGhosts() {
+	}
+
 	/**
 	 * Called when the Screen is resized. 
 	 *
@@ -1370,7 +1661,8 @@ public abstract class WorldController implements Screen {
 	 * @param height The new height in pixels
 	 */
 	public void resize(int width, int height) {
-		// IGNORE FOR NOW
+		// The background is tiled by the size of the canvas
+		groundCache.invalidate();
 	}
 
 	/**
@@ -1387,11 +1679,23 @@ public abstract class WorldController implements Screen {
 
 			/** If the game isnt paused or switching screens, continue updating GP */
 			if ((updateGP && !isPaused) || pressedPause) {
-				update(delta); // This is the one that must be defined.
-				postUpdate(delta);
+				// A fast-forward runs each of its frames as exactly one fixed step
+				float frameTime = lockstep || speed != 1 ? stepSize : delta;
+				update(frameTime); // This is the one that must be defined.
+				// In lockstep, the world only steps when the gameplay rules did
+				if (!lockstep || !pressedPause) {
+					postUpdate(frameTime);
+				}
+				if (speed != 1 && !pressedPause) {
+					fastForward();
+				}
 			}
 
-			draw(delta);
+			// At full speed nothing is drawn, unless the game is paused
+			boolean drawn = speed != SPEED_MAX || isPaused || pressedPause;
+			if (drawn) {
+				draw(delta);
+			}
 
 			/** If it was the first time the player pressed pause */
 			if (pressedPause) {
@@ -1401,7 +1705,7 @@ public abstract class WorldController implements Screen {
 			}
 
 			/** Draw the HUD (on top of the environment */
-			if (renderHUD) {
+			if (renderHUD && drawn) {
 				hud.getStage().act(delta);
 				hud.getStage().draw();
 			}
@@ -1432,7 +1736,7 @@ public abstract class WorldController implements Screen {
 		if (hud.getRetryClicked()) {
 			isPaused = false;
 			hud.reset();
-			reset();
+			retry();
 		}
 		if (hud.getPlayClicked()) {
 			hud.resumeGame();
@@ -0,0 +1,154 @@
+/*
+ * ZoneGrid.java
+ *
+ * Answers "what is the ground like here" for the gameplay rules, without asking
+ * Box2D.  Sand slows the possessed host and energy pillars charge it, but neither
+ * stops anything, so neither needs contacts.
+ */
+package edu.cornell.gdiac.physics;
+
+import com.badlogic.gdx.math.MathUtils;
+import edu.cornell.gdiac.physics.obstacle.EnergyPillar;
+import edu.cornell.gdiac.physics.obstacle.SandTile;
+
+/**
+ * A grid of the level tiles, recording the zones each tile lies in.
+ *
+ * The grid uses the same tiles as the Board: a tile is TILE_WIDTH by TILE_HEIGHT,
+ * and tile centers are the positions the level file gives for its tiles.  It is
+ * built once when a level is loaded.  Each cell knows whether it is sand, and which
+ * energy pillars have a field that can reach it at full charge.  A query is then a
+ * lookup, plus an ellipse test for the few pillars near the point.
+ */
+public class ZoneGrid {
+
+    /** The pillars near a cell with none */
+    private static final EnergyPillar[] NO_PILLARS = new EnergyPillar[0];
+
+    /** The x-coordinate of the left edge of the grid */
+    private float originX;
+    /** The y-coordinate of the bottom edge of the grid */
+    private float originY;
+    /** The number of columns of tiles */
+    private int cols;
+    /** The number of rows of tiles */
+    private int rows;
+
+    /** Whether each tile is sand, by column then row */
+    private boolean[][] sand;
+    /** The pillars whose field can reach each tile, by column then row */
+    private EnergyPillar[][][] pillars;
+
+    /**
+     * Builds the zones of a level
+     *
+     * @param level The level to build the zones of
+     */
+    public ZoneGrid(Level level) {
+        // Find the extent of every zone
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        for (SandTile tile : level.sand) {
+            minX = Math.min(minX, tile.getX() - Constants.TILE_WIDTH / 2f);
+            minY = Math.min(minY, tile.getY() - Constants.TILE_HEIGHT / 2f);
+            maxX = Math.max(maxX, tile.getX() + Constants.TILE_WIDTH / 2f);
+            maxY = Math.max(maxY, tile.getY() + Constants.TILE_HEIGHT / 2f);
+        }
+        for (EnergyPillar ep : level.energyPillars) {
+            minX = Math.min(minX, ep.getX() - ep.getMaxFieldMajor());
+            minY = Math.min(minY, ep.getY() - ep.getMaxFieldMinor());
+            maxX = Math.max(maxX, ep.getX() + ep.getMaxFieldMajor());
+            maxY = Math.max(maxY, ep.getY() + ep.getMaxFieldMinor());
+        }
+        if (minX > maxX) {
+            sand = new boolean[0][0];
+            pillars = new EnergyPillar[0][0][];
+            return;
+        }
+
+        originX = MathUtils.floor(minX / Constants.TILE_WIDTH) * Constants.TILE_WIDTH;
+        originY = MathUtils.floor(minY / Constants.TILE_HEIGHT) * Constants.TILE_HEIGHT;
+        cols = MathUtils.ceil((maxX - originX) / Constants.TILE_WIDTH);
+        rows = MathUtils.ceil((maxY - originY) / Constants.TILE_HEIGHT);
+
+        sand = new boolean[cols][rows];
+        for (SandTile tile : level.sand) {
+            sand[getColumn(tile.getX())][getRow(tile.getY())] = true;
+        }
+
+        pillars = new EnergyPillar[cols][rows][];
+        for (int x = 0; x < cols; x++) {
+            for (int y = 0; y < rows; y++) {
+                pillars[x][y] = NO_PILLARS;
+            }
+        }
+        for (EnergyPillar ep : level.energyPillars) {
+            int left = getColumn(ep.getX() - ep.getMaxFieldMajor());
+            int right = getColumn(ep.getX() + ep.getMaxFieldMajor());
+            int bottom = getRow(ep.getY() - ep.getMaxFieldMinor());
+            int top = getRow(ep.getY() + ep.getMaxFieldMinor());
+            for (int x = left; x <= right; x++) {
+                for (int y = bottom; y <= top; y++) {
+                    EnergyPillar[] near = new EnergyPillar[pillars[x][y].length + 1];
+                    System.arraycopy(pillars[x][y], 0, near, 0, near.length - 1);
+                    near[near.length - 1] = ep;
+                    pillars[x][y] = near;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the column of the tile holding an x-coordinate, clamped to the grid
+     */
+    private int getColumn(float x) {
+        return MathUtils.clamp(MathUtils.floor((x - originX) / Constants.TILE_WIDTH), 0, cols - 1);
+    }
+
+    /**
+     * Returns the row of the tile holding a y-coordinate, clamped to the grid
+     */
+    private int getRow(float y) {
+        return MathUtils.clamp(MathUtils.floor((y - originY) / Constants.TILE_HEIGHT), 0, rows - 1);
+    }
+
+    /**
+     * Returns true if a point lies outside of every zone
+     */
+    private boolean isOutside(float x, float y) {
+        return x < originX || y < originY ||
+                x >= originX + cols * Constants.TILE_WIDTH || y >= originY + rows * Constants.TILE_HEIGHT;
+    }
+
+    /**
+     * Returns true if a point is on a sand tile
+     *
+     * @param x The x-coordinate of the point
+     * @param y The y-coordinate of the point
+     *
+     * @return true if the point is on a sand tile
+     */
+    public boolean isSand(float x, float y) {
+        return !isOutside(x, y) && sand[getColumn(x)][getRow(y)];
+    }
+
+    /**
+     * Returns the energy pillars whose field could reach a point.
+     *
+     * The returned array is shared, and must not be changed.  Use
+     * EnergyPillar.isInField to test the point against the field as it is now.
+     *
+     * @param x The x-coordinate of the point
+     * @param y The y-coordinate of the point
+     *
+     * @return the energy pillars whose field could reach the point
+     */
+    public EnergyPillar[] getPillarsNear(float x, float y) {
+        if (isOutside(x, y)) {
+            return NO_PILLARS;
+        }
+        return pillars[getColumn(x)][getRow(y)];
+    }
+}
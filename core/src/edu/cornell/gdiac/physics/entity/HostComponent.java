@@ -0,0 +1,17 @@
+/*
+ * HostComponent.java
+ *
+ * Marks an entity as a golem, or as the pedestal the spirit starts on.
+ */
+package edu.cornell.gdiac.physics.entity;
+
+import com.badlogic.ashley.core.Component;
+import edu.cornell.gdiac.physics.host.HostModel;
+
+/**
+ * The host of an entity
+ */
+public class HostComponent implements Component {
+    /** The host this entity stands for */
+    public HostModel host;
+}
@@ -0,0 +1,77 @@
+/*
+ * MovementSystem.java
+ *
+ * Carries the moving objects of a level across the fixed physics steps.  Only
+ * the MOVING family is visited, so the hundreds of tiles of a large board cost
+ * nothing per frame.
+ */
+package edu.cornell.gdiac.physics.entity;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.utils.ImmutableArray;
+import edu.cornell.gdiac.physics.obstacle.Obstacle;
+
+/**
+ * Saves, updates and interpolates the objects that move.
+ *
+ * savePreviousStates() is called before each fixed world step.  The engine then
+ * runs update() once per frame, after the steps, which updates each object and
+ * blends its draw position by the fraction of a step set with setAlpha().
+ * Dormant objects are skipped, as they are not stepped.
+ */
+public class MovementSystem extends EntitySystem {
+
+    /** The objects that move */
+    private ImmutableArray<Entity> entities;
+    /** The fraction of a physics step left over in the accumulator */
+    private float alpha;
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        entities = engine.getEntitiesFor(ObstacleEntities.MOVING);
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        entities = null;
+    }
+
+    /**
+     * Sets the fraction of a physics step to blend draw positions by
+     *
+     * @param value The fraction of a physics step left over in the accumulator
+     */
+    public void setAlpha(float value) {
+        alpha = value;
+    }
+
+    /**
+     * Records the position of every moving object as the start of the next step
+     */
+    public void savePreviousStates() {
+        for (int i = 0; i < entities.size(); i++) {
+            Obstacle obj = ObstacleEntities.OBSTACLE.get(entities.get(i)).obstacle;
+            if (!obj.isDormant()) {
+                obj.savePreviousState();
+            }
+        }
+    }
+
+    /**
+     * Updates every moving object, and blends its draw position
+     *
+     * @param dt Number of seconds since last animation frame
+     */
+    @Override
+    public void update(float dt) {
+        for (int i = 0; i < entities.size(); i++) {
+            Obstacle obj = ObstacleEntities.OBSTACLE.get(entities.get(i)).obstacle;
+            if (!obj.isDormant()) {
+                obj.update(dt);
+                obj.interpolate(alpha);
+            }
+        }
+    }
+}
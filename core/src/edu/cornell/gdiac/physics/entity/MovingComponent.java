@@ -0,0 +1,15 @@
+/*
+ * MovingComponent.java
+ *
+ * Marks an entity whose obstacle can move during play, so it must be stepped,
+ * interpolated and updated.  Tiles fixed to the board do without it.
+ */
+package edu.cornell.gdiac.physics.entity;
+
+import com.badlogic.ashley.core.Component;
+
+/**
+ * A tag for the obstacles that move
+ */
+public class MovingComponent implements Component {
+}
@@ -0,0 +1,18 @@
+/*
+ * ObstacleComponent.java
+ *
+ * The physics object an entity stands for.  Every entity made by
+ * ObstacleEntities has one.
+ */
+package edu.cornell.gdiac.physics.entity;
+
+import com.badlogic.ashley.core.Component;
+import edu.cornell.gdiac.physics.obstacle.Obstacle;
+
+/**
+ * The obstacle of an entity
+ */
+public class ObstacleComponent implements Component {
+    /** The obstacle this entity stands for */
+    public Obstacle obstacle;
+}
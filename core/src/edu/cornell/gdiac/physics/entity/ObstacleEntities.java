@@ -0,0 +1,86 @@
+/*
+ * ObstacleEntities.java
+ *
+ * Sorts the physics objects of a level into entity families, so that a pass over
+ * some kind of object visits only that kind.  The kind of each object is looked
+ * at once, when it is added, and recorded as the components of its entity.
+ *
+ * The families are for iteration only.  The gameplay rules (charge, life, the
+ * host animations and the sand and water zones) stay in HostController and
+ * Simulation, which the headless Simulation steps without an engine; moving them
+ * into systems would let the game and its replays drift apart.
+ */
+package edu.cornell.gdiac.physics.entity;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import edu.cornell.gdiac.physics.host.HostModel;
+import edu.cornell.gdiac.physics.obstacle.Obstacle;
+
+/**
+ * The entity families of the objects in the world, and the factory for their entities.
+ *
+ * MovementSystem visits the MOVING family, RenderSystem sorts the OBSTACLES family
+ * into draw layers, and the level designer reads the HOSTS family.
+ */
+public class ObstacleEntities {
+
+    /** Every physics object */
+    public static final Family OBSTACLES = Family.all(ObstacleComponent.class).get();
+    /** The objects that move, and so must be stepped and updated */
+    public static final Family MOVING = Family.all(ObstacleComponent.class, MovingComponent.class).get();
+    /** The golems and the pedestal */
+    public static final Family HOSTS = Family.all(ObstacleComponent.class, HostComponent.class).get();
+
+    /** Looks up the obstacle of an entity */
+    public static final ComponentMapper<ObstacleComponent> OBSTACLE = ComponentMapper.getFor(ObstacleComponent.class);
+    /** Looks up the host of an entity */
+    public static final ComponentMapper<HostComponent> HOST = ComponentMapper.getFor(HostComponent.class);
+
+    /**
+     * Returns a new entity for a physics object, with the components of its kind
+     *
+     * A tile fixed to the board never moves in play, so it is left out of the
+     * MOVING family.  The level designer drags and resizes tiles, so it passes
+     * false for fixedTiles to keep every object moving.
+     *
+     * @param obj The physics object
+     * @param fixedTiles Whether the tiles of the board stay where they are
+     *
+     * @return the entity of the object
+     */
+    public static Entity create(Obstacle obj, boolean fixedTiles) {
+        Entity entity = new Entity();
+        ObstacleComponent body = new ObstacleComponent();
+        body.obstacle = obj;
+        entity.add(body);
+
+        boolean fixed = false;
+        switch (obj.getType()) {
+            case WALL:
+            case EDGE:
+            case CORNER:
+            case WATER:
+            case SAND:
+            case DECORATIVE:
+            case ENERGY_PILLAR:
+                fixed = true;
+                break;
+            case HOST:
+            case PEDESTAL:
+                if (obj instanceof HostModel) {
+                    HostComponent host = new HostComponent();
+                    host.host = (HostModel) obj;
+                    entity.add(host);
+                }
+                break;
+            default:
+                break;
+        }
+        if (!fixed || !fixedTiles) {
+            entity.add(new MovingComponent());
+        }
+        return entity;
+    }
+}
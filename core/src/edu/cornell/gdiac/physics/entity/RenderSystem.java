@@ -0,0 +1,413 @@
+/*
+ * RenderSystem.java
+ *
+ * Keeps the draw layers of a level from frame to frame.  An object is put in its
+ * layers once, when its entity joins the engine, and taken out when it leaves.
+ * The tiles of the depth layer are kept sorted as they are added, so each frame
+ * only the objects that move are sorted again, and nearly sorted at that.  The
+ * layers under the depth layer never change in play, so their fixed objects are
+ * drawn apart, to be cached.  Objects out of view of the camera are not drawn.
+ */
+package edu.cornell.gdiac.physics.entity;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.physics.Constants;
+import edu.cornell.gdiac.physics.GameCanvas;
+import edu.cornell.gdiac.physics.host.HostModel;
+import edu.cornell.gdiac.physics.obstacle.*;
+
+/**
+ * Draws the objects of a level in layers.
+ *
+ * From the bottom up, the layers are the ground tiles, the decorative roots, the
+ * tops of the border edges, the depth layer (everything standing up, furthest
+ * away first), the tops of the walls, the other border edges, and the charge of
+ * each host.  Objects in the HUD or picked up by the designer are drawn last,
+ * on top of every layer; as that can change at any time, it is checked as the
+ * layers are drawn.
+ *
+ * The fixed objects of the layers below the depth layer are drawn by
+ * drawFixedGround(), which is meant to be drawn once into a GroundCache; draw()
+ * only draws the rest.  isGroundChanged() tells when an object was added to
+ * those layers or taken out, so the cache must be drawn again.
+ *
+ * The depth layer is kept in two parts: the fixed objects, sorted when they are
+ * added, and the MOVING family, sorted again every frame by insertion sort.  The
+ * two are merged as they are drawn.  Ties keep the fixed object first, and
+ * otherwise the order the objects were added in.
+ *
+ * Only the objects near the view set with setView() are drawn.  As the fixed
+ * objects of the depth layer and the fixed walls are sorted by row, the rows in
+ * view are found by binary search, and the rest are never visited.  Every other
+ * object is tested against the view by its position.  The view is widened by
+ * CULL_MARGIN, as images reach past the positions of their objects.
+ */
+public class RenderSystem extends EntitySystem implements EntityListener {
+
+    /** How far the images of objects reach past their positions, in world units */
+    public static final float CULL_MARGIN = 2 * Constants.TILE_WIDTH;
+
+    /** The fixed ground tiles: water, sand and border corners */
+    private Array<Obstacle> fixedGround = new Array<Obstacle>();
+    /** The ground tiles that move, as in the level designer */
+    private Array<Obstacle> movingGround = new Array<Obstacle>();
+    /** The fixed decorative roots */
+    private Array<Obstacle> fixedRoots = new Array<Obstacle>();
+    /** The decorative roots that move */
+    private Array<Obstacle> movingRoots = new Array<Obstacle>();
+    /** The fixed border edges */
+    private Array<BorderEdge> fixedEdges = new Array<BorderEdge>();
+    /** The border edges that move */
+    private Array<BorderEdge> movingEdges = new Array<BorderEdge>();
+    /** The fixed objects that stand up, furthest away first */
+    private Array<Obstacle> fixedDepth = new Array<Obstacle>();
+    /** The moving objects that stand up, furthest away first as of the last draw */
+    private Array<Obstacle> movingDepth = new Array<Obstacle>(true, 16, Obstacle.class);
+    /** The fixed walls, to draw their tops, furthest away first */
+    private Array<Wall> fixedWalls = new Array<Wall>();
+    /** The walls that move, to draw their tops */
+    private Array<Wall> movingWalls = new Array<Wall>();
+    /** The hosts, to draw their charge */
+    private Array<HostModel> hosts = new Array<HostModel>();
+    /** The objects to draw on top of every layer this frame */
+    private Array<Obstacle> top = new Array<Obstacle>();
+    /** Whether a fixed object under the depth layer was added or taken out */
+    private boolean groundChanged = true;
+
+    /** The left edge of the view, widened by CULL_MARGIN */
+    private float viewLeft = -Float.MAX_VALUE;
+    /** The right edge of the view, widened by CULL_MARGIN */
+    private float viewRight = Float.MAX_VALUE;
+    /** The bottom edge of the view, widened by CULL_MARGIN */
+    private float viewBottom = -Float.MAX_VALUE;
+    /** The top edge of the view, widened by CULL_MARGIN */
+    private float viewTop = Float.MAX_VALUE;
+
+    /**
+     * Creates a render system, which is only ever drawn and never updated
+     */
+    public RenderSystem() {
+        setProcessing(false);
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        engine.addEntityListener(ObstacleEntities.OBSTACLES, this);
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        engine.removeEntityListener(this);
+    }
+
+    /**
+     * Puts the object of a new entity in its layers
+     *
+     * @param entity The entity added to the engine
+     */
+    @Override
+    public void entityAdded(Entity entity) {
+        Obstacle obj = ObstacleEntities.OBSTACLE.get(entity).obstacle;
+        boolean moving = ObstacleEntities.MOVING.matches(entity);
+        if (obj instanceof Terrain || obj instanceof BorderCorner) {
+            (moving ? movingGround : fixedGround).add(obj);
+            groundChanged |= !moving;
+        } else if (obj instanceof DecorativeRoots) {
+            (moving ? movingRoots : fixedRoots).add(obj);
+            groundChanged |= !moving;
+        } else if (obj instanceof BorderEdge) {
+            (moving ? movingEdges : fixedEdges).add((BorderEdge) obj);
+            groundChanged |= !moving;
+        } else {
+            if (moving) {
+                movingDepth.add(obj);
+            } else {
+                fixedDepth.insert(countAbove(fixedDepth, obj.getY(), true), obj);
+            }
+            if (obj instanceof HostModel) {
+                hosts.add((HostModel) obj);
+            } else if (obj instanceof Wall) {
+                if (moving) {
+                    movingWalls.add((Wall) obj);
+                } else {
+                    fixedWalls.insert(countAbove(fixedWalls, obj.getY(), true), (Wall) obj);
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes the object of a removed entity out of its layers
+     *
+     * @param entity The entity removed from the engine
+     */
+    @Override
+    public void entityRemoved(Entity entity) {
+        Obstacle obj = ObstacleEntities.OBSTACLE.get(entity).obstacle;
+        if (obj instanceof Terrain || obj instanceof BorderCorner) {
+            groundChanged |= fixedGround.removeValue(obj, true);
+            movingGround.removeValue(obj, true);
+        } else if (obj instanceof DecorativeRoots) {
+            groundChanged |= fixedRoots.removeValue(obj, true);
+            movingRoots.removeValue(obj, true);
+        } else if (obj instanceof BorderEdge) {
+            groundChanged |= fixedEdges.removeValue((BorderEdge) obj, true);
+            movingEdges.removeValue((BorderEdge) obj, true);
+        } else {
+            if (!movingDepth.removeValue(obj, true)) {
+                fixedDepth.removeValue(obj, true);
+            }
+            if (obj instanceof HostModel) {
+                hosts.removeValue((HostModel) obj, true);
+            } else if (obj instanceof Wall) {
+                if (!movingWalls.removeValue((Wall) obj, true)) {
+                    fixedWalls.removeValue((Wall) obj, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the area of the world in view, in world units
+     *
+     * @param x The x-coordinate of the bottom left corner of the view
+     * @param y The y-coordinate of the bottom left corner of the view
+     * @param width The width of the view
+     * @param height The height of the view
+     */
+    public void setView(float x, float y, float width, float height) {
+        viewLeft = x - CULL_MARGIN;
+        viewRight = x + width + CULL_MARGIN;
+        viewBottom = y - CULL_MARGIN;
+        viewTop = y + height + CULL_MARGIN;
+    }
+
+    /**
+     * Returns true if an object is near enough to the view to be drawn
+     *
+     * @param obj The object to check
+     *
+     * @return true if an object is near enough to the view to be drawn
+     */
+    public boolean isVisible(Obstacle obj) {
+        float x = obj.getX();
+        float y = obj.getY();
+        return x >= viewLeft && x <= viewRight && y >= viewBottom && y <= viewTop;
+    }
+
+    /**
+     * Returns the number of objects in a layer sorted furthest away first that
+     * are above a height
+     *
+     * This is also the index to insert an object at that height, after those
+     * already there.
+     *
+     * @param layer The layer, sorted furthest away first
+     * @param y The height
+     * @param orEqual Whether to count the objects at the height
+     */
+    private static int countAbove(Array<? extends Obstacle> layer, float y, boolean orEqual) {
+        int low = 0;
+        int high = layer.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            float my = layer.get(mid).getY();
+            if (my > y || (orEqual && my == y)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Sorts the moving objects, furthest away first
+     *
+     * Objects move little from one frame to the next, so the list is nearly
+     * sorted already, and insertion sort takes a single pass.
+     */
+    private void sortMoving() {
+        Obstacle[] items = movingDepth.items;
+        for (int i = 1; i < movingDepth.size; i++) {
+            Obstacle obj = items[i];
+            float y = obj.getY();
+            int j = i - 1;
+            while (j >= 0 && items[j].getY() < y) {
+                items[j + 1] = items[j];
+                j--;
+            }
+            items[j + 1] = obj;
+        }
+    }
+
+    /**
+     * Draws an object of a layer, or keeps it for the top if it is drawn there
+     *
+     * @param obj The object to draw
+     * @param canvas Drawing context
+     */
+    private void drawInLayer(Obstacle obj, GameCanvas canvas) {
+        if (obj.inHUD || obj.selected) {
+            top.add(obj);
+        } else if (isVisible(obj)) {
+            obj.draw(canvas);
+        }
+    }
+
+    /**
+     * Returns true if the fixed objects under the depth layer changed since the
+     * last call to drawFixedGround()
+     *
+     * @return true if the fixed objects under the depth layer changed
+     */
+    public boolean isGroundChanged() {
+        return groundChanged;
+    }
+
+    /**
+     * Returns the bounds of the fixed objects under the depth layer
+     *
+     * The bounds are those of their positions, in world units.  Their images
+     * reach a little further.
+     *
+     * @param bounds The rectangle to store the bounds in
+     *
+     * @return false if there are no such objects
+     */
+    public boolean getFixedGroundBounds(Rectangle bounds) {
+        boolean found = false;
+        found = addBounds(fixedGround, bounds, found);
+        found = addBounds(fixedRoots, bounds, found);
+        found = addBounds(fixedEdges, bounds, found);
+        return found;
+    }
+
+    /**
+     * Grows the bounds to hold the position of every object in a layer
+     */
+    private static boolean addBounds(Array<? extends Obstacle> layer, Rectangle bounds, boolean found) {
+        for (int i = 0; i < layer.size; i++) {
+            Obstacle obj = layer.get(i);
+            if (found) {
+                bounds.merge(obj.getX(), obj.getY());
+            } else {
+                bounds.set(obj.getX(), obj.getY(), 0, 0);
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Draws the fixed objects of the layers under the depth layer
+     *
+     * These are the objects meant to be cached, which must all be drawn.  If they
+     * are drawn every frame instead, only those in view need be.  This must be
+     * called between begin() and end() of the canvas.
+     *
+     * @param canvas Drawing context
+     * @param cull Whether to skip the objects out of view
+     */
+    public void drawFixedGround(GameCanvas canvas, boolean cull) {
+        groundChanged = false;
+        for (int i = 0; i < fixedGround.size; i++) {
+            Obstacle obj = fixedGround.get(i);
+            if (!cull || isVisible(obj)) {
+                obj.draw(canvas);
+            }
+        }
+        for (int i = 0; i < fixedRoots.size; i++) {
+            Obstacle obj = fixedRoots.get(i);
+            if (!cull || isVisible(obj)) {
+                obj.draw(canvas);
+            }
+        }
+        for (int i = 0; i < fixedEdges.size; i++) {
+            BorderEdge edge = fixedEdges.get(i);
+            if (!cull || isVisible(edge)) {
+                edge.drawTop(canvas);
+            }
+        }
+    }
+
+    /**
+     * Draws every layer but the fixed ground.
+     *
+     * That must have been drawn first, or its cache.  This must be called between
+     * begin() and end() of the canvas.
+     *
+     * @param canvas Drawing context
+     */
+    public void draw(GameCanvas canvas) {
+        top.clear();
+        sortMoving();
+
+        for (int i = 0; i < movingGround.size; i++) {
+            drawInLayer(movingGround.get(i), canvas);
+        }
+        for (int i = 0; i < movingRoots.size; i++) {
+            drawInLayer(movingRoots.get(i), canvas);
+        }
+        for (int i = 0; i < movingEdges.size; i++) {
+            BorderEdge edge = movingEdges.get(i);
+            if (edge.inHUD || edge.selected) {
+                top.add(edge);
+            } else if (isVisible(edge)) {
+                edge.drawTop(canvas);
+            }
+        }
+
+        // Merge the fixed objects in the rows in view with the moving ones, furthest away first
+        int f = countAbove(fixedDepth, viewTop, false);
+        int fixedEnd = countAbove(fixedDepth, viewBottom, true);
+        int m = 0;
+        while (f < fixedEnd || m < movingDepth.size) {
+            if (m >= movingDepth.size || (f < fixedEnd && fixedDepth.get(f).getY() >= movingDepth.get(m).getY())) {
+                drawInLayer(fixedDepth.get(f++), canvas);
+            } else {
+                drawInLayer(movingDepth.get(m++), canvas);
+            }
+        }
+
+        int wallEnd = countAbove(fixedWalls, viewBottom, true);
+        for (int i = countAbove(fixedWalls, viewTop, false); i < wallEnd; i++) {
+            Wall wall = fixedWalls.get(i);
+            if (!wall.inHUD && !wall.selected && isVisible(wall)) {
+                wall.drawTop(canvas);
+            }
+        }
+        for (int i = 0; i < movingWalls.size; i++) {
+            Wall wall = movingWalls.get(i);
+            if (!wall.inHUD && !wall.selected && isVisible(wall)) {
+                wall.drawTop(canvas);
+            }
+        }
+        for (int i = 0; i < fixedEdges.size; i++) {
+            BorderEdge edge = fixedEdges.get(i);
+            if (isVisible(edge)) {
+                edge.drawNotTop(canvas);
+            }
+        }
+        for (int i = 0; i < movingEdges.size; i++) {
+            BorderEdge edge = movingEdges.get(i);
+            if (!edge.inHUD && !edge.selected && isVisible(edge)) {
+                edge.drawNotTop(canvas);
+            }
+        }
+        for (int i = 0; i < hosts.size; i++) {
+            HostModel host = hosts.get(i);
+            if (!host.inHUD && !host.selected && isVisible(host)) {
+                host.drawCharge(canvas);
+            }
+        }
+        for (int i = 0; i < top.size; i++) {
+            top.get(i).draw(canvas);
+        }
+    }
+}
@@ -2,11 +2,11 @@ package edu.cornell.gdiac.physics.host;
 
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.physics.box2d.BodyDef;
 import edu.cornell.gdiac.physics.GameCanvas;
 import edu.cornell.gdiac.physics.InputController;
 import edu.cornell.gdiac.physics.obstacle.EnergyPillar;
 import edu.cornell.gdiac.physics.spirit.SpiritModel;
+import edu.cornell.gdiac.util.AnimationClock;
 
 import java.util.ArrayList;
 
@@ -68,6 +68,18 @@ public class HostController {
 
     private Vector2 spiritCache;
 
+    private Vector2 directionCache;
+
+    /**
+     * The velocity the spirit would be shot at, while the player aims
+     */
+    private Vector2 aimVelocity;
+
+    /**
+     * Whether the player is aiming a shot fast enough to fire
+     */
+    private boolean aiming;
+
     /**
      * Constant to change the speed of golem movement
      */
@@ -76,22 +88,22 @@ public class HostController {
     /**
      * Minimum speed for shot spirit
      */
-    private static final float MINIMUM_SHOT_SPEED = 7f;
+    public static final float MINIMUM_SHOT_SPEED = 7f;
 
     /**
      * Maximum speed for shot spirit
      */
-    private static final float MAXIMUM_SHOT_SPEED = 21f;
+    public static final float MAXIMUM_SHOT_SPEED = 21f;
 
     /**
      * Multiplier for velocity of spirit when shot
      */
-    private static final float SHOOTING_MULTIPLIER = 2.1f;
+    public static final float SHOOTING_MULTIPLIER = 2.1f;
 
     /**
-     * Minimum distance to target before going to next instruction, for autonomous mode
+     * How far a host may stray from its path segment and still follow it
      */
-    private static final float NEXT_INSTRUCTION_DIST = 0.5f;
+    private static final float PATH_TOLERANCE = 0.05f;
 
     /**
      * Energy pillars in the game
@@ -103,6 +115,11 @@ public class HostController {
      */
     private long ticks;
 
+    /**
+     * The clock all the animations of the level advance by
+     */
+    private AnimationClock animationClock = new AnimationClock();
+
     /**
      * The number of hosts on this level
      */
@@ -114,6 +131,16 @@ public class HostController {
      * Creates and initialize a new instance of a HostController
      */
     public HostController(ArrayList<HostModel> h, Vector2 scale, Texture arrowHeadTexture, Texture arrowDashTexture, HostModel pedestal, GameCanvas c, EnergyPillar[] energyPillars) {
+        this(h, scale, arrowHeadTexture, arrowDashTexture, pedestal, new Vector2(c.getWidth() / 2, c.getHeight() / 2), energyPillars);
+        canvas = c;
+    }
+
+    /**
+     * Creates a HostController with no canvas, for headless simulation
+     *
+     * @param spiritCenter The screen position the spirit is drawn at, which aiming is measured from
+     */
+    public HostController(ArrayList<HostModel> h, Vector2 scale, Texture arrowHeadTexture, Texture arrowDashTexture, HostModel pedestal, Vector2 spiritCenter, EnergyPillar[] energyPillars) {
         input = InputController.getInstance();
         hosts = h;
         arrowHead = arrowHeadTexture;
@@ -121,26 +148,40 @@ public class HostController {
         possessedBlownUp = false;
         launched = false;
         this.scale = scale;
-        spiritCenter = new Vector2(c.getWidth() / 2, c.getHeight() / 2);
+        this.spiritCenter = new Vector2(spiritCenter);
         mousePosCache = new Vector2();
         velocityCache = new Vector2();
         spiritCache = new Vector2();
+        directionCache = new Vector2();
+        aimVelocity = new Vector2();
         this.pedestal = pedestal;
         numHosts = h.size();
         moved = false;
-        canvas = c;
         this.energyPillars = energyPillars;
     }
 
     /**
-     * Resets the status of the host.
+     * Sets the input this controller reads from, in place of the shared device input
+     *
+     * @param input The input to read player actions from
+     */
+    public void setInput(InputController input) {
+        this.input = input;
+    }
+
+    /**
+     * Resets the controller for a retry of the same level.
      * <p>
-     * This method disposes of the host and creates a new one.
+     * The hosts themselves are put back by their own restoreInitialState.
      */
     public void reset() {
-        // should host controller have a list of hosts?
-        // because initally all of these are gonna be AI
-        // populateLevel();
+        arrow = null;
+        aiming = false;
+        possessedBlownUp = false;
+        launched = false;
+        moved = false;
+        ticks = 0;
+        animationClock.reset();
     }
 
 
@@ -158,6 +199,12 @@ public class HostController {
     public void update(float dt, HostModel possessed, SpiritModel spirit, HostModel pedestal, boolean inSand, EnergyPillar[] energyPillars, boolean wasPaused) {
         ticks++;
 
+        aiming = false;
+
+        // Counters tick at 60 Hz whatever the step size, as levels were tuned at that rate
+        animationClock.update(dt);
+        int animationTicks = animationClock.getElapsedTicks();
+
         // Removes the arrow that was clicked when paused
         if (wasPaused) { arrow = null; return; }
 
@@ -193,10 +240,8 @@ public class HostController {
         // Possessing a host, either currently or a new one
         if (possessed != null) {
 
-            // If just possessed and not yet dynamic, make it dynamic
-            if (possessed.getBodyType() != BodyDef.BodyType.DynamicBody) {
-                possessed.setBodyType(BodyDef.BodyType.DynamicBody);
-            }
+            // The player walks the possessed host
+            possessed.setAnchored(false);
 
             moved = false;
 
@@ -207,7 +252,7 @@ public class HostController {
             }
 
             // If its possible to increment the charge of the host
-            if (possessed.incCurrentCharge()) {
+            if (possessed.incCurrentCharge(animationTicks)) {
 
                 // If the spirit isn't outside of the host
                 if (!spirit.hasLaunched || spirit.getIsPossessing()) {
@@ -254,6 +299,9 @@ public class HostController {
                         arrow.setCurrLoc(velocityCache.set(spirit.getPosition().scl(scale.x, scale.y)));
                         // Set the velocity represented by the arrow
                         arrow.setVelocityRepresented(shootVector, magnitude > MINIMUM_SHOT_SPEED);
+                        // Remember the shot, for the trajectory preview
+                        capShot(vx, vy, magnitude, aimVelocity);
+                        aiming = magnitude > MINIMUM_SHOT_SPEED;
                     }
                     // Mouse has been released so shoot and get rid of arrow
                     else if (input.didRelease() && arrow != null) {
@@ -266,15 +314,11 @@ public class HostController {
                             spirit.setPosition(possessed.getPosition());
 
                             // Cap the speed of the shot
-                            if (magnitude > MAXIMUM_SHOT_SPEED) {
-                                float angle = (float) Math.atan2(vy, vx);
-                                vx = MAXIMUM_SHOT_SPEED * (float) Math.cos(angle);
-                                vy = MAXIMUM_SHOT_SPEED * (float) Math.sin(angle);
-                            }
+                            Vector2 shot = capShot(vx, vy, magnitude, velocityCache);
 
                             // Set the spirit's velocity
-                            spirit.setVX(vx);
-                            spirit.setVY(vy);
+                            spirit.setVX(shot.x);
+                            spirit.setVY(shot.y);
 
                             // Upon Release of Spirit, possessed host and spirit are no longer possessed/possessing
                             spirit.setHasLaunched(true);
@@ -297,7 +341,7 @@ public class HostController {
 
             // Host is at max charge
             else {
-                possessedBlownUp = true && possessed.animateDeath();
+                possessedBlownUp = true && possessed.animateDeath(animationTicks);
                 // Remove the arrow if dead
                 arrow = null;
                 possessed.setVX(0);
@@ -306,29 +350,25 @@ public class HostController {
 
             // Case when Host's currentCharge exceed maxCharge
             if (possessed.getCurrentCharge() > possessed.getMaxCharge()) {
-                possessedBlownUp = true && possessed.animateDeath();
+                possessedBlownUp = true && possessed.animateDeath(animationTicks);
             }
         }
 
 
         // Update the Animation of the possessed host
 
-        spirit.updateAnimation();
-        pedestal.animatePedestal();
-        possessed.updateAnimation(possessed.getLinearVelocity());
+        spirit.updateAnimation(animationTicks);
+        pedestal.animatePedestal(animationTicks);
+        possessed.updateAnimation(possessed.getLinearVelocity(), animationTicks);
 
         // PORTION OF CODE THAT DEALS WITH DECREMENTING LIFE OF SPIRIT
         // When the spirit has been launched, need to decrement life of spirit
         if (spirit.hasLaunched) {
             possessed.setFizzle(false);
             possessed.setHasPlayedPossession(false);
-            // If you can decrement life, decrement life
-            if (spirit.decCurrentLife()) {
-                // Spirit isn't dead yet
-                spirit.setAlive(true);
-            } else {
-                // Because you can't decrement anymore, spirit is dead
-                spirit.setAlive(false);
+            // Decrement life once per tick, until it can't be decremented and the spirit is dead
+            for (int i = 0; i < animationTicks; i++) {
+                spirit.setAlive(spirit.decCurrentLife());
             }
         }
 
@@ -355,43 +395,67 @@ public class HostController {
         //update other robots
         for (HostModel h : hosts) {
 
-            // Update the body type of each host
-            if ((h != possessed && !h.isMoving() && h.getBodyType() != BodyDef.BodyType.StaticBody) ||
-                    (h.isMoving() && h.beenPossessed() && h != possessed)) {
-                h.setBodyType(BodyDef.BodyType.StaticBody);
+            // Hosts that nobody walks stand their ground
+            if (h != possessed && (!h.isMoving() || h.beenPossessed())) {
+                h.setAnchored(true);
+                h.setLinearVelocity(Vector2.Zero);
             }
 
             // Updated Animation of Each Host
-            h.updateAnimation(h.getLinearVelocity());
-
-
-            if (h != possessed && !h.beenPossessed()) {
-                Vector2 target = h.getInstruction();
-                Vector2 current = h.getPosition();
+            h.updateAnimation(h.getLinearVelocity(), animationTicks);
 
-                float x = target.x - current.x;
-                float y = target.y - current.y;
-
-                // If close enough to the destination, move to the next
-                // instruction (note: squaring both sides instead of sqrt)
-                if (x * x + y * y < NEXT_INSTRUCTION_DIST * NEXT_INSTRUCTION_DIST) {
-                    h.nextInstruction();
-
-                    // Otherwise, move towards the target
-                } else {
-                    double angle = Math.atan2(y, x);
 
-                    h.setVX(HOST_MOVEMENT_SPEED * (float) Math.cos(angle));
-                    h.setVY(HOST_MOVEMENT_SPEED * (float) Math.sin(angle));
-                }
+            // Walk towards the instruction, unless the host just arrived and moves on to the next
+            if (h != possessed && !h.beenPossessed() && h.followPath(dt, PATH_TOLERANCE, directionCache)) {
+                h.setLinearVelocity(directionCache.scl(HostModel.PATROL_SPEED));
             }
         }
     }
 
+    /**
+     * Caps the speed of a shot at MAXIMUM_SHOT_SPEED
+     *
+     * @param vx The x-velocity of the shot
+     * @param vy The y-velocity of the shot
+     * @param magnitude The speed of the shot
+     * @param out The vector to store the capped velocity in
+     *
+     * @return the given vector, set to the capped velocity
+     */
+    private static Vector2 capShot(float vx, float vy, float magnitude, Vector2 out) {
+        if (magnitude > MAXIMUM_SHOT_SPEED) {
+            float angle = (float) Math.atan2(vy, vx);
+            vx = MAXIMUM_SHOT_SPEED * (float) Math.cos(angle);
+            vy = MAXIMUM_SHOT_SPEED * (float) Math.sin(angle);
+        }
+        return out.set(vx, vy);
+    }
+
+    /**
+     * Returns the number of 60 Hz ticks that passed in the last update
+     *
+     * @return the number of 60 Hz ticks that passed in the last update
+     */
+    public int getElapsedTicks() {
+        return animationClock.getElapsedTicks();
+    }
+
     public ArrowModel getArrow() {
         return arrow;
     }
 
+    /**
+     * Returns the velocity the spirit would be shot at, or null if there is no shot.
+     *
+     * There is only a shot while the player drags the arrow far enough to fire.
+     * The vector is reused each frame.
+     *
+     * @return the velocity the spirit would be shot at, or null if there is no shot
+     */
+    public Vector2 getAimVelocity() {
+        return aiming && arrow != null ? aimVelocity : null;
+    }
+
     public boolean getPossessedBlownUp() {
         return possessedBlownUp;
     }
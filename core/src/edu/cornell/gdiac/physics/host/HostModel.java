@@ -226,6 +226,22 @@ public class HostModel extends BoxObstacle {
      * The thrust factor to convert player input into host movement
      */
     private static final float DEFAULT_THRUST = 7.0f;
+    /**
+     * How many times heavier an anchored host is, so that others cannot push it
+     */
+    private static final float ANCHORED_MASS_SCALE = 10000f;
+    /**
+     * The speed an unpossessed host walks its path at
+     */
+    public static final float PATROL_SPEED = 5f;
+    /**
+     * How close an unpossessed host must come to an instruction to move on to the next
+     */
+    public static final float ARRIVAL_DISTANCE = 0.5f;
+    /**
+     * Slack for a patrol time that reaches its arrival time, but is rounded just below
+     */
+    private static final float ARRIVAL_EPSILON = 1e-4f;
     /**
      * The max charge of a pedestal
      */
@@ -365,6 +381,31 @@ public class HostModel extends BoxObstacle {
      * Current instruction index
      */
     private int instructionNumber;
+    /**
+     * The unit directions of the path segments, from each instruction to the next
+     */
+    private float[] segmentDirX;
+    private float[] segmentDirY;
+    /**
+     * The lengths of the path segments
+     */
+    private float[] segmentLength;
+    /**
+     * The time after leaving the start of each path segment at which the host arrives at its end
+     */
+    private float[] segmentArrival;
+    /**
+     * Whether the host has found where it is on the way to its current instruction
+     */
+    private boolean patrolPlaced;
+    /**
+     * Whether the host follows its segment by time, rather than heading straight for the instruction
+     */
+    private boolean onSchedule;
+    /**
+     * The time since the host would have left the start of its segment, walking at PATROL_SPEED
+     */
+    private float patrolTime;
     /**
      * Whether or not the host has been possessed yet
      */
@@ -395,6 +436,11 @@ public class HostModel extends BoxObstacle {
      */
     private boolean isFizzle;
 
+    /**
+     * Whether this host stands its ground, as a host that is not walking a path
+     */
+    private boolean anchored;
+
     /**
      * drawing scales to resize the host (doesn't affect hit box)
      */
@@ -402,7 +448,7 @@ public class HostModel extends BoxObstacle {
     private float sy = 0.4f;
 
     /**
-     * The number of frames that have elapsed since the last animation update
+     * The number of animation clock ticks that have elapsed since the last animation update
      */
     private int walkFrame = 0;
     private int pedFrames = 0;
@@ -411,8 +457,8 @@ public class HostModel extends BoxObstacle {
     private int wakeFrame= 0;
 
     /**
-     * The number of frames that should pass before the animation updates
-     * (animation framerate is the framerate of the game divided by this value)
+     * The number of animation clock ticks that should pass before the animation updates
+     * (animation framerate is 60 divided by this value)
      * 4 seems to look pretty good
      */
     private int framesPerUpdate = 2;
@@ -429,6 +475,29 @@ public class HostModel extends BoxObstacle {
     private boolean posFrameUpdate;
     private boolean wakeFrameUpdate;
 
+    /**
+     * The animation clock ticks since the host was last drawn, which the possession animation plays
+     */
+    private int animationTicks;
+
+    // State at the start of the level, put back by restoreInitialState
+
+    private boolean initialPossessed;
+    private boolean initialAlive;
+    private boolean initialBeenPossessed;
+    private boolean initialForwardI;
+    private boolean initialMoving;
+    private int initialCharge;
+    private float initialMaxCharge;
+    private int initialInstructionNumber;
+    private int initialArmFrame;
+    private boolean initialAnchored;
+    private Vector2 initialForce = new Vector2();
+    private FilmStrip initialHostStrip;
+    private FilmStrip initialGlyphStrip;
+    private FilmStrip initialDeadStrip;
+    private FilmStrip initialPossessionStrip;
+
 
     /**
      * Cache object for transforming the force according the object angle
@@ -613,7 +682,7 @@ public class HostModel extends BoxObstacle {
         force = new Vector2();
         this.currentCharge = currentCharge;
         this.maxCharge = maxCharge;
-        this.instructions = ins;
+        setInstructions(ins);
         this.instructionNumber = 0;
         this.hasBeenPossessed = false;
         this.updateFrame = true;
@@ -661,6 +730,75 @@ public class HostModel extends BoxObstacle {
         setName("pedestal");
     }
 
+    /**
+     * Records the current state as the start of the level.
+     * <p>
+     * Besides the body, this keeps the charge, the place along the instruction
+     * path, whether the host has been possessed, and the animation frames.
+     */
+    public void saveInitialState() {
+        super.saveInitialState();
+        initialPossessed = isPossessed;
+        initialAlive = isAlive;
+        initialBeenPossessed = hasBeenPossessed;
+        initialForwardI = forwardI;
+        initialMoving = moving;
+        initialCharge = currentCharge;
+        initialMaxCharge = maxCharge;
+        initialInstructionNumber = instructionNumber;
+        initialArmFrame = armFrame;
+        initialAnchored = anchored;
+        initialForce.set(force);
+        initialHostStrip = hostStrip;
+        initialGlyphStrip = glyphStrip;
+        initialDeadStrip = deadStrip;
+        initialPossessionStrip = possessionStrip;
+        saveFrames(hostStripE, hostStripN, hostStripNE, hostStripNW, hostStripS, hostStripSE, hostStripSW, hostStripW,
+                glyphStripE, glyphStripN, glyphStripNE, glyphStripNW, glyphStripS, glyphStripSE, glyphStripSW, glyphStripW,
+                deadStripE, deadStripN, deadStripNE, deadStripNW, deadStripS, deadStripSE, deadStripSW, deadStripW,
+                armStrip, hostChargeUI, hostWakingUp, pedestalHost, pedestalHostNight,
+                genPossessionStrip, newPossessionStrip);
+    }
+
+    /**
+     * Returns this host to the state recorded by saveInitialState.
+     * <p>
+     * Animation counters start over, as they do for a newly loaded host.
+     */
+    public void restoreInitialState() {
+        super.restoreInitialState();
+        isPossessed = initialPossessed;
+        isAlive = initialAlive;
+        hasBeenPossessed = initialBeenPossessed;
+        forwardI = initialForwardI;
+        moving = initialMoving;
+        currentCharge = initialCharge;
+        maxCharge = initialMaxCharge;
+        instructionNumber = initialInstructionNumber;
+        patrolPlaced = false;
+        force.set(initialForce);
+        setAnchored(initialAnchored);
+        hostStrip = initialHostStrip;
+        glyphStrip = initialGlyphStrip;
+        deadStrip = initialDeadStrip;
+        possessionStrip = initialPossessionStrip;
+        hasPlayedPossession = false;
+        hasPlayedPossessionBefore = false;
+        impact = false;
+        inPillar = false;
+        isFizzle = false;
+        walkFrame = 0;
+        pedFrames = 0;
+        armFrame = initialArmFrame;
+        posFrame = 0;
+        wakeFrame = 0;
+        animationTicks = 0;
+        updateFrame = true;
+        pedUpdateFrame = false;
+        posFrameUpdate = false;
+        wakeFrameUpdate = false;
+    }
+
     /**
      * Creates the physics Body(s) for this object, adding them to the world.
      * <p>
@@ -675,9 +813,46 @@ public class HostModel extends BoxObstacle {
             return false;
         }
         body.setFixedRotation(true);
+        if (anchored) {
+            setMass(body.getMass() * ANCHORED_MASS_SCALE);
+        }
         return true;
     }
 
+    /**
+     * Returns whether this host stands its ground.
+     * <p>
+     * An anchored host is one that nobody walks: it is not possessed, and it
+     * either has no path or has been possessed before.
+     *
+     * @return whether this host stands its ground
+     */
+    public boolean isAnchored() {
+        return anchored;
+    }
+
+    /**
+     * Sets whether this host stands its ground.
+     * <p>
+     * Every host keeps a dynamic body for its whole life, as changing the body
+     * type makes Box2D rebuild all of its contacts.  An anchored host is instead
+     * made far heavier than the others and stopped, so that walking hosts bump
+     * into it as into a wall.  Changing the mass leaves the contacts alone.
+     *
+     * @param value whether this host stands its ground
+     */
+    public void setAnchored(boolean value) {
+        if (anchored == value) {
+            return;
+        }
+        anchored = value;
+        resetMass();
+        if (value) {
+            setMass(getMass() * ANCHORED_MASS_SCALE);
+            setLinearVelocity(Vector2.Zero);
+        }
+    }
+
     /**
      * Gets whether the host is in the state of possession or not.
      *
@@ -724,16 +899,20 @@ public class HostModel extends BoxObstacle {
     }
 
     /**
-     * Increments the current charge of the host.
+     * Increments the current charge of the host, once for each tick that passed.
+     *
+     * The charge never passes the first whole number at or above the maximum.
+     *
+     * @param ticks The number of 60 Hz ticks since the last increment
      *
      * @return whether the host has blown up or not
      */
-    public boolean incCurrentCharge() {
+    public boolean incCurrentCharge(int ticks) {
         if (this.isPossessed && !this.isPedestal) {
             if (currentCharge >= this.maxCharge) {
                 return false;
             } else {
-                this.currentCharge++;
+                this.currentCharge = (int) Math.min(currentCharge + ticks, Math.ceil(maxCharge));
                 this.isAlive = false;
                 return true;
             }
@@ -793,6 +972,7 @@ public class HostModel extends BoxObstacle {
         if (instructions == null) {
             return;
         }
+        patrolPlaced = false;
         if (forwardI && instructionNumber + 1 >= instructions.length) {
             forwardI = false;
             instructionNumber--;
@@ -831,8 +1011,132 @@ public class HostModel extends BoxObstacle {
         body.applyForce(force, body.getLocalCenter(), true);
     }
 
+    /**
+     * Sets the instructions of this host, and compiles them into path segments.
+     *
+     * @param instructions The points of the path, or null if the host stands still
+     */
     public void setInstructions(Vector2[] instructions) {
         this.instructions = instructions;
+        patrolPlaced = false;
+        if (instructions == null || instructions.length < 2) {
+            segmentDirX = null;
+            segmentDirY = null;
+            segmentLength = null;
+            segmentArrival = null;
+            return;
+        }
+
+        int segments = instructions.length - 1;
+        segmentDirX = new float[segments];
+        segmentDirY = new float[segments];
+        segmentLength = new float[segments];
+        segmentArrival = new float[segments];
+        for (int i = 0; i < segments; i++) {
+            float dx = instructions[i + 1].x - instructions[i].x;
+            float dy = instructions[i + 1].y - instructions[i].y;
+            float length = (float) Math.sqrt(dx * dx + dy * dy);
+            segmentLength[i] = length;
+            segmentArrival[i] = (length - ARRIVAL_DISTANCE) / PATROL_SPEED;
+            if (length > 0) {
+                segmentDirX[i] = dx / length;
+                segmentDirY[i] = dy / length;
+            }
+        }
+    }
+
+    /**
+     * Returns the path segment that ends at the current instruction.
+     * <p>
+     * A host walking forward comes from the instruction before, and a host
+     * walking back comes from the instruction after.
+     *
+     * @return the index of the segment, or -1 if the current instruction
+     * does not end one
+     */
+    private int getSegment() {
+        if (segmentLength == null) {
+            return -1;
+        }
+        int segment = forwardI ? instructionNumber - 1 : instructionNumber;
+        return (segment >= 0 && segment < segmentLength.length) ? segment : -1;
+    }
+
+    /**
+     * Walks the host one step along its patrol.
+     * <p>
+     * When the host starts towards an instruction on the segment that leads to it,
+     * its place along the segment is found once.  From then on it is looked up by
+     * time: the host arrives when its patrol time reaches the arrival time of the
+     * segment, and walks in the direction of the segment until then.  A host that
+     * was pushed off its path, or has not reached it yet, heads straight for the
+     * instruction and arrives within ARRIVAL_DISTANCE of it.  Turning around finds
+     * the place of the host again, so a table never goes stale.
+     *
+     * @param dt        The length of the step in seconds
+     * @param tolerance How far from the segment the host may be to follow it
+     * @param out       The vector to store the unit direction to walk in
+     * @return false if the host arrived and moves on to its next instruction
+     */
+    public boolean followPath(float dt, float tolerance, Vector2 out) {
+        if (instructions == null) {
+            return false;
+        }
+
+        int segment = getSegment();
+        if (!patrolPlaced) {
+            placeOnPath(segment, tolerance);
+        } else if (onSchedule) {
+            patrolTime += dt;
+        }
+
+        if (onSchedule) {
+            if (patrolTime + ARRIVAL_EPSILON >= segmentArrival[segment]) {
+                nextInstruction();
+                return false;
+            }
+            float sign = forwardI ? 1 : -1;
+            out.set(sign * segmentDirX[segment], sign * segmentDirY[segment]);
+            return true;
+        }
+
+        Vector2 target = instructions[instructionNumber];
+        float offX = target.x - getX();
+        float offY = target.y - getY();
+        float distance2 = offX * offX + offY * offY;
+        if (distance2 < ARRIVAL_DISTANCE * ARRIVAL_DISTANCE) {
+            nextInstruction();
+            return false;
+        }
+        float distance = (float) Math.sqrt(distance2);
+        out.set(offX / distance, offY / distance);
+        return true;
+    }
+
+    /**
+     * Finds whether the host is on the segment to its instruction, and how far along
+     *
+     * @param segment   The segment that ends at the current instruction, or -1
+     * @param tolerance How far from the segment the host may be to follow it
+     */
+    private void placeOnPath(int segment, float tolerance) {
+        patrolPlaced = true;
+        onSchedule = false;
+        if (segment == -1) {
+            return;
+        }
+        Vector2 target = instructions[instructionNumber];
+        float offX = target.x - getX();
+        float offY = target.y - getY();
+        float sign = forwardI ? 1 : -1;
+        float dirX = sign * segmentDirX[segment];
+        float dirY = sign * segmentDirY[segment];
+        float along = offX * dirX + offY * dirY;
+        float across = offX * dirY - offY * dirX;
+        if (along > 0 && along <= segmentLength[segment] + tolerance && Math.abs(across) <= tolerance) {
+            onSchedule = true;
+            patrolTime = (segmentLength[segment] - along) / PATROL_SPEED;
+        }
     }
 
     public void setPedestalStrip(FilmStrip strip) {
@@ -963,27 +1267,37 @@ public class HostModel extends BoxObstacle {
         this.hostWakingUp.setFrame(HOST_WAKE_UP_START);
     }
 
+    /**
+     * Plays the possession animation by the ticks since it was last drawn.
+     * <p>
+     * Several steps may run between two draws, so their ticks add up.  The ticks
+     * are used up, so drawing again without an update (as when paused) holds the
+     * animation still.
+     *
+     * @return true if the animation has finished
+     */
     public boolean animatePossession() {
-        posFrame++;
-        posFrameUpdate = false;
+        posFrame += animationTicks;
+        animationTicks = 0;
+        int steps = posFrame / posFramesPerUpdate;
+        posFrame %= posFramesPerUpdate;
+        posFrameUpdate = steps > 0;
         int frame = HOST_POSSESSION_START;
 
         if(this.possessionStrip != null) {
             frame = this.possessionStrip.getFrame();
         }
 
-        if(posFrame == posFramesPerUpdate) {
-            posFrameUpdate = true;
-            posFrame = 0;
-        }
-        if(posFrameUpdate) {
+        for (int i = 0; i < steps && frame != HOST_POSSESSION_FINISH; i++) {
             if (frame >= HOST_POSSESSION_START && frame < HOST_POSSESSION_FINISH) {
                 frame++;
             } else {
                 frame = HOST_POSSESSION_START;
             }
         }
-        possessionStrip.setFrame(frame);
+        if (possessionStrip.getFrame() != frame) {
+            possessionStrip.setFrame(frame);
+        }
         boolean isDone = frame == HOST_POSSESSION_FINISH;
         if (isDone) {
             this.hasPlayedPossession = true;
@@ -993,16 +1307,23 @@ public class HostModel extends BoxObstacle {
         return isDone;
     }
 
-    public boolean animateDeath() {
+    /**
+     * Plays the death animation by one frame for each tick of the animation clock
+     *
+     * @param ticks the number of animation clock ticks since the last update
+     *
+     * @return true if the animation has finished
+     */
+    public boolean animateDeath(int ticks) {
         int frame = HOST_START;
         if(hostStrip != null) {
             frame = hostStrip.getFrame();
         }
 
         if(frame >= HOST_START && frame < HOST_FINISH) {
-            frame++;
+            frame = Math.min(frame + ticks, HOST_FINISH);
+            hostStrip.setFrame(frame);
         }
-        hostStrip.setFrame(frame);
         return frame == HOST_FINISH;
     }
 
@@ -1042,28 +1363,31 @@ public class HostModel extends BoxObstacle {
      * This function should be called in host controller
      *
      * @param direction the direction the host is travelling
+     * @param ticks the number of animation clock ticks since the last update
      */
-    public void updateAnimation(Vector2 direction) {
+    public void updateAnimation(Vector2 direction, int ticks) {
+        animationTicks += ticks;
         int frame = 0;
         if(hostStrip != null) {
             frame = hostStrip.getFrame();
         }
         if (!this.isPedestal) {
 
-            // To allow framerate control of this animation
-            walkFrame++;
-            updateFrame = false;
-            if (walkFrame >= framesPerUpdate) {
-                updateFrame = true;
-                walkFrame = 0;
-            }
+            // Advance a frame for every framesPerUpdate ticks of the animation clock
+            walkFrame += ticks;
+            int steps = walkFrame / framesPerUpdate;
+            walkFrame %= framesPerUpdate;
+            updateFrame = steps > 0;
             // I'm a little concerned about slowing all animation within the host using one thing, because
             // if the framerate is sufficiently low it might feel unresponsive because the golem does not immediately
             // turn in the direction you are moving. For now, because framrate is relatively high, disregard this.
             if (updateFrame) {
 
                 //Update UI for Charge
-                this.hostChargeUI.setFrame(Math.min(HOST_CHARGE_UI_END, (int) ((this.currentCharge / this.maxCharge) * HOST_CHARGE_UI_END)));
+                int chargeFrame = Math.min(HOST_CHARGE_UI_END, (int) ((this.currentCharge / this.maxCharge) * HOST_CHARGE_UI_END));
+                if (this.hostChargeUI.getFrame() != chargeFrame) {
+                    this.hostChargeUI.setFrame(chargeFrame);
+                }
 
                 if (direction.x > threshold) {
                     // NORTH EAST
@@ -1072,11 +1396,7 @@ public class HostModel extends BoxObstacle {
                         glyphStrip = glyphStripNE;
                         deadStrip = deadStripNE;
                         this.armFrame = HOST_ARM_NORTH_EAST;
-                        if (frame < HOST_FINISH && frame >= HOST_START) {
-                            frame++;
-                        } else {
-                            frame = HOST_START;
-                        }
+                        frame = nextWalkFrame(frame, steps);
 
                     }
                     // SOUTH EAST
@@ -1085,11 +1405,7 @@ public class HostModel extends BoxObstacle {
                         glyphStrip = glyphStripSE;
                         deadStrip = deadStripSE;
                         this.armFrame = HOST_ARM_SOUTH_EAST;
-                        if (frame < HOST_FINISH && frame >= HOST_START) {
-                            frame++;
-                        } else {
-                            frame = HOST_START;
-                        }
+                        frame = nextWalkFrame(frame, steps);
                     }
                     // EAST
                     if (Math.abs(direction.y) < threshold) {
@@ -1097,11 +1413,7 @@ public class HostModel extends BoxObstacle {
                         glyphStrip = glyphStripE;
                         deadStrip = deadStripE;
                         this.armFrame = HOST_ARM_EAST;
-                        if (frame < HOST_FINISH && frame >= HOST_START) {
-                            frame++;
-                        } else {
-                            frame = HOST_START;
-                        }
+                        frame = nextWalkFrame(frame, steps);
                     }
                 } else if (direction.x < -threshold) {
                     // NORTH WEST
@@ -1110,11 +1422,7 @@ public class HostModel extends BoxObstacle {
                         glyphStrip = glyphStripNW;
                         deadStrip = deadStripNW;
                         this.armFrame = HOST_ARM_NORTH_WEST;
-                        if (frame < HOST_FINISH && frame >= HOST_START) {
-                            frame++;
-                        } else {
-                            frame = HOST_START;
-                        }
+                        frame = nextWalkFrame(frame, steps);
                     }
                     // SOUTH WEST
                     else if (direction.y < -threshold) {
@@ -1122,11 +1430,7 @@ public class HostModel extends BoxObstacle {
                         glyphStrip = glyphStripSW;
                         deadStrip = deadStripSW;
                         this.armFrame = HOST_ARM_SOUTH_WEST;
-                        if (frame < HOST_FINISH && frame >= HOST_START) {
-                            frame++;
-                        } else {
-                            frame = HOST_START;
-                        }
+                        frame = nextWalkFrame(frame, steps);
                     }
                     // WEST
                     if (Math.abs(direction.y) < threshold) {
@@ -1134,11 +1438,7 @@ public class HostModel extends BoxObstacle {
                         glyphStrip = glyphStripW;
                         deadStrip = deadStripW;
                         this.armFrame = HOST_ARM_WEST;
-                        if (frame < HOST_FINISH && frame >= HOST_START) {
-                            frame++;
-                        } else {
-                            frame = HOST_START;
-                        }
+                        frame = nextWalkFrame(frame, steps);
                     }
                 } else if (Math.abs(direction.x) < threshold) {
                     // NORTH
@@ -1147,11 +1447,7 @@ public class HostModel extends BoxObstacle {
                         glyphStrip = glyphStripN;
                         deadStrip = deadStripN;
                         this.armFrame = HOST_ARM_NORTH;
-                        if (frame < HOST_FINISH && frame >= HOST_START) {
-                            frame++;
-                        } else {
-                            frame = HOST_START;
-                        }
+                        frame = nextWalkFrame(frame, steps);
                     }
                     // SOUTH
                     else if (direction.y < -threshold) {
@@ -1159,18 +1455,20 @@ public class HostModel extends BoxObstacle {
                         glyphStrip = glyphStripS;
                         deadStrip = deadStripS;
                         this.armFrame = HOST_ARM_SOUTH;
-                        if (frame < HOST_FINISH && frame >= HOST_START) {
-                            frame++;
-                        } else {
-                            frame = HOST_START;
-                        }
+                        frame = nextWalkFrame(frame, steps);
                     }
                 }
 
                 if(hostStrip != null && glyphStrip != null && armStrip != null && deadStrip != null) {
-                    hostStrip.setFrame(frame);
-                    glyphStrip.setFrame(frame);
-                    armStrip.setFrame(this.armFrame);
+                    if (hostStrip.getFrame() != frame) {
+                        hostStrip.setFrame(frame);
+                    }
+                    if (glyphStrip.getFrame() != frame) {
+                        glyphStrip.setFrame(frame);
+                    }
+                    if (armStrip.getFrame() != this.armFrame) {
+                        armStrip.setFrame(this.armFrame);
+                    }
                     if(this.currentCharge >= this.maxCharge) {
                         hostStrip = deadStrip;
                     }
@@ -1180,23 +1478,39 @@ public class HostModel extends BoxObstacle {
     }
 
     /**
-     * Strip animation for pedestal
+     * Returns the walking frame some steps after another, looping back to the start
+     *
+     * @param frame the current frame
+     * @param steps the number of frames to advance
      */
-    public void animatePedestal() {
-        pedFrames++;
-        pedUpdateFrame = false;
-        if (pedFrames >= pedFramesPerUpdate) {
-            pedUpdateFrame = true;
-            pedFrames = PEDESTAL_START;
+    private static int nextWalkFrame(int frame, int steps) {
+        for (int i = 0; i < steps; i++) {
+            if (frame < HOST_FINISH && frame >= HOST_START) {
+                frame++;
+            } else {
+                frame = HOST_START;
+            }
         }
+        return frame;
+    }
+
+    /**
+     * Strip animation for pedestal
+     *
+     * @param ticks the number of animation clock ticks since the last update
+     */
+    public void animatePedestal(int ticks) {
+        pedFrames += ticks;
+        int steps = pedFrames / pedFramesPerUpdate;
+        pedFrames %= pedFramesPerUpdate;
+        pedUpdateFrame = steps > 0;
         if (pedUpdateFrame) {
-            if (this.pedestalHost.getFrame() < PEDESTAL_FINISH) {
-                this.pedestalHost.setFrame(this.pedestalHost.getFrame() + 1);
-                this.pedestalHostNight.setFrame(this.pedestalHostNight.getFrame() + 1);
-            } else {
-                this.pedestalHost.setFrame(PEDESTAL_START);
-                this.pedestalHostNight.setFrame(PEDESTAL_START);
+            int frame = this.pedestalHost.getFrame();
+            for (int i = 0; i < steps; i++) {
+                frame = frame < PEDESTAL_FINISH ? frame + 1 : PEDESTAL_START;
             }
+            this.pedestalHost.setFrame(frame);
+            this.pedestalHostNight.setFrame(frame);
         }
     }
 
@@ -1226,6 +1540,20 @@ public class HostModel extends BoxObstacle {
         drawBody(canvas);
     }
 
+    /**
+     * Draws a ghost of the host somewhere else, as its body in its current frame
+     *
+     * @param canvas Drawing context
+     * @param x The x-coordinate of the ghost in screen coordinates
+     * @param y The y-coordinate of the ghost in screen coordinates
+     * @param tint The color to tint the ghost with
+     */
+    public void drawGhost(GameCanvas canvas, float x, float y, Color tint) {
+        if (hostStrip != null) {
+            canvas.draw(hostStrip, tint, hostStrip.getRegionWidth() / 2f, hostStrip.getRegionHeight() / 2f, x, y, 0, sx, sy);
+        }
+    }
+
     /**
      * Draws the host object, but not the charge UI bar or shadow.
      *
@@ -1243,10 +1571,9 @@ public class HostModel extends BoxObstacle {
         if (this.isPedestal) {
             // Make pedestal clear when no longer in possession.
             if (this.isPossessed) {
-                canvas.draw(pedestalHost, Color.WHITE, pedestalHost.getRegionWidth() / 2f, pedestalHost.getRegionHeight() / 2f, getX() * drawScale.x, getY() * drawScale.y, getAngle(), 0.3f, 0.3f);
-                canvas.draw(pedestalHostNight, opacity, pedestalHostNight.getRegionWidth() / 2f, pedestalHostNight.getRegionHeight() / 2f, getX() * drawScale.x, getY() * drawScale.y, getAngle(), 0.3f, 0.3f);
+                canvas.draw(pedestalHost, pedestalHostNight, opacity, pedestalHost.getRegionWidth() / 2f, pedestalHost.getRegionHeight() / 2f, getDrawX() * drawScale.x, getDrawY() * drawScale.y, getAngle(), 0.3f, 0.3f);
             } else {
-                canvas.draw(pedestalHost, Color.CLEAR, pedestalHost.getRegionWidth() / 2f, pedestalHost.getRegionHeight() / 2f, getX() * drawScale.x, getY() * drawScale.y, getAngle(), 0.3f, 0.3f);
+                canvas.draw(pedestalHost, Color.CLEAR, pedestalHost.getRegionWidth() / 2f, pedestalHost.getRegionHeight() / 2f, getDrawX() * drawScale.x, getDrawY() * drawScale.y, getAngle(), 0.3f, 0.3f);
             }
         } else {
             // Draw the host
@@ -1261,34 +1588,34 @@ public class HostModel extends BoxObstacle {
                     }
 
                     if (this.currentCharge < this.maxCharge) {
-                        canvas.draw(hostStrip, Color.WHITE, hostStrip.getRegionWidth() / 2f, hostStrip.getRegionHeight() / 2f, getX() * drawScale.x, getY() * drawScale.y, getAngle(), sx, sy);
-                        canvas.draw(glyphStrip, warningColor, glyphStrip.getRegionWidth() / 2f, glyphStrip.getRegionHeight() / 2f, getX() * drawScale.x, getY() * drawScale.y, getAngle(), sx, sy);
-                        canvas.draw(armStrip, Color.WHITE, armStrip.getRegionWidth() / 2f, armStrip.getRegionHeight() / 2f, getX() * drawScale.x, getY() * drawScale.y, getAngle(), sx, sy);
+                        canvas.draw(hostStrip, Color.WHITE, hostStrip.getRegionWidth() / 2f, hostStrip.getRegionHeight() / 2f, getDrawX() * drawScale.x, getDrawY() * drawScale.y, getAngle(), sx, sy);
+                        canvas.draw(glyphStrip, warningColor, glyphStrip.getRegionWidth() / 2f, glyphStrip.getRegionHeight() / 2f, getDrawX() * drawScale.x, getDrawY() * drawScale.y, getAngle(), sx, sy);
+                        canvas.draw(armStrip, Color.WHITE, armStrip.getRegionWidth() / 2f, armStrip.getRegionHeight() / 2f, getDrawX() * drawScale.x, getDrawY() * drawScale.y, getAngle(), sx, sy);
                         // WHEN GOLEM DIES
                     } else {
                         hostStrip = deadStrip;
-                        canvas.draw(hostStrip, Color.WHITE, deadStrip.getRegionWidth() / 2f, deadStrip.getRegionHeight() / 2f, getX() * drawScale.x, getY() * drawScale.y, getAngle(), sx, sy);
+                        canvas.draw(hostStrip, Color.WHITE, deadStrip.getRegionWidth() / 2f, deadStrip.getRegionHeight() / 2f, getDrawX() * drawScale.x, getDrawY() * drawScale.y, getAngle(), sx, sy);
                     }
 
                 }
                 // When the bot hasn't been possessed the indicator color should be black
                 else {
-                    canvas.draw(hostStrip, Color.WHITE, hostStrip.getRegionWidth() / 2f, hostStrip.getRegionHeight() / 2f, getX() * drawScale.x, getY() * drawScale.y, getAngle(), sx, sy);
-                    canvas.draw(glyphStrip, unpossessedGlyphColor, glyphStrip.getRegionWidth() / 2f, glyphStrip.getRegionHeight() / 2f, getX() * drawScale.x, getY() * drawScale.y, getAngle(), sx, sy);
-                    canvas.draw(armStrip, Color.WHITE, armStrip.getRegionWidth() / 2f, armStrip.getRegionHeight() / 2f, getX() * drawScale.x, getY() * drawScale.y, getAngle(), sx, sy);
+                    canvas.draw(hostStrip, Color.WHITE, hostStrip.getRegionWidth() / 2f, hostStrip.getRegionHeight() / 2f, getDrawX() * drawScale.x, getDrawY() * drawScale.y, getAngle(), sx, sy);
+                    canvas.draw(glyphStrip, unpossessedGlyphColor, glyphStrip.getRegionWidth() / 2f, glyphStrip.getRegionHeight() / 2f, getDrawX() * drawScale.x, getDrawY() * drawScale.y, getAngle(), sx, sy);
+                    canvas.draw(armStrip, Color.WHITE, armStrip.getRegionWidth() / 2f, armStrip.getRegionHeight() / 2f, getDrawX() * drawScale.x, getDrawY() * drawScale.y, getAngle(), sx, sy);
                 }
 
 
                 // HOST WAKING UP ANIMATION KINDA GLITCHY AND DOESN'T WORK.
 //                if(!this.hasPlayedPossessionBefore && this.isPossessed && !animateWakingUp()) {
-//                    canvas.draw(hostWakingUp, Color.WHITE, hostWakingUp.getRegionWidth() / 2f, hostWakingUp.getRegionHeight() / 2f, getX() * drawScale.x, getY() * drawScale.y, getAngle(), 0.25f, 0.25f);
+//                    canvas.draw(hostWakingUp, Color.WHITE, hostWakingUp.getRegionWidth() / 2f, hostWakingUp.getRegionHeight() / 2f, getDrawX() * drawScale.x, getDrawY() * drawScale.y, getAngle(), 0.25f, 0.25f);
 //                }
 
                 if(!this.hasPlayedPossession && this.isPossessed && !animatePossession()) {
                     if(this.isFizzle) {
-                        canvas.draw(possessionStrip, warningColor, possessionStrip.getRegionWidth() / 2f, possessionStrip.getRegionHeight() / 1.8f, getX() * drawScale.x, getY() * drawScale.y, getAngle(), 0.8f, 0.8f);
+                        canvas.draw(possessionStrip, warningColor, possessionStrip.getRegionWidth() / 2f, possessionStrip.getRegionHeight() / 1.8f, getDrawX() * drawScale.x, getDrawY() * drawScale.y, getAngle(), 0.8f, 0.8f);
                     } else {
-                        canvas.draw(possessionStrip, Color.WHITE, possessionStrip.getRegionWidth() / 2f, possessionStrip.getRegionHeight() / 1.8f, getX() * drawScale.x, getY() * drawScale.y, getAngle(), 0.8f, 0.8f);
+                        canvas.draw(possessionStrip, Color.WHITE, possessionStrip.getRegionWidth() / 2f, possessionStrip.getRegionHeight() / 1.8f, getDrawX() * drawScale.x, getDrawY() * drawScale.y, getAngle(), 0.8f, 0.8f);
                     }
                 }
             }
@@ -1303,7 +1630,7 @@ public class HostModel extends BoxObstacle {
     public void drawShadow(GameCanvas canvas) {
         if (!this.isPedestal) {
             setScaling(hostShadow);
-            canvas.draw(hostShadow, Color.BLACK, hostChargeUI.getRegionWidth() / 2f,hostChargeUI.getRegionHeight() / 2f, getX() * drawScale.x, getY() * drawScale.x, getAngle(), 0.9f, 0.9f);
+            canvas.draw(hostShadow, Color.BLACK, hostChargeUI.getRegionWidth() / 2f,hostChargeUI.getRegionHeight() / 2f, getDrawX() * drawScale.x, getDrawY() * drawScale.x, getAngle(), 0.9f, 0.9f);
         }
     }
 
@@ -1341,13 +1668,13 @@ public class HostModel extends BoxObstacle {
                             warningColor = new Color (chargeProgression * 255f  / 256f , chargeProgression * 123 / 256f, chargeProgression * 148f/256f, 1);
                         }
                         setScaling(hostChargeUI);
-                        canvas.draw(hostChargeUI, warningColor, hostChargeUI.getRegionWidth() / 2f, hostChargeUI.getRegionHeight() / 2f, getX() * drawScale.x, getY() * drawScale.y, getAngle(), 0.9f, 0.9f);
+                        canvas.draw(hostChargeUI, warningColor, hostChargeUI.getRegionWidth() / 2f, hostChargeUI.getRegionHeight() / 2f, getDrawX() * drawScale.x, getDrawY() * drawScale.y, getAngle(), 0.9f, 0.9f);
                     }
                 }
                 // When the bot hasn't been possessed the indicator color should be black
                 else {
                     setScaling(hostChargeUI);
-                    canvas.draw(hostChargeUI, Color.BLACK, hostChargeUI.getRegionWidth() / 2f,hostChargeUI.getRegionHeight() / 2f, getX() * drawScale.x, getY() * drawScale.x, getAngle(), 0.9f, 0.9f);
+                    canvas.draw(hostChargeUI, Color.BLACK, hostChargeUI.getRegionWidth() / 2f,hostChargeUI.getRegionHeight() / 2f, getDrawX() * drawScale.x, getDrawY() * drawScale.x, getAngle(), 0.9f, 0.9f);
                 }
             }
         }
@@ -394,9 +394,7 @@ public class BorderEdge extends BoxObstacle {
         }
 
         setScaling(edgeStrip);
-        canvas.draw(edgeStrip, Color.WHITE, origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,side.angle,sx,sy);
-        setScaling(nightStrip);
-        canvas.draw(nightStrip, opacity, origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,side.angle,sx,sy);
+        canvas.draw(edgeStrip, nightStrip, opacity, origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,side.angle,sx,sy);
     }
 
     /**
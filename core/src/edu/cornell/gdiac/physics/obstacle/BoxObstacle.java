@@ -179,6 +179,19 @@ public class BoxObstacle extends SimpleObstacle {
 	}
 
 
+	/**
+	 * Returns the world bounds of the hitbox of this box.
+	 *
+	 * This is used to merge the hitboxes of static tiles into one body.
+	 *
+	 * @param rect	The rectangle to store the bounds in
+	 *
+	 * @return the given rectangle, set to the hitbox bounds
+	 */
+	public Rectangle getHitbox(Rectangle rect) {
+		return rect.set(getX() - getWidth() / 2, getY() - getHeight() / 2, getWidth(), getHeight());
+	}
+
 	/**
 	 * Reset the polygon vertices in the shape to match the dimension.
 	 */
@@ -234,11 +247,11 @@ public class BoxObstacle extends SimpleObstacle {
 	public void draw(GameCanvas canvas) {
 		if (texture == null) return;
 		setScaling(texture);
-		canvas.draw(texture,Color.WHITE,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
-
-		if (textureNight == null) return;
-		setScaling(textureNight);
-		canvas.draw(textureNight,opacity,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
+		if (textureNight == null) {
+			canvas.draw(texture,Color.WHITE,origin.x,origin.y,getDrawX()*drawScale.x,getDrawY()*drawScale.y,getAngle(),sx,sy);
+		} else {
+			canvas.draw(texture,textureNight,opacity,origin.x,origin.y,getDrawX()*drawScale.x,getDrawY()*drawScale.y,getAngle(),sx,sy);
+		}
 	}
 
 	
@@ -21,6 +21,15 @@ public class EnergyPillar extends BoxObstacle {
     /** chargeProgression of Possessed Host */
     protected float chargeProgression;
 
+    /** chargeProgression at the start of the level */
+    private float initialChargeProgression;
+
+    /** One over the squared semi-major axis of the field, or zero with no field */
+    private float invMajor2;
+
+    /** One over the squared semi-minor axis of the field, or zero with no field */
+    private float invMinor2;
+
 
     public EnergyPillar(float width, float height) {
         this(0, 0, width, height);
@@ -46,6 +55,59 @@ public class EnergyPillar extends BoxObstacle {
         return ((this.energyPillarFieldStrip.getRegionHeight() * (this.chargeProgression / 3f)) / drawScale.y)/2f;
     }
 
+    /**
+     * Gets the semi-major axis of the field when the possessed host is fully charged
+     * @return the largest the semi-major axis of the field can grow
+     */
+    public float getMaxFieldMajor() {
+        return ((this.energyPillarFieldStrip.getRegionWidth() / 3f) / drawScale.x)/2f;
+    }
+
+    /**
+     * Gets the semi-minor axis of the field when the possessed host is fully charged
+     * @return the largest the semi-minor axis of the field can grow
+     */
+    public float getMaxFieldMinor() {
+        return ((this.energyPillarFieldStrip.getRegionHeight() / 3f) / drawScale.y)/2f;
+    }
+
+    /**
+     * Returns true if a point lies in the field of this pillar as it is now.
+     *
+     * The axes of the field are cached whenever the charge progression changes,
+     * so this is a handful of multiplications.
+     *
+     * @param x the x-coordinate of the point
+     * @param y the y-coordinate of the point
+     * @return true if the point lies in the field
+     */
+    public boolean isInField(float x, float y) {
+        if (invMajor2 == 0 || invMinor2 == 0) {
+            return false;
+        }
+        float dx = x - getX();
+        float dy = y - getY();
+        return dx * dx * invMajor2 + dy * dy * invMinor2 <= 1;
+    }
+
+    /**
+     * Caches the axes of the field for isInField
+     *
+     * This runs whenever the charge progression, the field strip or the draw
+     * scale changes, so the cache is right before the first update.
+     */
+    private void updateField() {
+        if (energyPillarFieldStrip == null) {
+            invMajor2 = 0;
+            invMinor2 = 0;
+            return;
+        }
+        float major = getEnergyPillarMajor();
+        float minor = getEnergyPillarMinor();
+        invMajor2 = major > 0 ? 1 / (major * major) : 0;
+        invMinor2 = minor > 0 ? 1 / (minor * minor) : 0;
+    }
+
     /**
      * sets the FilmStrip for the energy pillar
      *
@@ -63,10 +125,40 @@ public class EnergyPillar extends BoxObstacle {
 
         energyPillarRune = bodyColorStrip;
         energyPillarRune.setFrame(0);
+        updateField();
+    }
+
+    /**
+     * Sets the drawing scale, which the size of the field is measured in
+     *
+     * @param x  the x-axis scale for this physics object
+     * @param y  the y-axis scale for this physics object
+     */
+    public void setDrawScale(float x, float y) {
+        super.setDrawScale(x, y);
+        updateField();
     }
 
     public void setChargeProgression(float chargeProgression) {
         this.chargeProgression = MathUtils.lerp(this.chargeProgression, chargeProgression, 0.1f);
+        updateField();
+    }
+
+    /**
+     * Records the current state as the start of the level
+     */
+    public void saveInitialState() {
+        super.saveInitialState();
+        initialChargeProgression = chargeProgression;
+    }
+
+    /**
+     * Returns the pillar, and the size of its field, to the start of the level
+     */
+    public void restoreInitialState() {
+        super.restoreInitialState();
+        chargeProgression = initialChargeProgression;
+        updateField();
     }
 
     /**
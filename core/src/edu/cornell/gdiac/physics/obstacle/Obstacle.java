@@ -17,6 +17,7 @@
  */
 package edu.cornell.gdiac.physics.obstacle;
 
+import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.math.*;
 import com.badlogic.gdx.physics.box2d.*;
 import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
@@ -48,6 +49,8 @@ public abstract class Obstacle {
 	protected boolean masseffect;
     /** A tag for debugging purposes */
     private String nametag;
+	/** The kind of obstacle, derived from the tag for fast collision dispatch */
+	private ObstacleType type = ObstacleType.OTHER;
 	/** Drawing scale to convert physics units to pixels */
 	protected Vector2 drawScale;
 
@@ -62,6 +65,12 @@ public abstract class Obstacle {
 	public boolean inHUD = false;
 	/** Records if this object is currently being selected */
 	public boolean selected = false;
+	/** Whether the hitbox of this object was merged into a shared body or zone, so it only draws */
+	private boolean merged;
+	/** Whether this object is too far from the action to be stepped */
+	private boolean dormant;
+	/** The entity standing for this object in the entity families, if any */
+	private Entity entity;
 
 	/// Track garbage collection status
 	/** Whether the object should be removed from the world on next pass */
@@ -898,7 +907,62 @@ public abstract class Obstacle {
     public void setDrawScale(float x, float y) {
     	drawScale.set(x,y);
     }
-    	
+
+	/**
+	 * Records the current position as the start of the next physics step.
+	 *
+	 * This is called immediately before each fixed world step, so that the draw
+	 * position can be blended across the step.  Objects without a body ignore it.
+	 */
+	public void savePreviousState() {
+	}
+
+	/**
+	 * Blends the draw position between the previous and current physics states.
+	 *
+	 * @param alpha  the fraction of a physics step left over in the accumulator
+	 */
+	public void interpolate(float alpha) {
+	}
+
+	/**
+	 * Returns the x-coordinate at which to draw this physics body
+	 *
+	 * @return the x-coordinate at which to draw this physics body
+	 */
+	public float getDrawX() {
+		return getX();
+	}
+
+	/**
+	 * Returns the y-coordinate at which to draw this physics body
+	 *
+	 * @return the y-coordinate at which to draw this physics body
+	 */
+	public float getDrawY() {
+		return getY();
+	}
+
+	/**
+	 * Records the current state as the start of the level.
+	 *
+	 * This is called once a level is laid out, so that a retry can put every
+	 * object back in place instead of loading the level again.  Subclasses that
+	 * change during play extend this with their own state.
+	 */
+	public void saveInitialState() {
+	}
+
+	/**
+	 * Returns this object to the state recorded by saveInitialState.
+	 *
+	 * The object is no longer marked for removal afterwards.  Nothing is allocated,
+	 * so a retry costs no more than a frame.
+	 */
+	public void restoreInitialState() {
+		toRemove = false;
+	}
+
 	/// DEBUG METHODS
 	/**
      * Returns the physics object tag.
@@ -920,6 +984,89 @@ public abstract class Obstacle {
      */
     public void setName(String value) {
      	nametag = value; 
+     	type = ObstacleType.fromName(value);
+
+		Filter filter = new Filter();
+		filter.categoryBits = type.getCategory();
+		filter.maskBits = type.getMask();
+		setFilterData(filter);
+	}
+
+	/**
+	 * Returns the kind of this obstacle.
+	 *
+	 * The type is derived from the tag whenever it is set, so that collision
+	 * handling can dispatch on it without comparing strings.  Setting the tag
+	 * also sets the collision filter of the type.
+	 *
+	 * @return the kind of this obstacle.
+	 */
+	public ObstacleType getType() {
+		return type;
+	}
+
+	/**
+	 * Returns true if the hitbox of this object was merged into a shared body or zone.
+	 *
+	 * A merged object creates no body of its own, and is kept only for drawing.
+	 *
+	 * @return true if the hitbox of this object was merged into a shared body or zone.
+	 */
+	public boolean isMerged() {
+		return merged;
+	}
+
+	/**
+	 * Sets whether the hitbox of this object was merged into a shared body or zone.
+	 *
+	 * This must be set before the object is added to the world.
+	 *
+	 * @param value  whether the hitbox of this object was merged into a shared body or zone.
+	 */
+	public void setMerged(boolean value) {
+		merged = value;
+	}
+
+	/**
+	 * Returns true if this object is too far from the action to be stepped.
+	 *
+	 * A dormant object is still drawn, but its body is inactive and the world
+	 * controller does not update it.
+	 *
+	 * @return true if this object is too far from the action to be stepped.
+	 */
+	public boolean isDormant() {
+		return dormant;
+	}
+
+	/**
+	 * Puts this object to sleep far from the action, or wakes it up.
+	 *
+	 * @param value  whether this object is too far from the action to be stepped.
+	 */
+	public void setDormant(boolean value) {
+		if (dormant != value) {
+			dormant = value;
+			setActive(!value);
+		}
+	}
+
+	/**
+	 * Returns the entity standing for this object in the entity families.
+	 *
+	 * @return the entity of this object, or null if it is not in an engine
+	 */
+	public Entity getEntity() {
+		return entity;
+	}
+
+	/**
+	 * Sets the entity standing for this object in the entity families.
+	 *
+	 * @param value  the entity of this object, or null if it is not in an engine
+	 */
+	public void setEntity(Entity value) {
+		entity = value;
 	}
 
 	/**
@@ -0,0 +1,94 @@
+/*
+ * ObstacleType.java
+ *
+ * A compact tag for the kind of an obstacle, so that collision handling can
+ * switch on it instead of comparing name strings, and Box2D can filter pairs
+ * that never collide.
+ */
+package edu.cornell.gdiac.physics.obstacle;
+
+/**
+ * The kinds of obstacle that collision handling tells apart.
+ *
+ * Every obstacle derives its type from its name, so the names given by the
+ * Factory and the models remain the single source of truth.
+ */
+public enum ObstacleType {
+    WALL,
+    EDGE,
+    CORNER,
+    WATER,
+    SAND,
+    OSC_WALL,
+    ENERGY_PILLAR,
+    HOST,
+    PEDESTAL,
+    SPIRIT,
+    DECORATIVE,
+    /** Any obstacle without a recognized name */
+    OTHER;
+
+    /** The number of types, for tables indexed by ordinal */
+    public static final int COUNT = values().length;
+
+    /**
+     * Returns the collision category of this type, one bit per type
+     *
+     * @return the collision category of this type
+     */
+    public short getCategory() {
+        return (short) (1 << ordinal());
+    }
+
+    /**
+     * Returns the categories this type collides with in the broadphase
+     *
+     * The spirit passes through water, the pedestal and open gates, so those pairs
+     * are filtered out before Box2D builds a contact.  Hosts still touch them, as
+     * patrolling golems react to what they walk into.  The mask of a gate is the
+     * open one; OscWall widens it while the gate is closed.  Sand only touches
+     * hosts, so patrolling golems turn around at its edge; it stops nothing, and
+     * the possessed host finds it through the ZoneGrid rather than by contacts.
+     *
+     * @return the categories this type collides with
+     */
+    public short getMask() {
+        switch (this) {
+            case WATER:
+            case PEDESTAL:
+            case OSC_WALL:
+                return (short) ~SPIRIT.getCategory();
+            case SAND:
+                return HOST.getCategory();
+            default:
+                return (short) 0xFFFF;
+        }
+    }
+
+    /**
+     * Returns the type of an obstacle with the given name
+     *
+     * @param name The name of the obstacle
+     *
+     * @return the type of an obstacle with the given name
+     */
+    public static ObstacleType fromName(String name) {
+        if (name == null) {
+            return OTHER;
+        }
+        switch (name) {
+            case "wall":         return WALL;
+            case "edge":         return EDGE;
+            case "corner":       return CORNER;
+            case "water":        return WATER;
+            case "sand":         return SAND;
+            case "oscWall":      return OSC_WALL;
+            case "energyPillar": return ENERGY_PILLAR;
+            case "host":         return HOST;
+            case "pedestal":     return PEDESTAL;
+            case "spirit":       return SPIRIT;
+            case "decorative":   return DECORATIVE;
+            default:             return OTHER;
+        }
+    }
+}
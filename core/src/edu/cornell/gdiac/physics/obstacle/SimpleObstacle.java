@@ -23,6 +23,7 @@ import com.badlogic.gdx.physics.box2d.*;
 import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
 
 import edu.cornell.gdiac.physics.GameCanvas;
+import edu.cornell.gdiac.util.FilmStrip;
 
 /**
  * Base model class to support collisions.
@@ -47,6 +48,30 @@ public abstract class SimpleObstacle extends Obstacle {
 
 	/** The texture origin for drawing */
 	protected Color opacity;
+
+	/** The body position at the start of the most recent physics step */
+	private Vector2 prevPosition = new Vector2();
+	/** The position to draw at, blended between the last two physics steps */
+	private Vector2 drawPosition = new Vector2();
+	/** Whether prevPosition is valid (false after a teleport) */
+	private boolean hasPrevious;
+	/** Whether drawPosition is valid (false after a teleport) */
+	private boolean interpolated;
+
+	/** The position at the start of the level */
+	private Vector2 initialPosition = new Vector2();
+	/** The linear velocity at the start of the level */
+	private Vector2 initialVelocity = new Vector2();
+	/** The angle at the start of the level */
+	private float initialAngle;
+	/** The angular velocity at the start of the level */
+	private float initialAngularVelocity;
+	/** The body type at the start of the level */
+	private BodyType initialBodyType;
+	/** The animations whose frames are put back by restoreInitialState */
+	private FilmStrip[] initialStrips;
+	/** The frames of those animations at the start of the level */
+	private int[] initialFrames;
 	
 	/// BodyDef Methods
 	/**
@@ -100,6 +125,7 @@ public abstract class SimpleObstacle extends Obstacle {
 	 * @param value  the current position for this physics body
 	 */
 	public void setPosition(Vector2 value) {
+		clearInterpolation();
 		if (body != null) {
 			body.setTransform(value,body.getAngle());
 		} else {
@@ -114,6 +140,7 @@ public abstract class SimpleObstacle extends Obstacle {
 	 * @param y  the y-coordinate for this physics body
 	 */
 	public void setPosition(float x, float y) {
+		clearInterpolation();
 		if (body != null) {
 			positionCache.set(x,y);
 			body.setTransform(positionCache,body.getAngle());
@@ -137,6 +164,7 @@ public abstract class SimpleObstacle extends Obstacle {
 	 * @param value  the x-coordinate for this physics body
 	 */
 	public void setX(float value) {
+		clearInterpolation();
 		if (body != null) {
 			positionCache.set(value,body.getPosition().y);
 			body.setTransform(positionCache,body.getAngle());
@@ -160,6 +188,7 @@ public abstract class SimpleObstacle extends Obstacle {
 	 * @param value  the y-coordinate for this physics body
 	 */
 	public void setY(float value) {
+		clearInterpolation();
 		if (body != null) {
 			positionCache.set(body.getPosition().x,value);
 			body.setTransform(positionCache,body.getAngle());
@@ -168,6 +197,124 @@ public abstract class SimpleObstacle extends Obstacle {
 		}
 	}
 	
+	/**
+	 * Records the current position as the start of the next physics step.
+	 *
+	 * This is called immediately before each fixed world step, so that the draw
+	 * position can be blended across the step.
+	 */
+	public void savePreviousState() {
+		if (body != null) {
+			prevPosition.set(body.getPosition());
+			hasPrevious = true;
+		}
+	}
+
+	/**
+	 * Blends the draw position between the previous and current physics states.
+	 *
+	 * @param alpha  the fraction of a physics step left over in the accumulator
+	 */
+	public void interpolate(float alpha) {
+		if (body != null && hasPrevious) {
+			Vector2 pos = body.getPosition();
+			drawPosition.set(prevPosition).lerp(pos, alpha);
+			interpolated = true;
+		}
+	}
+
+	/**
+	 * Forgets the previous physics state, so that the next draw snaps to the body.
+	 *
+	 * Called whenever the position is set directly, as a teleport should not be
+	 * smoothed over.
+	 */
+	protected void clearInterpolation() {
+		hasPrevious = false;
+		interpolated = false;
+	}
+
+	/**
+	 * Returns the x-coordinate at which to draw this physics body
+	 *
+	 * @return the x-coordinate at which to draw this physics body
+	 */
+	public float getDrawX() {
+		return (interpolated ? drawPosition.x : getX());
+	}
+
+	/**
+	 * Returns the y-coordinate at which to draw this physics body
+	 *
+	 * @return the y-coordinate at which to draw this physics body
+	 */
+	public float getDrawY() {
+		return (interpolated ? drawPosition.y : getY());
+	}
+
+	/**
+	 * Records the current state as the start of the level.
+	 *
+	 * This keeps the transform, velocities and body type.
+	 */
+	public void saveInitialState() {
+		initialPosition.set(getPosition());
+		initialVelocity.set(getLinearVelocity());
+		initialAngle = getAngle();
+		initialAngularVelocity = getAngularVelocity();
+		initialBodyType = getBodyType();
+	}
+
+	/**
+	 * Returns this object to the state recorded by saveInitialState.
+	 *
+	 * The body, if any, is moved in place and woken up.
+	 */
+	public void restoreInitialState() {
+		super.restoreInitialState();
+		setBodyType(initialBodyType);
+		setPosition(initialPosition);
+		setAngle(initialAngle);
+		setLinearVelocity(initialVelocity);
+		setAngularVelocity(initialAngularVelocity);
+		if (body != null) {
+			body.setAwake(true);
+		}
+		restoreFrames();
+	}
+
+	/**
+	 * Records the current frames of some animations, for restoreInitialState
+	 *
+	 * Subclasses call this from saveInitialState with every filmstrip that play
+	 * advances.  Missing strips are allowed and skipped.
+	 *
+	 * @param strips The animations to record
+	 */
+	protected void saveFrames(FilmStrip... strips) {
+		initialStrips = strips;
+		initialFrames = new int[strips.length];
+		for (int i = 0; i < strips.length; i++) {
+			if (strips[i] != null) {
+				initialFrames[i] = strips[i].getFrame();
+			}
+		}
+	}
+
+	/**
+	 * Puts back the frames recorded by saveFrames
+	 */
+	private void restoreFrames() {
+		if (initialStrips == null) {
+			return;
+		}
+		for (int i = 0; i < initialStrips.length; i++) {
+			if (initialStrips[i] != null) {
+				initialStrips[i].setFrame(initialFrames[i]);
+			}
+		}
+	}
+
 	/**
 	 * Returns the angle of rotation for this body (about the center).
 	 *
@@ -788,12 +935,12 @@ public abstract class SimpleObstacle extends Obstacle {
 	 * @param canvas Drawing context
 	 */
 	public void draw(GameCanvas canvas) {
-		if (texture != null) {
-			canvas.draw(texture,Color.WHITE,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),1,1);
-		}
-
-		if (textureNight != null) {
-			canvas.draw(textureNight,opacity,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),1,1);
+		if (texture != null && textureNight != null) {
+			canvas.draw(texture,textureNight,opacity,origin.x,origin.y,getDrawX()*drawScale.x,getDrawY()*drawScale.y,getAngle(),1,1);
+		} else if (texture != null) {
+			canvas.draw(texture,Color.WHITE,origin.x,origin.y,getDrawX()*drawScale.x,getDrawY()*drawScale.y,getAngle(),1,1);
+		} else if (textureNight != null) {
+			canvas.draw(textureNight,opacity,origin.x,origin.y,getDrawX()*drawScale.x,getDrawY()*drawScale.y,getAngle(),1,1);
 		}
 	}
 	
@@ -840,6 +987,11 @@ public abstract class SimpleObstacle extends Obstacle {
 	 * @return true if object allocation succeeded
 	 */
 	public boolean activatePhysics(World world) {
+		// Merged tiles collide through the shared body instead
+		if (isMerged()) {
+			return false;
+		}
+
 		// Make a body, if possible
 		bodyinfo.active = true;
 		body = world.createBody(bodyinfo);
@@ -866,9 +1018,12 @@ public abstract class SimpleObstacle extends Obstacle {
 		if (body != null) {
 			// Snapshot the values
 			setBodyState(body);
+			// Forget the fixtures too, so the object can be activated again
+			releaseFixtures();
 			world.destroyBody(body);
 			body = null;
 			bodyinfo.active = false;
+			clearInterpolation();
 		}
 	}
 
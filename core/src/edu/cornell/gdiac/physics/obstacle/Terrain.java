@@ -272,26 +272,22 @@ public abstract class Terrain extends BoxObstacle {
         if(upLeft) {
             cornerStrip.setFrame(0);
             cornerNightStrip.setFrame(0);
-            canvas.draw(cornerStrip, Color.WHITE, cornerStrip.getRegionWidth() / 2, cornerStrip.getRegionHeight() / 2, getX() * drawScale.x, getY() * drawScale.y, getAngle(), (64.f / cornerStrip.getRegionWidth())+0.01f, (64.f / cornerStrip.getRegionHeight())+0.01f);
-            canvas.draw(cornerNightStrip, opacity, cornerNightStrip.getRegionWidth() / 2, cornerNightStrip.getRegionHeight() / 2, getX() * drawScale.x, getY() * drawScale.y, getAngle(), (64.f / cornerNightStrip.getRegionWidth())+0.01f, (64.f / cornerNightStrip.getRegionHeight())+0.01f);
+            canvas.draw(cornerStrip, cornerNightStrip, opacity, cornerStrip.getRegionWidth() / 2, cornerStrip.getRegionHeight() / 2, getX() * drawScale.x, getY() * drawScale.y, getAngle(), (64.f / cornerStrip.getRegionWidth())+0.01f, (64.f / cornerStrip.getRegionHeight())+0.01f);
         }
         if(upRight) {
             cornerStrip.setFrame(1);
             cornerNightStrip.setFrame(1);
-            canvas.draw(cornerStrip, Color.WHITE, cornerStrip.getRegionWidth() / 2, cornerStrip.getRegionHeight() / 2, getX() * drawScale.x, getY() * drawScale.y, getAngle(), (64.f / cornerStrip.getRegionWidth())+0.01f, (64.f / cornerStrip.getRegionHeight())+0.01f);
-            canvas.draw(cornerNightStrip, opacity, cornerNightStrip.getRegionWidth() / 2, cornerNightStrip.getRegionHeight() / 2, getX() * drawScale.x, getY() * drawScale.y, getAngle(), (64.f / cornerNightStrip.getRegionWidth())+0.01f, (64.f / cornerNightStrip.getRegionHeight())+0.01f);
+            canvas.draw(cornerStrip, cornerNightStrip, opacity, cornerStrip.getRegionWidth() / 2, cornerStrip.getRegionHeight() / 2, getX() * drawScale.x, getY() * drawScale.y, getAngle(), (64.f / cornerStrip.getRegionWidth())+0.01f, (64.f / cornerStrip.getRegionHeight())+0.01f);
         }
         if(downLeft) {
             cornerStrip.setFrame(2);
             cornerNightStrip.setFrame(2);
-            canvas.draw(cornerStrip, Color.WHITE, cornerStrip.getRegionWidth() / 2, cornerStrip.getRegionHeight() / 2, getX() * drawScale.x, getY() * drawScale.y, getAngle(), (64.f / cornerStrip.getRegionWidth())+0.01f, (64.f / cornerStrip.getRegionHeight())+0.01f);
-            canvas.draw(cornerNightStrip, opacity, cornerNightStrip.getRegionWidth() / 2, cornerNightStrip.getRegionHeight() / 2, getX() * drawScale.x, getY() * drawScale.y, getAngle(), (64.f / cornerNightStrip.getRegionWidth())+0.01f, (64.f / cornerNightStrip.getRegionHeight())+0.01f);
+            canvas.draw(cornerStrip, cornerNightStrip, opacity, cornerStrip.getRegionWidth() / 2, cornerStrip.getRegionHeight() / 2, getX() * drawScale.x, getY() * drawScale.y, getAngle(), (64.f / cornerStrip.getRegionWidth())+0.01f, (64.f / cornerStrip.getRegionHeight())+0.01f);
         }
         if(downRight) {
             cornerStrip.setFrame(3);
             cornerNightStrip.setFrame(3);
-            canvas.draw(cornerStrip, Color.WHITE, cornerStrip.getRegionWidth() / 2, cornerStrip.getRegionHeight() / 2, getX() * drawScale.x, getY() * drawScale.y, getAngle(), (64.f / cornerStrip.getRegionWidth())+0.01f, (64.f / cornerStrip.getRegionHeight())+0.01f);
-            canvas.draw(cornerNightStrip, opacity, cornerNightStrip.getRegionWidth() / 2, cornerNightStrip.getRegionHeight() / 2, getX() * drawScale.x, getY() * drawScale.y, getAngle(), (64.f / cornerNightStrip.getRegionWidth())+0.01f, (64.f / cornerNightStrip.getRegionHeight())+0.01f);
+            canvas.draw(cornerStrip, cornerNightStrip, opacity, cornerStrip.getRegionWidth() / 2, cornerStrip.getRegionHeight() / 2, getX() * drawScale.x, getY() * drawScale.y, getAngle(), (64.f / cornerStrip.getRegionWidth())+0.01f, (64.f / cornerStrip.getRegionHeight())+0.01f);
         }
     }
 }
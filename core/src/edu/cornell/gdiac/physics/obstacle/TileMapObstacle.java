@@ -0,0 +1,247 @@
+package edu.cornell.gdiac.physics.obstacle;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.physics.Constants;
+import edu.cornell.gdiac.physics.GameCanvas;
+
+/**
+ * One static body holding the hitboxes of many static tiles.
+ *
+ * Every wall and border tile used to have a body of its own, so a level had
+ * hundreds of static bodies and broadphase proxies just for its outline.  Tiles
+ * added here are merged greedily into as few rectangles as possible, and each
+ * rectangle becomes one fixture of a single body.  The tiles themselves are
+ * marked as merged, so they create no body and are only drawn.
+ *
+ * Hitboxes are merged on a grid of half tiles, which keeps the shorter hitbox of
+ * front walls.  Any hitbox that does not line up with the grid is kept as its own
+ * fixture.
+ *
+ * A map may hold a whole board, or only one chunk of it; the body sits wherever
+ * the map is placed, and its rectangles are kept relative to it.
+ */
+public class TileMapObstacle extends SimpleObstacle {
+
+    /** The width of a merging cell, half a tile */
+    private static final float CELL_WIDTH = Constants.TILE_WIDTH / 2f;
+
+    /** The height of a merging cell, half a tile */
+    private static final float CELL_HEIGHT = Constants.TILE_HEIGHT / 2f;
+
+    /** How close a hitbox edge must be to a cell edge to line up with it */
+    private static final float GRID_EPSILON = 1e-3f;
+
+    /** The hitboxes of the tiles added so far, in world coordinates */
+    private Array<Rectangle> tiles = new Array<Rectangle>();
+
+    /** The merged rectangles, relative to the body */
+    private Array<Rectangle> boxes = new Array<Rectangle>();
+
+    /** The fixtures of the merged rectangles, while the body exists */
+    private Array<Fixture> geometries = new Array<Fixture>();
+
+    /** A cache for computing rectangle centers */
+    private Vector2 centerCache = new Vector2();
+
+    /**
+     * Creates an empty tile map with its body at the given position
+     *
+     * @param name The tag of the tiles, which decides how they collide
+     * @param x The x-coordinate of the body
+     * @param y The y-coordinate of the body
+     */
+    public TileMapObstacle(String name, float x, float y) {
+        super(x, y);
+        setBodyType(BodyDef.BodyType.StaticBody);
+        setName(name);
+    }
+
+    /**
+     * Adds the hitbox of a tile to this map, and marks the tile as merged
+     *
+     * @param tile The tile to add, which must not be in the world yet
+     */
+    public void addTile(BoxObstacle tile) {
+        if (tiles.size == 0) {
+            setDrawScale(tile.getDrawScale());
+        }
+        tiles.add(tile.getHitbox(new Rectangle()));
+        tile.setMerged(true);
+    }
+
+    /**
+     * Merges the hitboxes of the tiles into rectangles, ready to make fixtures
+     *
+     * Grid-aligned hitboxes are drawn onto a grid of half tiles.  Each rectangle
+     * is then grown greedily from the lowest, leftmost free cell: first as far
+     * right as the row allows, then as far up as whole rows allow.
+     */
+    public void merge() {
+        boxes.clear();
+        if (tiles.size == 0) {
+            return;
+        }
+
+        // Find the extent of the grid
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        for (Rectangle r : tiles) {
+            minX = Math.min(minX, r.x);
+            minY = Math.min(minY, r.y);
+            maxX = Math.max(maxX, r.x + r.width);
+            maxY = Math.max(maxY, r.y + r.height);
+        }
+        float originX = MathUtils.floor(minX / CELL_WIDTH) * CELL_WIDTH;
+        float originY = MathUtils.floor(minY / CELL_HEIGHT) * CELL_HEIGHT;
+        int cols = MathUtils.ceil((maxX - originX) / CELL_WIDTH);
+        int rows = MathUtils.ceil((maxY - originY) / CELL_HEIGHT);
+
+        // Fill the grid, keeping hitboxes that do not line up as they are
+        boolean[][] solid = new boolean[cols][rows];
+        for (Rectangle r : tiles) {
+            float left = (r.x - originX) / CELL_WIDTH;
+            float bottom = (r.y - originY) / CELL_HEIGHT;
+            float right = (r.x + r.width - originX) / CELL_WIDTH;
+            float top = (r.y + r.height - originY) / CELL_HEIGHT;
+            if (!onGrid(left) || !onGrid(bottom) || !onGrid(right) || !onGrid(top)) {
+                addBox(r.x, r.y, r.width, r.height);
+                continue;
+            }
+            for (int x = Math.round(left); x < Math.round(right); x++) {
+                for (int y = Math.round(bottom); y < Math.round(top); y++) {
+                    solid[x][y] = true;
+                }
+            }
+        }
+
+        // Greedily cover the solid cells with rectangles
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < cols; x++) {
+                if (!solid[x][y]) {
+                    continue;
+                }
+                int width = 1;
+                while (x + width < cols && solid[x + width][y]) {
+                    width++;
+                }
+                int height = 1;
+                while (y + height < rows && isRowSolid(solid, x, width, y + height)) {
+                    height++;
+                }
+                for (int i = x; i < x + width; i++) {
+                    for (int j = y; j < y + height; j++) {
+                        solid[i][j] = false;
+                    }
+                }
+                addBox(originX + x * CELL_WIDTH, originY + y * CELL_HEIGHT, width * CELL_WIDTH, height * CELL_HEIGHT);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of rectangles the tiles were merged into
+     *
+     * @return the number of rectangles the tiles were merged into
+     */
+    public int getBoxCount() {
+        return boxes.size;
+    }
+
+    /**
+     * Returns the number of tiles added to this map
+     *
+     * @return the number of tiles added to this map
+     */
+    public int getTileCount() {
+        return tiles.size;
+    }
+
+    /**
+     * Returns true if a grid coordinate lies on a cell edge
+     */
+    private static boolean onGrid(float value) {
+        return Math.abs(value - Math.round(value)) < GRID_EPSILON;
+    }
+
+    /**
+     * Returns true if every cell in a span of a row is solid
+     */
+    private static boolean isRowSolid(boolean[][] solid, int x, int width, int y) {
+        for (int i = x; i < x + width; i++) {
+            if (!solid[i][y]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds a rectangle, given in world coordinates
+     */
+    private void addBox(float x, float y, float width, float height) {
+        boxes.add(new Rectangle(x - getX(), y - getY(), width, height));
+    }
+
+    /**
+     * Create new fixtures for this body, one for each merged rectangle
+     *
+     * Box2D copies the shape into each fixture, so one shape serves them all and
+     * is disposed once they are made.
+     */
+    protected void createFixtures() {
+        if (body == null) {
+            return;
+        }
+
+        releaseFixtures();
+
+        PolygonShape shape = new PolygonShape();
+        for (Rectangle box : boxes) {
+            shape.setAsBox(box.width / 2, box.height / 2, box.getCenter(centerCache), 0);
+            fixture.shape = shape;
+            geometries.add(body.createFixture(fixture));
+        }
+        shape.dispose();
+        fixture.shape = null;
+        markDirty(false);
+    }
+
+    /**
+     * Release the fixtures for this body
+     */
+    protected void releaseFixtures() {
+        for (Fixture geometry : geometries) {
+            body.destroyFixture(geometry);
+        }
+        geometries.clear();
+    }
+
+    /**
+     * Draws nothing, as the merged tiles draw themselves
+     *
+     * @param canvas Drawing context
+     */
+    public void draw(GameCanvas canvas) {
+    }
+
+    /**
+     * Draws the outline of every merged rectangle, while the body exists.
+     *
+     * @param canvas Drawing context
+     */
+    public void drawDebug(GameCanvas canvas) {
+        for (Fixture geometry : geometries) {
+            canvas.drawPhysics((PolygonShape) geometry.getShape(), Color.YELLOW, getX(), getY(), getAngle(),
+                    drawScale.x, drawScale.y);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package edu.cornell.gdiac.physics.obstacle;
 
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.PolygonShape;
 import edu.cornell.gdiac.physics.GameCanvas;
@@ -71,6 +72,9 @@ public class Wall extends BoxObstacle {
     /** If the hitbox should update with the wall texture */
     private boolean updateHitbox;
 
+    /** Whether this front wall uses the shorter hitbox from setAltHitbox */
+    private boolean altHitbox;
+
     private int primaryFrame;
     private int leftFrame;
     private int rightFrame;
@@ -190,7 +194,27 @@ public class Wall extends BoxObstacle {
             PolygonShape s = new PolygonShape();
             s.setAsBox(getWidth() / 2, getHeight() / 4, cache.set(0, getHeight() / 4), 0);
             shape = s;
+            altHitbox = true;
+        }
+    }
+
+    /**
+     * Returns the world bounds of the hitbox of this wall.
+     *
+     * After setAltHitbox, a front wall only covers the top half of its tile.
+     *
+     * @param rect The rectangle to store the bounds in
+     *
+     * @return the given rectangle, set to the hitbox bounds
+     */
+    @Override
+    public Rectangle getHitbox(Rectangle rect) {
+        super.getHitbox(rect);
+        if (altHitbox) {
+            rect.y += rect.height / 2;
+            rect.height /= 2;
         }
+        return rect;
     }
 
     /**
@@ -328,9 +352,7 @@ public class Wall extends BoxObstacle {
 //        canvas.draw(texture, Color.WHITE,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),getWidth() * drawScale.x / texture.getRegionWidth(), getHeight() * drawScale.y / texture.getRegionHeight());
 
         setScaling(wallStrip);
-        canvas.draw(texture,  Color.WHITE,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
-        setScaling(wallNightStrip);
-        canvas.draw(textureNight, opacity,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
+        canvas.draw(texture, textureNight, opacity, origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
 
         // Draw the left side
         if(leftFrame != NO_SIDE) {
@@ -339,9 +361,7 @@ public class Wall extends BoxObstacle {
 //            canvas.draw(texture, Color.WHITE,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),getWidth() * drawScale.x / texture.getRegionWidth(), getHeight() * drawScale.y / texture.getRegionHeight());
 
             setScaling(wallStrip);
-            canvas.draw(texture,  Color.WHITE,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
-            setScaling(wallNightStrip);
-            canvas.draw(textureNight, opacity,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
+            canvas.draw(texture, textureNight, opacity, origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
         }
 
         // Draw the right side
@@ -349,8 +369,7 @@ public class Wall extends BoxObstacle {
             wallStrip.setFrame(rightFrame);
             wallNightStrip.setFrame(rightFrame);
 //            canvas.draw(texture, Color.WHITE,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),getWidth() * drawScale.x / texture.getRegionWidth(), getHeight() * drawScale.y / texture.getRegionHeight());
-            canvas.draw(texture,  Color.WHITE,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
-            canvas.draw(textureNight, opacity,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
+            canvas.draw(texture, textureNight, opacity, origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
         }
 
         // Draw the front edge
@@ -360,9 +379,7 @@ public class Wall extends BoxObstacle {
 //            canvas.draw(texture, Color.WHITE,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),getWidth() * drawScale.x / texture.getRegionWidth(), getHeight() * drawScale.y / texture.getRegionHeight());
 
             setScaling(wallStrip);
-            canvas.draw(texture,  Color.WHITE,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
-            setScaling(wallNightStrip);
-            canvas.draw(textureNight, opacity,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
+            canvas.draw(texture, textureNight, opacity, origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
         }
 
         // Draw the corners
@@ -372,9 +389,7 @@ public class Wall extends BoxObstacle {
 //            canvas.draw(texture, Color.WHITE,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),getWidth() * drawScale.x / texture.getRegionWidth(), getHeight() * drawScale.y / texture.getRegionHeight());
 
             setScaling(wallStrip);
-            canvas.draw(texture,  Color.WHITE,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
-            setScaling(wallNightStrip);
-            canvas.draw(textureNight, opacity,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
+            canvas.draw(texture, textureNight, opacity, origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
         }
         if(lowerRightCornerFrame != NO_SIDE) {
             wallStrip.setFrame(lowerRightCornerFrame);
@@ -382,9 +397,7 @@ public class Wall extends BoxObstacle {
 //            canvas.draw(texture, Color.WHITE,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),getWidth() * drawScale.x / texture.getRegionWidth(), getHeight() * drawScale.y / texture.getRegionHeight());
 
             setScaling(wallStrip);
-            canvas.draw(texture,  Color.WHITE,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
-            setScaling(wallNightStrip);
-            canvas.draw(textureNight, opacity,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
+            canvas.draw(texture, textureNight, opacity, origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
         }
     }
 
@@ -426,9 +439,7 @@ public class Wall extends BoxObstacle {
 //            canvas.draw(texture, Color.WHITE,(int)origin.x,(int)origin.y,getX()*drawScale.x,(getY() + TILE_WIDTH)*drawScale.y,getAngle(),getWidth() * drawScale.x / texture.getRegionWidth(), getHeight() * drawScale.y / texture.getRegionHeight());
 
             setScaling(wallStrip);
-            canvas.draw(texture,  Color.WHITE,(int)origin.x,(int)origin.y,(int)(getX()*drawScale.x),(int)((getY() + TILE_WIDTH)*drawScale.y),getAngle(),sx,sy);
-            setScaling(wallNightStrip);
-            canvas.draw(textureNight, opacity,(int)origin.x,(int)origin.y,(int)(getX()*drawScale.x),(int)((getY() + TILE_WIDTH)*drawScale.y),getAngle(),sx,sy);
+            canvas.draw(texture, textureNight, opacity, (int)origin.x,(int)origin.y,(int)(getX()*drawScale.x),(int)((getY() + TILE_WIDTH)*drawScale.y),getAngle(),sx,sy);
             // Draw the line behind the back edge and the wall, if this is a top wall
             if(!isFrontWall()) {
                 wallStrip.setFrame(BACK_LINE);
@@ -436,9 +447,7 @@ public class Wall extends BoxObstacle {
 //                canvas.draw(texture, Color.WHITE,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),getWidth() * drawScale.x / texture.getRegionWidth(), getHeight() * drawScale.y / texture.getRegionHeight());
 
                 setScaling(wallStrip);
-                canvas.draw(texture,  Color.WHITE,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
-                setScaling(wallNightStrip);
-                canvas.draw(textureNight, opacity,origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
+                canvas.draw(texture, textureNight, opacity, origin.x,origin.y,getX()*drawScale.x,getY()*drawScale.y,getAngle(),sx,sy);
             }
         }
     }
@@ -40,7 +40,7 @@ public class SpiritModel extends BoxObstacle {
     /** Whether spirit bounced or not*/
     private boolean didBounce;
     /** Position at Bounce */
-    private Vector2 posAtBounce;
+    private Vector2 posAtBounce = new Vector2();
 
     // Animation related Variables
 
@@ -50,12 +50,16 @@ public class SpiritModel extends BoxObstacle {
     protected FilmStrip spiritTailStrip;
     /** The texture filmstrip for the spirit head */
     protected FilmStrip spiritHeadStrip;
-    /** The number of frames that have elapsed since the last animation update */
-    private int elapsedFrames = 0;
-    /** The number of frames that should pass before the animation updates */
-    private int framesPerUpdate = 8;
-    /** Whether or not animation should be updated on this frame */
-    private boolean updateFrame;
+
+    // State at the start of the level, put back by restoreInitialState
+
+    private int initialBounces;
+    private boolean initialLaunched;
+    private float initialLife;
+    private boolean initialAlive;
+    private boolean initialPossessing;
+    private boolean initialGoToCenter;
+    private Vector2 initialPosAtBounce = new Vector2();
 
 
 
@@ -66,14 +70,14 @@ public class SpiritModel extends BoxObstacle {
         isAlive = true;
         goToCenter = false;
         isPossessing = false;
-        this.posAtBounce = this.getPosition();
+        this.posAtBounce.set(this.getPosition());
     }
 
     public SpiritModel(float x, float y, int b) {
         super(x, y, 10, 10);
         bounces = b;
         isAlive = true;
-        this.posAtBounce = this.getPosition();
+        this.posAtBounce.set(this.getPosition());
     }
 
     public SpiritModel(float x, float y, float width, float height, int lives, int b, float defaultLife) {
@@ -88,7 +92,7 @@ public class SpiritModel extends BoxObstacle {
         this.defaultLife = defaultLife;
         this.currentLife = this.defaultLife;
         isAlive = true;
-        this.posAtBounce = this.getPosition();
+        this.posAtBounce.set(this.getPosition());
 
     }
 
@@ -102,10 +106,11 @@ public class SpiritModel extends BoxObstacle {
 
     /**
      * Sets the position of the spirit at bounce
-     * @param posAtBounce indicates the position of the spirit at bounce
+     * @param x the x-coordinate of the spirit at bounce
+     * @param y the y-coordinate of the spirit at bounce
      */
-    public void setPosAtBounce(Vector2 posAtBounce) {
-        this.posAtBounce = posAtBounce;
+    public void setPosAtBounce(float x, float y) {
+        this.posAtBounce.set(x, y);
     }
 
     /**
@@ -274,24 +279,58 @@ public class SpiritModel extends BoxObstacle {
         this.spiritTailStrip.setFrame(SPIRIT_FRAME_STARTING);
     }
 
-    public void updateAnimation () {
-        elapsedFrames++;
-        updateFrame = true;
+    /**
+     * Records the current state as the start of the level
+     */
+    public void saveInitialState() {
+        super.saveInitialState();
+        initialBounces = bounces;
+        initialLaunched = hasLaunched;
+        initialLife = currentLife;
+        initialAlive = isAlive;
+        initialPossessing = isPossessing;
+        initialGoToCenter = goToCenter;
+        initialPosAtBounce.set(posAtBounce);
+        saveFrames(spiritHeadStrip, spiritTailStrip);
+    }
+
+    /**
+     * Returns the spirit to the state recorded by saveInitialState
+     */
+    public void restoreInitialState() {
+        super.restoreInitialState();
+        bounces = initialBounces;
+        hasLaunched = initialLaunched;
+        currentLife = initialLife;
+        isAlive = initialAlive;
+        isPossessing = initialPossessing;
+        goToCenter = initialGoToCenter;
+        posAtBounce.set(initialPosAtBounce);
+        didBounce = false;
+    }
 
-        if (elapsedFrames >= framesPerUpdate) {
-            updateFrame = true;
-            elapsedFrames = 0;
+    /**
+     * Advances the head and tail animation by a frame for each tick of the animation clock
+     *
+     * @param ticks the number of animation clock ticks since the last update
+     */
+    public void updateAnimation(int ticks) {
+        if (ticks == 0) {
+            return;
         }
-        if (updateFrame) {
-            if (((this.spiritHeadStrip.getFrame() < this.spiritHeadStrip.getSize() - 1) &&
-                    (this.spiritTailStrip.getFrame() < this.spiritTailStrip.getSize() - 1))) {
-                this.spiritTailStrip.setFrame(this.spiritTailStrip.getFrame() + 1);
-                this.spiritHeadStrip.setFrame(this.spiritHeadStrip.getFrame() + 1);
+        int head = this.spiritHeadStrip.getFrame();
+        int tail = this.spiritTailStrip.getFrame();
+        for (int i = 0; i < ticks; i++) {
+            if (head < this.spiritHeadStrip.getSize() - 1 && tail < this.spiritTailStrip.getSize() - 1) {
+                head++;
+                tail++;
             } else {
-                this.spiritHeadStrip.setFrame(SPIRIT_FRAME_STARTING);
-                this.spiritTailStrip.setFrame(SPIRIT_FRAME_STARTING);
+                head = SPIRIT_FRAME_STARTING;
+                tail = SPIRIT_FRAME_STARTING;
             }
         }
+        this.spiritHeadStrip.setFrame(head);
+        this.spiritTailStrip.setFrame(tail);
     }
 
     /**
@@ -311,18 +350,31 @@ public class SpiritModel extends BoxObstacle {
         if (!isPossessing && !goToCenter) {
 
             if(this.didBounce) {
-                canvas.draw(spiritHeadStrip, lifeColor, spiritHeadStrip.getRegionWidth() - 14, spiritHeadStrip.getRegionHeight() / 2, getX() * drawScale.x, getY() * drawScale.y, this.getVelocity().angleRad(), 0.75f, 0.75f);
-                canvas.draw(spiritTailStrip, Color.CLEAR, spiritTailStrip.getRegionWidth() - 14, spiritTailStrip.getRegionHeight() / 2, getX() * drawScale.x, getY() * drawScale.y, this.getVelocity().angleRad(), 0.75f, 0.75f);
+                canvas.draw(spiritHeadStrip, lifeColor, spiritHeadStrip.getRegionWidth() - 14, spiritHeadStrip.getRegionHeight() / 2, getDrawX() * drawScale.x, getDrawY() * drawScale.y, this.getVelocity().angleRad(), 0.75f, 0.75f);
+                canvas.draw(spiritTailStrip, Color.CLEAR, spiritTailStrip.getRegionWidth() - 14, spiritTailStrip.getRegionHeight() / 2, getDrawX() * drawScale.x, getDrawY() * drawScale.y, this.getVelocity().angleRad(), 0.75f, 0.75f);
             }
             else {
-                canvas.draw(spiritHeadStrip, lifeColor, spiritHeadStrip.getRegionWidth() - 14, spiritHeadStrip.getRegionHeight() / 2, getX() * drawScale.x, getY() * drawScale.y, this.getVelocity().angleRad(), 0.75f, 0.75f);
+                canvas.draw(spiritHeadStrip, lifeColor, spiritHeadStrip.getRegionWidth() - 14, spiritHeadStrip.getRegionHeight() / 2, getDrawX() * drawScale.x, getDrawY() * drawScale.y, this.getVelocity().angleRad(), 0.75f, 0.75f);
                 if(Vector2.dst2(this.getPosition().x, this.getPosition().y, this.getPosAtBounce().x, this.getPosAtBounce().y) >= 8f) {
-                    canvas.draw(spiritTailStrip, lifeColor, spiritTailStrip.getRegionWidth() - 14, spiritTailStrip.getRegionHeight() / 2, getX() * drawScale.x, getY() * drawScale.y, this.getVelocity().angleRad(), 0.75f, 0.75f);
+                    canvas.draw(spiritTailStrip, lifeColor, spiritTailStrip.getRegionWidth() - 14, spiritTailStrip.getRegionHeight() / 2, getDrawX() * drawScale.x, getDrawY() * drawScale.y, this.getVelocity().angleRad(), 0.75f, 0.75f);
                 }
                 else {
-                    canvas.draw(spiritTailStrip, tailColor, spiritHeadStrip.getRegionWidth() - 14, spiritHeadStrip.getRegionHeight() / 2, getX() * drawScale.x, getY() * drawScale.y, this.getVelocity().angleRad(), 0.75f, 0.75f);
+                    canvas.draw(spiritTailStrip, tailColor, spiritHeadStrip.getRegionWidth() - 14, spiritHeadStrip.getRegionHeight() / 2, getDrawX() * drawScale.x, getDrawY() * drawScale.y, this.getVelocity().angleRad(), 0.75f, 0.75f);
                 }
             }
         }
     }
+
+    /**
+     * Draws a ghost of the spirit, as its head flying somewhere else
+     *
+     * @param canvas Drawing context
+     * @param x The x-coordinate of the ghost in screen coordinates
+     * @param y The y-coordinate of the ghost in screen coordinates
+     * @param angle The angle the ghost flies at, in radians
+     * @param tint The color to tint the ghost with
+     */
+    public void drawGhost(GameCanvas canvas, float x, float y, float angle, Color tint) {
+        canvas.draw(spiritHeadStrip, tint, spiritHeadStrip.getRegionWidth() - 14, spiritHeadStrip.getRegionHeight() / 2, x, y, angle, 0.75f, 0.75f);
+    }
 }
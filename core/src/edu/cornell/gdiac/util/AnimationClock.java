@@ -0,0 +1,74 @@
+/*
+ * AnimationClock.java
+ *
+ * Film strip animations were made to advance one frame every so many rendered
+ * frames, at 60 frames a second.  On a faster display they played faster, and
+ * set the region of their strips far more often than needed.  This clock turns
+ * elapsed time back into those 60 Hz ticks, so each animation advances by the
+ * ticks that actually passed, and does nothing when none did.
+ */
+package edu.cornell.gdiac.util;
+
+/**
+ * A clock counting animation ticks from elapsed time.
+ *
+ * One clock is shared by every animation of a mode.  Each frame the mode calls
+ * update() with the frame time, and each animation adds getElapsedTicks() to its
+ * own counter, advancing its film strip once per whole period.  The time is kept
+ * as a double, so long sessions do not drift.
+ */
+public class AnimationClock {
+	/** The length of a tick in seconds, the frame rate the animations were made for */
+	public static final double TICK = 1.0 / 60.0;
+
+	/** Slack for time that is a whole number of ticks, but rounded just below */
+	private static final double TICK_EPSILON = 1e-6;
+
+	/** The number of seconds since the clock was reset */
+	private double time;
+	/** The number of whole ticks since the clock was reset */
+	private long ticks;
+	/** The number of ticks that passed in the last update */
+	private int elapsed;
+
+	/**
+	 * Puts the clock back at zero
+	 */
+	public void reset() {
+		time = 0;
+		ticks = 0;
+		elapsed = 0;
+	}
+
+	/**
+	 * Advances the clock by the time of a frame
+	 *
+	 * @param dt Number of seconds since the last update
+	 */
+	public void update(float dt) {
+		time += dt;
+		long now = (long) (time / TICK + TICK_EPSILON);
+		elapsed = (int) (now - ticks);
+		ticks = now;
+	}
+
+	/**
+	 * Returns the number of ticks that passed in the last update
+	 *
+	 * This is 0 on most frames of a fast display, and more than 1 on a slow one.
+	 *
+	 * @return the number of ticks that passed in the last update
+	 */
+	public int getElapsedTicks() {
+		return elapsed;
+	}
+
+	/**
+	 * Returns the number of whole ticks since the clock was reset
+	 *
+	 * @return the number of whole ticks since the clock was reset
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+}
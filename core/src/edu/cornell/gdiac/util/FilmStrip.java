@@ -18,8 +18,14 @@
 package edu.cornell.gdiac.util;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.g2d.*;
 import com.badlogic.gdx.graphics.*;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Texture class providing flipbook animation.
@@ -46,6 +52,12 @@ public class FilmStrip extends TextureRegion {
 	
 	/** The number of frames in this filmstrip */
 	private int size;
+
+	/** The left edge of the sheet in its texture, for sheets packed in an atlas */
+	private int left;
+
+	/** The top edge of the sheet in its texture, for sheets packed in an atlas */
+	private int top;
 	
 	/** The active animation frame */
 	private int frame;
@@ -74,17 +86,93 @@ public class FilmStrip extends TextureRegion {
 	 * @param size The number of frames in the filmstrip
 	 */
 	public FilmStrip(Texture texture, int rows, int cols, int size) {
-		super(texture);
+		this(new TextureRegion(texture),rows,cols,size);
+	}
+
+	/**
+	 * Creates a new filmstrip from a region of a texture.
+	 *
+	 * The region holds the whole sheet, such as a sheet packed into a page of a
+	 * texture atlas.  Frames are cut from the region rather than the texture, so
+	 * strips from many sheets can share one texture.
+	 *
+	 * @param region The region holding the sheet
+	 * @param rows The number of rows in the filmstrip
+	 * @param cols The number of columns in the filmstrip
+	 * @param size The number of frames in the filmstrip
+	 */
+	public FilmStrip(TextureRegion region, int rows, int cols, int size) {
+		super(region);
 		if (size > rows*cols) {
-			Gdx.app.error("FilmStrip", "Invalid strip size", new IllegalArgumentException());
+			error("Invalid strip size");
 			return;
 		}
 		this.cols = cols;
 		this.size = size;
-		rwidth  = texture.getWidth()/cols;
-		rheight = texture.getHeight()/rows;
+		left = region.getRegionX();
+		top  = region.getRegionY();
+		rwidth  = region.getRegionWidth()/cols;
+		rheight = region.getRegionHeight()/rows;
 		setFrame(0);
 	}
+
+	/**
+	 * Creates a new filmstrip with no texture, for headless simulation.
+	 *
+	 * A texture-free filmstrip tracks frames exactly like a normal one, so any
+	 * gameplay tied to animation (gates, golem death) behaves the same.  The image
+	 * size is only used to report the size of a single frame.
+	 *
+	 * @param width The width of the full image in pixels
+	 * @param height The height of the full image in pixels
+	 * @param rows The number of rows in the filmstrip
+	 * @param cols The number of columns in the filmstrip
+	 * @param size The number of frames in the filmstrip
+	 */
+	public FilmStrip(int width, int height, int rows, int cols, int size) {
+		super();
+		if (size > rows*cols) {
+			error("Invalid strip size");
+			return;
+		}
+		this.cols = cols;
+		this.size = size;
+		rwidth  = width/cols;
+		rheight = height/rows;
+		setFrame(0);
+	}
+
+	/**
+	 * Reads the pixel size of a PNG image from its header, without decoding it.
+	 *
+	 * This lets headless code size texture-free filmstrips like the real ones.
+	 *
+	 * @param file The PNG file to measure
+	 *
+	 * @return the width and height of the image, in that order
+	 */
+	public static int[] readImageSize(FileHandle file) {
+		byte[] header = new byte[24];
+		InputStream in = file.read();
+		try {
+			int read = 0;
+			while (read < header.length) {
+				int n = in.read(header, read, header.length - read);
+				if (n < 0) {
+					throw new GdxRuntimeException("Truncated image header: " + file.path());
+				}
+				read += n;
+			}
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Could not read image: " + file.path(), e);
+		} finally {
+			StreamUtils.closeQuietly(in);
+		}
+		// The IHDR chunk follows the 8 byte signature and 8 byte chunk header
+		int width  = ((header[16] & 0xff) << 24) | ((header[17] & 0xff) << 16) | ((header[18] & 0xff) << 8) | (header[19] & 0xff);
+		int height = ((header[20] & 0xff) << 24) | ((header[21] & 0xff) << 16) | ((header[22] & 0xff) << 8) | (header[23] & 0xff);
+		return new int[] {width, height};
+	}
 	
 	/**
 	 * Returns the number of frames in this filmstrip.
@@ -113,13 +201,47 @@ public class FilmStrip extends TextureRegion {
 	 */
 	public void setFrame(int frame) {
 		if (frame < 0 || frame >= size) {
-			Gdx.app.error("FilmStrip", "Invalid animation frame number: ", new IllegalArgumentException());
+			error("Invalid animation frame number: ");
 			return;
 		}
 		this.frame = frame;
-		int x = (frame % cols)*rwidth;
-		int y = (frame / cols)*rheight;
+		if (getTexture() == null) {
+			return;
+		}
+		int x = left+(frame % cols)*rwidth;
+		int y = top+(frame / cols)*rheight;
 		setRegion(x,y,rwidth,rheight);
 	}
 
+	/**
+	 * Returns the width of a single frame, even if there is no texture.
+	 *
+	 * @return the width of a single frame
+	 */
+	@Override
+	public int getRegionWidth() {
+		return (getTexture() != null ? super.getRegionWidth() : rwidth);
+	}
+
+	/**
+	 * Returns the height of a single frame, even if there is no texture.
+	 *
+	 * @return the height of a single frame
+	 */
+	@Override
+	public int getRegionHeight() {
+		return (getTexture() != null ? super.getRegionHeight() : rheight);
+	}
+
+	/**
+	 * Logs an error, if there is an application to log it to.
+	 *
+	 * @param message The error message
+	 */
+	private static void error(String message) {
+		if (Gdx.app != null) {
+			Gdx.app.error("FilmStrip", message, new IllegalArgumentException());
+		}
+	}
+
 }
\ No newline at end of file
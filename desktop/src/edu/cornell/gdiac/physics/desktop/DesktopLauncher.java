@@ -15,6 +15,7 @@ package edu.cornell.gdiac.physics.desktop;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
 import edu.cornell.gdiac.physics.GDXRoot;
+import edu.cornell.gdiac.physics.WorldController;
 
 /**
  * The main class of the game.
@@ -29,15 +30,53 @@ public class DesktopLauncher {
 	 * 
 	 * This method simply exists to start a new LwjglApplication.  For desktop games,
 	 * LibGDX is built on top of LWJGL (this is not the case for Android).
+	 *
+	 * Passing "-physics N" steps the physics N times a second, which can be lower
+	 * than the default on slow machines.  Passing "-speed N" fast-forwards the game,
+	 * simulating N frames for each one drawn, and "-speed max" simulates as fast as
+	 * possible without drawing.  Passing "-record FILE" records the input of the last
+	 * attempt at a level to FILE, to play back with ReplayLauncher at the physics
+	 * rate it was recorded at.  Passing
+	 * "-timetrial" races each level against the ghosts of its fastest runs.
 	 * 
 	 * @param arg Command line arguments
 	 */
 	public static void main (String[] arg) {
+		int physicsRate = 0;
+		int speed = 1;
+		String recordFile = null;
+		boolean timeTrial = false;
+		for (int i = 0; i < arg.length; i++) {
+			if (arg[i].equals("-physics") && i + 1 < arg.length) {
+				physicsRate = Integer.parseInt(arg[++i]);
+				if (physicsRate < 1) {
+					throw new IllegalArgumentException("-physics must be at least 1: " + physicsRate);
+				}
+			} else if (arg[i].equals("-speed") && i + 1 < arg.length) {
+				i++;
+				if (arg[i].equals("max")) {
+					speed = WorldController.SPEED_MAX;
+				} else {
+					// A number below 1 would otherwise read as SPEED_MAX
+					speed = Integer.parseInt(arg[i]);
+					if (speed < 1) {
+						throw new IllegalArgumentException("-speed must be at least 1, or max: " + speed);
+					}
+				}
+			} else if (arg[i].equals("-record") && i + 1 < arg.length) {
+				recordFile = arg[++i];
+			} else if (arg[i].equals("-timetrial")) {
+				timeTrial = true;
+			}
+		}
+
 		LwjglApplicationConfiguration config = new LwjglApplicationConfiguration();
 		config.width  = 1024;
 		config.height = 576;
 		config.resizable = false;
 		config.title = "modosu";
-		new LwjglApplication(new GDXRoot(), config);
+		GDXRoot root = new GDXRoot(physicsRate, speed, recordFile);
+		root.setTimeTrial(timeTrial);
+		new LwjglApplication(root, config);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+/*
+ * HeadlessLauncher.java
+ *
+ * Runs the gameplay simulation with no window, for batch checks and performance
+ * runs on machines without a GPU.  Each level is loaded through the headless
+ * Loader and stepped with idle input: the spirit waits on the pedestal while the
+ * golems patrol and the gates cycle.
+ */
+package edu.cornell.gdiac.physics.desktop;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import edu.cornell.gdiac.physics.InputController;
+import edu.cornell.gdiac.physics.Loader;
+import edu.cornell.gdiac.physics.Simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The main class of the headless simulation.
+ *
+ * Usage: HeadlessLauncher [-steps N] [level files...]
+ *
+ * With no level files, every level in the levels directory is simulated.  The
+ * working directory must be the assets directory.
+ */
+public class HeadlessLauncher {
+	/** Physics steps to simulate per level by default (one minute of game time) */
+	private static final int DEFAULT_STEPS = 3600;
+
+	/**
+	 * Simulates each level and prints how fast it ran.
+	 *
+	 * @param arg Command line arguments
+	 */
+	public static void main (String[] arg) {
+		GdxNativesLoader.load();
+
+		int steps = DEFAULT_STEPS;
+		ArrayList<FileHandle> files = new ArrayList<FileHandle>();
+		for (int i = 0; i < arg.length; i++) {
+			if (arg[i].equals("-steps") && i + 1 < arg.length) {
+				steps = Integer.parseInt(arg[++i]);
+			} else {
+				files.add(new FileHandle(arg[i]));
+			}
+		}
+		if (files.isEmpty()) {
+			FileHandle[] levels = new FileHandle("levels").list(".lvl");
+			Arrays.sort(levels, new java.util.Comparator<FileHandle>() {
+				public int compare(FileHandle a, FileHandle b) {
+					return a.name().compareTo(b.name());
+				}
+			});
+			files.addAll(Arrays.asList(levels));
+		}
+
+		Loader loader = Simulation.createHeadlessLoader(new FileHandle("."));
+		long totalSteps = 0;
+		long totalNanos = 0;
+		for (int i = 0; i < files.size(); i++) {
+			FileHandle file = files.get(i);
+			InputController input = new InputController();
+			Simulation simulation = Simulation.load(loader, file, i, input);
+
+			long start = System.nanoTime();
+			for (int n = 0; n < steps && !simulation.isComplete() && !simulation.isFailure(); n++) {
+				// Idle input: no movement, mouse resting on the spirit
+				input.setInput(0, 0, Simulation.SCREEN_WIDTH / 2, Simulation.SCREEN_HEIGHT / 2, false);
+				simulation.step();
+			}
+			long elapsed = System.nanoTime() - start;
+
+			totalSteps += simulation.getSteps();
+			totalNanos += elapsed;
+			System.out.println(String.format("%-12s %6d steps  %8.1f ms  %9.0f steps/s%s",
+					file.name(), simulation.getSteps(), elapsed / 1e6,
+					simulation.getSteps() / (elapsed / 1e9),
+					simulation.isFailure() ? "  (host blew up)" : ""));
+			simulation.dispose();
+		}
+		if (totalNanos > 0) {
+			System.out.println(String.format("total        %6d steps  %8.1f ms  %9.0f steps/s",
+					totalSteps, totalNanos / 1e6, totalSteps / (totalNanos / 1e9)));
+		}
+	}
+}
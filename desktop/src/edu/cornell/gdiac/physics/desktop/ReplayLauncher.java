@@ -0,0 +1,89 @@
+/*
+ * ReplayLauncher.java
+ *
+ * Plays recorded attempts back without a window, as fast as the CPU allows.  An
+ * attempt recorded with "-record" in the desktop game is stepped through a
+ * headless Simulation with the same input, so a bug report can be reproduced,
+ * a change can be checked against old recordings, and a speedrun can be verified.
+ */
+package edu.cornell.gdiac.physics.desktop;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import edu.cornell.gdiac.physics.InputController;
+import edu.cornell.gdiac.physics.InputLog;
+import edu.cornell.gdiac.physics.Loader;
+import edu.cornell.gdiac.physics.Simulation;
+
+/**
+ * The main class of the replay driver.
+ *
+ * Usage: ReplayLauncher [recordings...]
+ *
+ * Each recording is played to its last step, and its outcome is compared with the
+ * recorded one.  The exit code is the number of recordings that did not match, so
+ * a set of recordings can serve as a regression check.  The working directory must
+ * be the assets directory.
+ */
+public class ReplayLauncher {
+
+	/**
+	 * Plays back each recording and prints whether it matched.
+	 *
+	 * @param arg Command line arguments
+	 */
+	public static void main (String[] arg) {
+		GdxNativesLoader.load();
+
+		Loader loader = Simulation.createHeadlessLoader(new FileHandle("."));
+		int mismatches = 0;
+		for (int i = 0; i < arg.length; i++) {
+			InputLog log = InputLog.read(new FileHandle(arg[i]));
+			InputController input = new InputController();
+			Simulation simulation = Simulation.load(loader, new FileHandle(log.getLevelPath()),
+					log.getLevelIndex(), input);
+
+			int outcome = InputLog.OUTCOME_NONE;
+			int outcomeStep = -1;
+			long start = System.nanoTime();
+			for (int n = 0; n < log.getStepCount(); n++) {
+				simulation.step(log.getStepSize(), log.playStep(input));
+				if (outcome == InputLog.OUTCOME_NONE) {
+					if (simulation.didWin()) {
+						outcome = InputLog.OUTCOME_WON;
+						outcomeStep = n;
+					} else if (simulation.didLose()) {
+						outcome = InputLog.OUTCOME_LOST;
+						outcomeStep = n;
+					}
+				}
+			}
+			long elapsed = System.nanoTime() - start;
+
+			boolean match = outcome == log.getOutcome() && outcomeStep == log.getOutcomeStep();
+			if (!match) {
+				mismatches++;
+			}
+			System.out.println(String.format("%-24s %-16s %6d steps  %-4s at %6d  %8.1f ms  %s",
+					arg[i], log.getLevelPath(), log.getStepCount(), describe(outcome), outcomeStep,
+					elapsed / 1e6, match ? "ok" : "MISMATCH (recorded " + describe(log.getOutcome())
+							+ " at " + log.getOutcomeStep() + ")"));
+			simulation.dispose();
+		}
+		System.exit(mismatches);
+	}
+
+	/**
+	 * Returns a short name for an outcome
+	 */
+	private static String describe(int outcome) {
+		switch (outcome) {
+			case InputLog.OUTCOME_WON:
+				return "won";
+			case InputLog.OUTCOME_LOST:
+				return "lost";
+			default:
+				return "none";
+		}
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * SolverLauncher.java
+ *
+ * Checks that levels can be completed, without a window.  Every level is searched
+ * by the LevelSolver, and the shortest solution found or the hosts never reached
+ * are printed.  The search is a heuristic, so neither is a proof.  The exit code
+ * is the number of levels with no solution found, so this can gate a release build.
+ */
+package edu.cornell.gdiac.physics.desktop;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import edu.cornell.gdiac.physics.LevelSolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The main class of the level solver.
+ *
+ * Usage: SolverLauncher [-threads N] [-angles N] [-beam N] [-extra N] [level files...]
+ *
+ * With no level files, every level in the levels directory and every custom level
+ * in the Custom directory is searched.  The working directory must be the assets
+ * directory.  "-beam 0" searches without pruning, which is slower but only
+ * leaves the sampled shots between a level reported unsolved and a proof.
+ */
+public class SolverLauncher {
+
+	/**
+	 * Searches each level and prints what was found.
+	 *
+	 * @param arg Command line arguments
+	 */
+	public static void main (String[] arg) {
+		GdxNativesLoader.load();
+
+		int threads = Runtime.getRuntime().availableProcessors();
+		ArrayList<FileHandle> files = new ArrayList<FileHandle>();
+		int angles = LevelSolver.DEFAULT_ANGLES;
+		int beam = LevelSolver.DEFAULT_BEAM_WIDTH;
+		int extra = LevelSolver.DEFAULT_EXTRA_SHOTS;
+		for (int i = 0; i < arg.length; i++) {
+			if (arg[i].equals("-threads") && i + 1 < arg.length) {
+				threads = Integer.parseInt(arg[++i]);
+			} else if (arg[i].equals("-angles") && i + 1 < arg.length) {
+				angles = Integer.parseInt(arg[++i]);
+			} else if (arg[i].equals("-beam") && i + 1 < arg.length) {
+				beam = Integer.parseInt(arg[++i]);
+			} else if (arg[i].equals("-extra") && i + 1 < arg.length) {
+				extra = Integer.parseInt(arg[++i]);
+			} else {
+				files.add(new FileHandle(arg[i]));
+			}
+		}
+		if (files.isEmpty()) {
+			files.addAll(listLevels(new FileHandle("levels")));
+			files.addAll(listLevels(new FileHandle("Custom")));
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		LevelSolver solver = new LevelSolver(new FileHandle("."), pool);
+		solver.setAngles(angles);
+		solver.setBeamWidth(beam);
+		solver.setExtraShots(extra);
+
+		int unsolved = 0;
+		for (FileHandle file : files) {
+			LevelSolver.Result result = solver.solve(file);
+			String stats = String.format("(%d states, %d candidate shots, %.1f s)",
+					result.states, result.simulations, result.millis / 1000f);
+			if (result.solvable) {
+				System.out.println(String.format("%-12s %2d hosts  solved in %d shots (fewest found)  %s",
+						file.path(), result.hosts, result.getFewestShotsFound(), stats));
+				for (int i = 0; i < result.solution.size(); i++) {
+					System.out.println("               " + (i + 1) + ". " + result.solution.get(i));
+				}
+			} else {
+				unsolved++;
+				System.out.println(String.format("%-12s %2d hosts  NO SOLUTION FOUND  %s",
+						file.path(), result.hosts, stats));
+				for (int i = 0; i < result.unreachable.size(); i++) {
+					System.out.println("               never reached host " + result.unreachable.get(i)
+							+ " starting at " + result.unreachablePositions.get(i));
+				}
+				if (result.pruned) {
+					System.out.println("               the search was pruned; try a wider -beam, or -beam 0");
+				}
+			}
+		}
+		pool.shutdown();
+		System.out.println(String.format("%d of %d levels solved", files.size() - unsolved, files.size()));
+		System.exit(unsolved);
+	}
+
+	/**
+	 * Returns the level files in a directory, sorted by name
+	 *
+	 * @param directory The directory to list
+	 *
+	 * @return the level files in the directory, or none if it does not exist
+	 */
+	private static ArrayList<FileHandle> listLevels(FileHandle directory) {
+		ArrayList<FileHandle> levels = new ArrayList<FileHandle>();
+		if (directory.isDirectory()) {
+			levels.addAll(Arrays.asList(directory.list(".lvl")));
+			Collections.sort(levels, new Comparator<FileHandle>() {
+				public int compare(FileHandle a, FileHandle b) {
+					return a.name().compareTo(b.name());
+				}
+			});
+		}
+		return levels;
+	}
+}